@@ -0,0 +1,61 @@
+package com.snowfort.turtorial.benchmark;
+
+import com.snowfort.turtorial.model.Lesson;
+import com.snowfort.turtorial.repository.ResourceLessonRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heap retained by a loaded catalog, measured by walking its object graph with JOL. Shared
+ * (interned) strings count once, so the {@code retainedBytes} and {@code bytesPerStep} counters drop
+ * when repeated values are deduplicated; compare them across commits in {@code jmh-result.json}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class CatalogFootprintBenchmark {
+
+    @Param({ "100" })
+    public int lessons;
+
+    @Param({ "100" })
+    public int stepsPerLesson;
+
+    private Path root;
+    private ResourceLessonRepository repository;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long retainedBytes;
+        public long bytesPerStep;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        root = SyntheticCatalog.create(lessons, stepsPerLesson, 1);
+        repository = SyntheticCatalog.repository(root);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        SyntheticCatalog.delete(root);
+    }
+
+    @Benchmark
+    public List<Lesson> loadAndMeasure(Footprint footprint) {
+        repository.loadLessons();
+        List<Lesson> catalog = repository.findAll();
+        footprint.retainedBytes = GraphLayout.parseInstance(catalog).totalSize();
+        footprint.bytesPerStep = footprint.retainedBytes / ((long) lessons * stepsPerLesson);
+        return catalog;
+    }
+}
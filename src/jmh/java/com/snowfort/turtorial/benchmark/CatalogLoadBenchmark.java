@@ -0,0 +1,46 @@
+package com.snowfort.turtorial.benchmark;
+
+import com.snowfort.turtorial.model.Lesson;
+import com.snowfort.turtorial.repository.ResourceLessonRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** A full {@link ResourceLessonRepository#loadLessons()} (scan, parse, sort) on catalogs of growing size. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CatalogLoadBenchmark {
+
+    @Param({ "10", "100" })
+    public int lessons;
+
+    @Param({ "20" })
+    public int stepsPerLesson;
+
+    private Path root;
+    private ResourceLessonRepository repository;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        root = SyntheticCatalog.create(lessons, stepsPerLesson, 10);
+        repository = SyntheticCatalog.repository(root);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        SyntheticCatalog.delete(root);
+    }
+
+    @Benchmark
+    public List<Lesson> loadLessons() {
+        repository.loadLessons();
+        return repository.findAll();
+    }
+}
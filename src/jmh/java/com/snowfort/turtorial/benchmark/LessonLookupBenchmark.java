@@ -0,0 +1,74 @@
+package com.snowfort.turtorial.benchmark;
+
+import com.snowfort.turtorial.model.Lesson;
+import com.snowfort.turtorial.model.Step;
+import com.snowfort.turtorial.repository.ResourceLessonRepository;
+import com.snowfort.turtorial.service.LessonService;
+import com.snowfort.turtorial.service.ShellCommandExecutor;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** {@link LessonService#findById} and {@link LessonService#findStep} over a loaded catalog, cycling through every id. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LessonLookupBenchmark {
+
+    @Param({ "10", "100" })
+    public int lessons;
+
+    private Path root;
+    private LessonService lessonService;
+    private String[] lessonIds;
+    private String[] stepIds;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        root = SyntheticCatalog.create(lessons, 20, 1);
+        ResourceLessonRepository repository = SyntheticCatalog.repository(root);
+        repository.init();
+        lessonService = new LessonService(repository, new ShellCommandExecutor(), false);
+
+        List<Lesson> catalog = repository.findAll();
+        int steps = catalog.stream().mapToInt(lesson -> lesson.getSteps().size()).sum();
+        lessonIds = new String[steps];
+        stepIds = new String[steps];
+        int i = 0;
+        for (Lesson lesson : catalog) {
+            for (Step step : lesson.getSteps()) {
+                lessonIds[i] = lesson.getId();
+                stepIds[i] = step.getId();
+                i++;
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        SyntheticCatalog.delete(root);
+    }
+
+    @Benchmark
+    public Lesson findById(Cursor cursor) {
+        int i = cursor.next++ % lessonIds.length;
+        return lessonService.findById(lessonIds[i]);
+    }
+
+    @Benchmark
+    public Step findStep(Cursor cursor) {
+        int i = cursor.next++ % lessonIds.length;
+        return lessonService.findStep(lessonIds[i], stepIds[i]);
+    }
+}
@@ -0,0 +1,63 @@
+package com.snowfort.turtorial.benchmark;
+
+import com.snowfort.turtorial.model.Lesson;
+import com.snowfort.turtorial.model.SearchResults;
+import com.snowfort.turtorial.model.Step;
+import com.snowfort.turtorial.service.LessonSearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** {@link LessonSearchIndex#search} over an in-memory catalog of 20k steps, cycling through typical queries. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LessonSearchBenchmark {
+
+    private static final String[] WORDS = { "docker", "image", "container", "volume", "network", "compose", "build",
+            "run", "kubernetes", "pod", "deployment", "service", "git", "branch", "merge", "rebase" };
+    private static final String[] QUERIES = { "docker volume", "kubernetes pod", "git reb", "section", "merge branch" };
+
+    private List<Lesson> lessons;
+    private LessonSearchIndex index;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        lessons = new ArrayList<>();
+        for (int l = 0; l < 400; l++) {
+            List<Step> steps = new ArrayList<>();
+            for (int s = 0; s < 50; s++) {
+                StringBuilder content = new StringBuilder();
+                for (int w = 0; w < 200; w++) {
+                    content.append(WORDS[(l * 31 + s * 7 + w * 13) % WORDS.length]).append(' ');
+                }
+                steps.add(Step.builder("step-" + s).title("Step " + s).section("Section " + (s % 5))
+                        .content(content.toString()).build());
+            }
+            lessons.add(Lesson.builder("lesson-" + l).title("Lesson " + l).steps(steps).build());
+        }
+        index = LessonSearchIndex.build(lessons);
+    }
+
+    @Benchmark
+    public SearchResults search(Cursor cursor) {
+        return index.search(QUERIES[cursor.next++ % QUERIES.length], 0, 10);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public LessonSearchIndex build() {
+        return LessonSearchIndex.build(lessons);
+    }
+}
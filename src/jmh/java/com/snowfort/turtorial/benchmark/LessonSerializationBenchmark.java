@@ -0,0 +1,57 @@
+package com.snowfort.turtorial.benchmark;
+
+import com.snowfort.turtorial.model.Lesson;
+import com.snowfort.turtorial.model.LessonSummary;
+import com.snowfort.turtorial.repository.ResourceLessonRepository;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the API payloads, done the way {@code LessonResponseCache} does it when a
+ * catalog is (re)loaded: one full lesson and the summary list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LessonSerializationBenchmark {
+
+    @Param({ "20", "100" })
+    public int stepsPerLesson;
+
+    private final JsonMapper jsonMapper = new JsonMapper();
+    private Path root;
+    private Lesson lesson;
+    private List<LessonSummary> summaries;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        root = SyntheticCatalog.create(10, stepsPerLesson, 10);
+        ResourceLessonRepository repository = SyntheticCatalog.repository(root);
+        repository.init();
+        lesson = repository.findAll().get(0);
+        summaries = repository.findAll().stream().map(LessonSummary::of).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        SyntheticCatalog.delete(root);
+    }
+
+    @Benchmark
+    public byte[] serializeLesson() {
+        return jsonMapper.writeValueAsBytes(lesson);
+    }
+
+    @Benchmark
+    public byte[] serializeSummaries() {
+        return jsonMapper.writeValueAsBytes(summaries);
+    }
+}
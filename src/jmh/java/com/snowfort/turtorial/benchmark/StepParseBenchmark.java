@@ -0,0 +1,48 @@
+package com.snowfort.turtorial.benchmark;
+
+import com.snowfort.turtorial.model.Step;
+import com.snowfort.turtorial.service.LessonParser;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/** {@link LessonParser#parseStep} on one file, including frontmatter validation and Markdown rendering. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StepParseBenchmark {
+
+    @Param({ "5", "100" })
+    public int paragraphs;
+
+    private Path directory;
+    private FileSystemResource resource;
+    private LessonParser parser;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("turtorial-jmh");
+        Path file = directory.resolve("001-step.md");
+        Files.writeString(file, SyntheticCatalog.step(1, paragraphs));
+        resource = new FileSystemResource(file);
+        parser = new LessonParser(true);
+        parser.init();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        SyntheticCatalog.delete(directory);
+    }
+
+    @Benchmark
+    public Step parseStep() throws IOException {
+        return parser.parseStep(resource, "001-step.md", false);
+    }
+}
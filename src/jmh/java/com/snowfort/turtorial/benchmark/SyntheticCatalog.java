@@ -0,0 +1,61 @@
+package com.snowfort.turtorial.benchmark;
+
+import com.snowfort.turtorial.repository.ResourceLessonRepository;
+import com.snowfort.turtorial.service.LessonParser;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/** Writes generated lessons to a temporary directory, shaped like the bundled lessons. */
+final class SyntheticCatalog {
+
+    private SyntheticCatalog() {
+    }
+
+    static Path create(int lessons, int stepsPerLesson, int paragraphs) throws IOException {
+        Path root = Files.createTempDirectory("turtorial-jmh");
+        for (int l = 0; l < lessons; l++) {
+            Path lessonDir = Files.createDirectories(root.resolve("lessons/lesson-" + l));
+            Files.writeString(lessonDir.resolve("lesson.yml"), "title: Lesson " + l + "\ndescription: Generated lesson\n");
+            for (int s = 0; s < stepsPerLesson; s++) {
+                Files.writeString(lessonDir.resolve(String.format("%03d-step.md", s)), step(s, paragraphs));
+            }
+        }
+        return root;
+    }
+
+    static String step(int index, int paragraphs) {
+        return "---\n" +
+                "title: Step " + index + "\n" +
+                "order: " + index + "\n" +
+                "section: Section " + (index % 5) + "\n" +
+                "testCommand: test -f /tmp/step-" + (index % 10) + "\n" +
+                "quizzes:\n" +
+                "  - question: 'Which command lists files?'\n" +
+                "    type: CHOICE\n" +
+                "    options: ['cd', 'ls', 'pwd']\n" +
+                "    correctAnswer: 'ls'\n" +
+                "---\n" +
+                "# Step " + index + "\n\n" +
+                "Run the command below and check the **output** in the terminal.\n\n".repeat(paragraphs) +
+                "```bash\nls -la /tmp\n```\n\n" +
+                ":::tip Hint\nUse `man ls` to see all options.\n:::\n";
+    }
+
+    static ResourceLessonRepository repository(Path root) {
+        LessonParser parser = new LessonParser(true);
+        parser.init();
+        return new ResourceLessonRepository(parser, root.resolve("lessons").toUri().toString(), false, true);
+    }
+
+    static void delete(Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
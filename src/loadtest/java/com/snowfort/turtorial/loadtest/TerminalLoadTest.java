@@ -0,0 +1,464 @@
+package com.snowfort.turtorial.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load generator for the {@code /term} WebSocket. Opens many terminal sessions against a running
+ * server and drives each one with a scripted learner: commands typed one key at a time, mixed with
+ * commands that produce bursts of output.
+ * <p>
+ * Reports connect and PTY spawn time (until the first output arrives), keystroke echo round trip
+ * percentiles, output throughput, and, when {@code --pid} names the server process, its CPU usage
+ * and resident memory. Only the JDK is needed, so it runs straight from source:
+ *
+ * <pre>
+ * java src/loadtest/java/com/snowfort/turtorial/loadtest/TerminalLoadTest.java --sessions 50 --pid 12345
+ * </pre>
+ */
+public final class TerminalLoadTest {
+
+    private static final Duration ECHO_TIMEOUT = Duration.ofSeconds(2);
+    private static final Duration BURST_TIMEOUT = Duration.ofSeconds(60);
+    private static final Duration SPAWN_TIMEOUT = Duration.ofSeconds(30);
+
+    private TerminalLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        Stats stats = new Stats();
+        HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+
+        System.out.printf(Locale.ROOT, "Opening %d sessions to %s over %ds, running '%s' for %ds%n",
+                options.sessions, options.uri, options.ramp.toSeconds(), options.workload, options.duration.toSeconds());
+
+        ResourceSampler sampler = options.pid > 0 ? ResourceSampler.start(options.pid) : null;
+        long started = System.nanoTime();
+        try (ExecutorService sessions = Executors.newVirtualThreadPerTaskExecutor()) {
+            long rampStep = options.sessions > 1 ? options.ramp.toNanos() / (options.sessions - 1) : 0;
+            long deadline = started + options.ramp.toNanos() + options.duration.toNanos();
+            for (int i = 0; i < options.sessions; i++) {
+                int id = i;
+                if (i > 0) {
+                    TimeUnit.NANOSECONDS.sleep(rampStep);
+                }
+                sessions.submit(() -> new LoadSession(id, client, options, stats, deadline).run());
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+        if (sampler != null) {
+            sampler.stop();
+        }
+
+        String report = stats.report(elapsedSeconds, sampler);
+        System.out.println(report);
+        if (options.json != null) {
+            Files.writeString(options.json, stats.json(options, elapsedSeconds, sampler));
+            System.out.println("Wrote " + options.json);
+        }
+        client.close();
+    }
+
+    record Options(URI uri, int sessions, Duration duration, Duration ramp, Duration typingDelay, String workload,
+            int burstLines, long pid, Path json) {
+
+        static Options parse(String[] args) {
+            URI uri = URI.create("ws://localhost:8080/term");
+            int sessions = 10;
+            Duration duration = Duration.ofSeconds(60);
+            Duration ramp = Duration.ofSeconds(10);
+            Duration typingDelay = Duration.ofMillis(120);
+            String workload = "mixed";
+            int burstLines = 20_000;
+            long pid = 0;
+            Path json = null;
+            for (int i = 0; i < args.length; i++) {
+                String value = i + 1 < args.length ? args[i + 1] : null;
+                switch (args[i]) {
+                    case "--url" -> uri = URI.create(value);
+                    case "--sessions" -> sessions = Integer.parseInt(value);
+                    case "--duration" -> duration = Duration.ofSeconds(Long.parseLong(value));
+                    case "--ramp" -> ramp = Duration.ofSeconds(Long.parseLong(value));
+                    case "--typing-delay" -> typingDelay = Duration.ofMillis(Long.parseLong(value));
+                    case "--workload" -> workload = value;
+                    case "--burst-lines" -> burstLines = Integer.parseInt(value);
+                    case "--pid" -> pid = Long.parseLong(value);
+                    case "--json" -> json = Path.of(value);
+                    default -> throw new IllegalArgumentException("Unknown option " + args[i] + "\n" + usage());
+                }
+                i++;
+            }
+            if (!List.of("typing", "burst", "mixed").contains(workload)) {
+                throw new IllegalArgumentException("Unknown workload " + workload + "\n" + usage());
+            }
+            return new Options(uri, sessions, duration, ramp, typingDelay, workload, burstLines, pid, json);
+        }
+
+        static String usage() {
+            return """
+                    Options:
+                      --url ws://host:port/term   terminal endpoint (default ws://localhost:8080/term)
+                      --sessions N                concurrent sessions (default 10)
+                      --duration SECONDS          run time after the last session connected (default 60)
+                      --ramp SECONDS              time over which sessions are opened (default 10)
+                      --typing-delay MILLIS       pause between keystrokes (default 120)
+                      --workload typing|burst|mixed   (default mixed: every fifth command is a burst)
+                      --burst-lines N             lines printed by a burst command (default 20000)
+                      --pid PID                   server process to sample CPU and RSS from
+                      --json FILE                 also write the results as JSON
+                    """;
+        }
+    }
+
+    /** One simulated learner. Output is only counted, apart from a short tail used to find markers. */
+    static final class LoadSession implements WebSocket.Listener {
+
+        private final int id;
+        private final HttpClient client;
+        private final Options options;
+        private final Stats stats;
+        private final long deadline;
+
+        private final Object lock = new Object();
+        private final StringBuilder tail = new StringBuilder();
+        private long received;
+        private long firstOutputAt;
+
+        LoadSession(int id, HttpClient client, Options options, Stats stats, long deadline) {
+            this.id = id;
+            this.client = client;
+            this.options = options;
+            this.stats = stats;
+            this.deadline = deadline;
+        }
+
+        void run() {
+            WebSocket socket = null;
+            try {
+                long start = System.nanoTime();
+                socket = client.newWebSocketBuilder()
+                        .connectTimeout(Duration.ofSeconds(10))
+                        .buildAsync(options.uri, this)
+                        .get(30, TimeUnit.SECONDS);
+                stats.connect.add(System.nanoTime() - start);
+
+                if (!awaitReceived(0, SPAWN_TIMEOUT)) {
+                    throw new IOException("no output within " + SPAWN_TIMEOUT.toSeconds() + "s");
+                }
+                stats.spawn.add(firstOutputAt - start);
+                awaitQuiet(Duration.ofMillis(500));
+
+                for (int iteration = 0; System.nanoTime() < deadline; iteration++) {
+                    boolean burst = switch (options.workload) {
+                        case "burst" -> true;
+                        case "typing" -> false;
+                        default -> iteration % 5 == 4;
+                    };
+                    if (burst) {
+                        burst(socket, iteration);
+                    } else {
+                        type(socket, "echo step " + iteration + "\r");
+                    }
+                }
+                stats.completedSessions.incrementAndGet();
+            } catch (Exception e) {
+                stats.failedSessions.incrementAndGet();
+                System.err.println("Session " + id + " failed: " + e);
+            } finally {
+                if (socket != null) {
+                    socket.sendClose(WebSocket.NORMAL_CLOSURE, "done");
+                }
+            }
+        }
+
+        private void type(WebSocket socket, String command) throws Exception {
+            for (int i = 0; i < command.length() && System.nanoTime() < deadline; i++) {
+                long before = received();
+                long sentAt = System.nanoTime();
+                socket.sendText(command.substring(i, i + 1), true).get(ECHO_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+                if (awaitReceived(before, ECHO_TIMEOUT)) {
+                    stats.keystroke.add(System.nanoTime() - sentAt);
+                } else {
+                    stats.echoTimeouts.incrementAndGet();
+                }
+                Thread.sleep(options.typingDelay);
+            }
+            awaitQuiet(Duration.ofMillis(200));
+        }
+
+        private void burst(WebSocket socket, int iteration) throws Exception {
+            // The arithmetic keeps the marker out of the echoed command line
+            String marker = "__DONE_" + id + "_" + iteration + "__";
+            String command = "seq 1 " + options.burstLines + "; echo __DONE_" + id + "_$((" + iteration + "+0))__\r";
+            long before = received();
+            long start = System.nanoTime();
+            socket.sendText(command, true).get(ECHO_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            if (awaitMarker(marker, BURST_TIMEOUT)) {
+                long nanos = System.nanoTime() - start;
+                stats.burst.add(nanos);
+                stats.burstChars.addAndGet(received() - before);
+                stats.burstNanos.addAndGet(nanos);
+            } else {
+                stats.burstTimeouts.incrementAndGet();
+            }
+            awaitQuiet(Duration.ofMillis(200));
+        }
+
+        @Override
+        public void onOpen(WebSocket webSocket) {
+            webSocket.request(1);
+        }
+
+        @Override
+        public CompletionStage<?> onBinary(WebSocket webSocket, ByteBuffer bytes, boolean last) {
+            // Output is mostly ASCII; a character split across frames only skews the count slightly
+            CharSequence data = StandardCharsets.UTF_8.decode(bytes);
+            synchronized (lock) {
+                if (firstOutputAt == 0) {
+                    firstOutputAt = System.nanoTime();
+                }
+                received += data.length();
+                tail.append(data);
+                if (tail.length() > 4096) {
+                    tail.delete(0, tail.length() - 1024);
+                }
+                lock.notifyAll();
+            }
+            stats.totalChars.addAndGet(data.length());
+            webSocket.request(1);
+            return null;
+        }
+
+        private long received() {
+            synchronized (lock) {
+                return received;
+            }
+        }
+
+        private boolean awaitReceived(long before, Duration timeout) throws InterruptedException {
+            long end = System.nanoTime() + timeout.toNanos();
+            synchronized (lock) {
+                while (received <= before) {
+                    long remaining = end - System.nanoTime();
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                }
+                return true;
+            }
+        }
+
+        private boolean awaitMarker(String marker, Duration timeout) throws InterruptedException {
+            long end = System.nanoTime() + timeout.toNanos();
+            synchronized (lock) {
+                while (tail.indexOf(marker) < 0) {
+                    long remaining = end - System.nanoTime();
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                }
+                tail.setLength(0);
+                return true;
+            }
+        }
+
+        /** Waits until no output has arrived for the given time, e.g. until the prompt has been drawn. */
+        private void awaitQuiet(Duration quiet) throws InterruptedException {
+            long seen;
+            do {
+                seen = received();
+                Thread.sleep(quiet);
+            } while (received() != seen && System.nanoTime() < deadline);
+        }
+    }
+
+    /** Samples the server process once a second: CPU as a percentage of one core, and resident set size. */
+    static final class ResourceSampler {
+
+        private final ProcessHandle process;
+        private final Thread thread;
+        private volatile boolean running = true;
+        private double cpuPercentSum;
+        private double cpuPercentMax;
+        private long rssKbSum;
+        private long rssKbMax;
+        private int samples;
+
+        private ResourceSampler(ProcessHandle process) {
+            this.process = process;
+            this.thread = Thread.ofPlatform().daemon().name("resource-sampler").unstarted(this::sample);
+        }
+
+        static ResourceSampler start(long pid) {
+            ProcessHandle process = ProcessHandle.of(pid)
+                    .orElseThrow(() -> new IllegalArgumentException("No process with pid " + pid));
+            ResourceSampler sampler = new ResourceSampler(process);
+            sampler.thread.start();
+            return sampler;
+        }
+
+        void stop() throws InterruptedException {
+            running = false;
+            thread.join();
+        }
+
+        private void sample() {
+            long lastCpu = cpuNanos();
+            long lastWall = System.nanoTime();
+            while (running && process.isAlive()) {
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long cpu = cpuNanos();
+                long wall = System.nanoTime();
+                double percent = 100.0 * (cpu - lastCpu) / (wall - lastWall);
+                long rss = rssKb();
+                synchronized (this) {
+                    cpuPercentSum += percent;
+                    cpuPercentMax = Math.max(cpuPercentMax, percent);
+                    rssKbSum += rss;
+                    rssKbMax = Math.max(rssKbMax, rss);
+                    samples++;
+                }
+                lastCpu = cpu;
+                lastWall = wall;
+            }
+        }
+
+        private long cpuNanos() {
+            return process.info().totalCpuDuration().map(Duration::toNanos).orElse(0L);
+        }
+
+        /** Linux only; other platforms report 0. */
+        private long rssKb() {
+            try {
+                for (String line : Files.readAllLines(Path.of("/proc/" + process.pid() + "/status"))) {
+                    if (line.startsWith("VmRSS:")) {
+                        return Long.parseLong(line.replaceAll("\\D", ""));
+                    }
+                }
+            } catch (IOException | NumberFormatException e) {
+                // Not available on this platform
+            }
+            return 0;
+        }
+
+        synchronized String summary() {
+            if (samples == 0) {
+                return "server: no samples";
+            }
+            return String.format(Locale.ROOT, "server CPU avg %.0f%% max %.0f%% (of one core), RSS avg %d MiB max %d MiB",
+                    cpuPercentSum / samples, cpuPercentMax, rssKbSum / samples / 1024, rssKbMax / 1024);
+        }
+
+        synchronized String json() {
+            return String.format(Locale.ROOT,
+                    "{\"cpuPercentAvg\":%.1f,\"cpuPercentMax\":%.1f,\"rssKbAvg\":%d,\"rssKbMax\":%d}",
+                    samples == 0 ? 0 : cpuPercentSum / samples, cpuPercentMax,
+                    samples == 0 ? 0 : rssKbSum / samples, rssKbMax);
+        }
+    }
+
+    static final class Stats {
+        final Samples connect = new Samples();
+        final Samples spawn = new Samples();
+        final Samples keystroke = new Samples();
+        final Samples burst = new Samples();
+        final AtomicLong completedSessions = new AtomicLong();
+        final AtomicLong failedSessions = new AtomicLong();
+        final AtomicLong echoTimeouts = new AtomicLong();
+        final AtomicLong burstTimeouts = new AtomicLong();
+        final AtomicLong burstChars = new AtomicLong();
+        final AtomicLong burstNanos = new AtomicLong();
+        final AtomicLong totalChars = new AtomicLong();
+
+        String report(double elapsedSeconds, ResourceSampler sampler) {
+            StringBuilder out = new StringBuilder("\n");
+            out.append(String.format(Locale.ROOT, "sessions: %d completed, %d failed in %.1fs%n",
+                    completedSessions.get(), failedSessions.get(), elapsedSeconds));
+            out.append(connect.line("connect")).append(spawn.line("pty spawn")).append(keystroke.line("keystroke echo"))
+                    .append(burst.line("burst"));
+            out.append(String.format(Locale.ROOT, "echo timeouts: %d, burst timeouts: %d%n", echoTimeouts.get(),
+                    burstTimeouts.get()));
+            out.append(String.format(Locale.ROOT, "output: %.2f MiB/s per burst, %.2f MiB/s overall%n",
+                    burstNanos.get() == 0 ? 0 : burstChars.get() / 1048576.0 / (burstNanos.get() / 1e9),
+                    totalChars.get() / 1048576.0 / elapsedSeconds));
+            if (sampler != null) {
+                out.append(sampler.summary()).append('\n');
+            }
+            return out.toString();
+        }
+
+        String json(Options options, double elapsedSeconds, ResourceSampler sampler) {
+            return "{\"sessions\":" + options.sessions + ",\"workload\":\"" + options.workload + "\""
+                    + ",\"elapsedSeconds\":" + String.format(Locale.ROOT, "%.1f", elapsedSeconds)
+                    + ",\"completedSessions\":" + completedSessions.get() + ",\"failedSessions\":" + failedSessions.get()
+                    + ",\"connect\":" + connect.json() + ",\"spawn\":" + spawn.json()
+                    + ",\"keystroke\":" + keystroke.json() + ",\"burst\":" + burst.json()
+                    + ",\"echoTimeouts\":" + echoTimeouts.get() + ",\"burstTimeouts\":" + burstTimeouts.get()
+                    + ",\"burstChars\":" + burstChars.get() + ",\"totalChars\":" + totalChars.get()
+                    + ",\"server\":" + (sampler == null ? "null" : sampler.json()) + "}\n";
+        }
+    }
+
+    /** Latency samples in nanoseconds; percentiles are exact, computed from the sorted samples. */
+    static final class Samples {
+        private long[] values = new long[1024];
+        private int size;
+
+        synchronized void add(long nanos) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+
+        static double percentileMillis(long[] sorted, double fraction) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(fraction * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1e6;
+        }
+
+        String line(String name) {
+            long[] sorted = sorted();
+            return String.format(Locale.ROOT, "%-15s n=%-7d p50 %8.2f ms  p99 %8.2f ms  p99.9 %8.2f ms  max %8.2f ms%n",
+                    name, sorted.length, percentileMillis(sorted, 0.5), percentileMillis(sorted, 0.99),
+                    percentileMillis(sorted, 0.999), percentileMillis(sorted, 1.0));
+        }
+
+        String json() {
+            long[] sorted = sorted();
+            return String.format(Locale.ROOT, "{\"count\":%d,\"p50Ms\":%.3f,\"p99Ms\":%.3f,\"p999Ms\":%.3f,\"maxMs\":%.3f}",
+                    sorted.length, percentileMillis(sorted, 0.5), percentileMillis(sorted, 0.99),
+                    percentileMillis(sorted, 0.999), percentileMillis(sorted, 1.0));
+        }
+    }
+}
@@ -0,0 +1,59 @@
+import { gzipSync } from 'node:zlib';
+import type { Plugin } from 'vite';
+
+interface BundleBudget {
+  /** Largest allowed gzipped size of the entry chunk, in KB. */
+  entryKb: number;
+  /** Largest allowed gzipped size of any lazily loaded chunk, in KB. */
+  chunkKb: number;
+  /** Largest allowed gzipped size of all JS and CSS together, in KB. */
+  totalKb: number;
+}
+
+/**
+ * Fails the production build when the gzipped output grows past the given budget, and prints the
+ * size of every chunk so regressions are easy to spot in the build log.
+ */
+export default function bundleBudget(budget: BundleBudget): Plugin {
+  return {
+    name: 'turtorial-bundle-budget',
+    apply: 'build',
+    generateBundle(_options, bundle) {
+      // Only the app build is budgeted, not Storybook or other builds sharing this config
+      const isAppBuild = Object.values(bundle).some(
+        output => output.type === 'chunk' && output.isEntry && output.facadeModuleId?.endsWith('/index.html'));
+      if (!isAppBuild) {
+        return;
+      }
+
+      const violations: string[] = [];
+      const rows: string[] = [];
+      let total = 0;
+
+      for (const output of Object.values(bundle)) {
+        const isChunk = output.type === 'chunk';
+        if (!isChunk && !output.fileName.endsWith('.css')) {
+          continue;
+        }
+        const source = isChunk ? output.code : output.source;
+        const size = gzipSync(source).length / 1024;
+        total += size;
+
+        const isEntry = isChunk && output.isEntry;
+        const limit = isEntry ? budget.entryKb : budget.chunkKb;
+        rows.push(`  ${output.fileName.padEnd(48)} ${size.toFixed(1).padStart(7)} KB gz${isEntry ? ' (entry)' : ''}`);
+        if (isChunk && size > limit) {
+          violations.push(`${output.fileName} is ${size.toFixed(1)} KB gzipped, budget is ${limit} KB`);
+        }
+      }
+      if (total > budget.totalKb) {
+        violations.push(`total is ${total.toFixed(1)} KB gzipped, budget is ${budget.totalKb} KB`);
+      }
+
+      this.info(`bundle sizes:\n${rows.join('\n')}\n  total ${total.toFixed(1)} KB gz`);
+      if (violations.length > 0) {
+        this.error(`bundle budget exceeded:\n  ${violations.join('\n  ')}`);
+      }
+    },
+  };
+}
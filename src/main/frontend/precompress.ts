@@ -0,0 +1,58 @@
+import { promises as fs } from 'node:fs';
+import path from 'node:path';
+import { brotliCompressSync, constants, gzipSync } from 'node:zlib';
+import type { Plugin } from 'vite';
+
+const COMPRESSIBLE = /\.(js|mjs|css|html|svg|json|txt|wasm)$/;
+const MIN_SIZE = 1024;
+
+/**
+ * Writes `.gz` and `.br` siblings next to the hashed build assets so the server can hand out
+ * precompressed files instead of compressing on every request. A variant is only kept when it
+ * is actually smaller than the original.
+ */
+export default function precompress(): Plugin {
+  let outDir = 'dist';
+
+  return {
+    name: 'turtorial-precompress',
+    apply: 'build',
+    configResolved(config) {
+      outDir = path.resolve(config.root, config.build.outDir);
+    },
+    async writeBundle(_options, bundle) {
+      let written = 0;
+      let saved = 0;
+
+      for (const fileName of Object.keys(bundle)) {
+        if (!fileName.startsWith('assets/') || !COMPRESSIBLE.test(fileName)) {
+          continue;
+        }
+        const file = path.join(outDir, fileName);
+        const source = await fs.readFile(file);
+        if (source.length < MIN_SIZE) {
+          continue;
+        }
+
+        const variants: [string, Buffer][] = [
+          ['.gz', gzipSync(source, { level: 9 })],
+          ['.br', brotliCompressSync(source, {
+            params: {
+              [constants.BROTLI_PARAM_QUALITY]: constants.BROTLI_MAX_QUALITY,
+              [constants.BROTLI_PARAM_SIZE_HINT]: source.length,
+            },
+          })],
+        ];
+        for (const [extension, compressed] of variants) {
+          if (compressed.length < source.length) {
+            await fs.writeFile(file + extension, compressed);
+            written++;
+            saved += source.length - compressed.length;
+          }
+        }
+      }
+
+      this.info(`wrote ${written} precompressed assets, ${(saved / 1024).toFixed(1)} KB smaller than originals`);
+    },
+  };
+}
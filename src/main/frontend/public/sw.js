@@ -0,0 +1,115 @@
+// Service worker for lesson content.
+//
+// - Lesson JSON (/api/lessons and /api/lessons/{id}) is served stale-while-revalidate: a cached copy
+//   answers immediately and is refreshed in the background. The refresh is a conditional request
+//   against the server's ETag, so an unchanged lesson costs a 304. When the ETag changes, open pages
+//   are told so they can re-render.
+// - Hashed build assets never change and are served cache-first.
+// - Page navigations go to the network and fall back to the cached shell when offline.
+
+const API_CACHE = 'turtorial-api-v1';
+const ASSET_CACHE = 'turtorial-assets-v1';
+const SHELL_CACHE = 'turtorial-shell-v1';
+const CACHES = [API_CACHE, ASSET_CACHE, SHELL_CACHE];
+
+const LESSON_JSON = /^\/api\/lessons(\/[^/]+)?\/?$/;
+
+self.addEventListener('install', () => {
+  self.skipWaiting();
+});
+
+self.addEventListener('activate', (event) => {
+  event.waitUntil((async () => {
+    for (const name of await caches.keys()) {
+      if (!CACHES.includes(name)) {
+        await caches.delete(name);
+      }
+    }
+    await self.clients.claim();
+  })());
+});
+
+self.addEventListener('fetch', (event) => {
+  const request = event.request;
+  if (request.method !== 'GET') {
+    return;
+  }
+  const url = new URL(request.url);
+  if (url.origin !== self.location.origin) {
+    return;
+  }
+
+  if (LESSON_JSON.test(url.pathname)) {
+    event.respondWith(staleWhileRevalidate(event, request));
+  } else if (url.pathname.startsWith('/assets/')) {
+    event.respondWith(cacheFirst(request));
+  } else if (request.mode === 'navigate') {
+    event.respondWith(networkFirstShell(request));
+  }
+});
+
+async function staleWhileRevalidate(event, request) {
+  const cache = await caches.open(API_CACHE);
+  const cached = await cache.match(request);
+
+  const refresh = fetch(request, { headers: conditionalHeaders(cached) }).then(async (response) => {
+    if (response.status === 304 && cached) {
+      return cached;
+    }
+    if (response.ok) {
+      await cache.put(request, response.clone());
+      if (cached && cached.headers.get('ETag') !== response.headers.get('ETag')) {
+        await notifyClients(request.url);
+      }
+    }
+    return response;
+  });
+
+  if (cached) {
+    event.waitUntil(refresh.catch(() => undefined));
+    return cached;
+  }
+  return refresh;
+}
+
+function conditionalHeaders(cached) {
+  const etag = cached && cached.headers.get('ETag');
+  return etag ? { 'If-None-Match': etag } : {};
+}
+
+async function notifyClients(url) {
+  for (const client of await self.clients.matchAll({ type: 'window' })) {
+    client.postMessage({ type: 'lesson-updated', url });
+  }
+}
+
+async function cacheFirst(request) {
+  const cache = await caches.open(ASSET_CACHE);
+  const cached = await cache.match(request);
+  if (cached) {
+    return cached;
+  }
+  const response = await fetch(request);
+  if (response.ok) {
+    await cache.put(request, response.clone());
+  }
+  return response;
+}
+
+async function networkFirstShell(request) {
+  const cache = await caches.open(SHELL_CACHE);
+  try {
+    const response = await fetch(request);
+    if (response.ok) {
+      // Every client-side route renders the same index.html
+      await cache.put('/', response.clone());
+    }
+    return response;
+  } catch (err) {
+    const shell = await cache.match('/');
+    if (shell) {
+      return shell;
+    }
+    throw err;
+  }
+}
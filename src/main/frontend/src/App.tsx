@@ -1,22 +1,22 @@
 import { BrowserRouter, Routes, Route } from 'react-router-dom';
-import { useEffect, useState } from 'react';
-import LessonView from './views/LessonView';
+import { lazy, Suspense, useEffect, useState } from 'react';
 import LessonListView from './components/lesson-list/LessonListView';
+import { loadLessonView, loadRecordingView, loadWatchView, loadWorkspace, prefetch } from './lazy';
+import type { LessonSummary } from './types';
 
-interface Lesson {
-  id: string;
-  title: string;
-  description?: string;
-}
+const LessonView = lazy(loadLessonView);
+const RecordingView = lazy(loadRecordingView);
+const WatchView = lazy(loadWatchView);
 
 function Home() {
-  const [lessons, setLessons] = useState<Lesson[]>([]);
+  const [lessons, setLessons] = useState<LessonSummary[]>([]);
 
   useEffect(() => {
     fetch('/api/lessons')
       .then(res => res.json())
       .then(data => setLessons(data))
       .catch(err => console.error(err));
+    prefetch(loadLessonView, loadWorkspace);
   }, []);
 
   return (
@@ -40,7 +40,21 @@ function App() {
     <BrowserRouter>
       <Routes>
         <Route path="/" element={<Home />} />
-        <Route path="/lesson/:lessonId" element={<LessonView />} />
+        <Route path="/lesson/:lessonId" element={
+          <Suspense fallback={<div className="p-10 text-foreground flex items-center justify-center h-screen bg-background">Loading lesson...</div>}>
+            <LessonView />
+          </Suspense>
+        } />
+        <Route path="/recordings/:name" element={
+          <Suspense fallback={<div className="p-10 text-foreground flex items-center justify-center h-screen bg-background">Loading recording...</div>}>
+            <RecordingView />
+          </Suspense>
+        } />
+        <Route path="/watch/:channel" element={
+          <Suspense fallback={<div className="p-10 text-foreground flex items-center justify-center h-screen bg-background">Loading broadcast...</div>}>
+            <WatchView />
+          </Suspense>
+        } />
       </Routes>
     </BrowserRouter>
   );
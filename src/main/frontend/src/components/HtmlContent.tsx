@@ -0,0 +1,152 @@
+import React, { useMemo } from 'react';
+import hljs from 'highlight.js/lib/common';
+import 'highlight.js/styles/github-dark.css';
+
+import CodeBlock from './lesson/CodeBlock';
+import Admonition, { type AdmonitionType } from './lesson/Admonition';
+
+interface HtmlContentProps {
+    html: string;
+    /** Prefix for relative image and link URLs, which point at files stored next to the step. */
+    assetBase?: string;
+}
+
+// Elements the server-side renderer emits; anything else is dropped
+const ALLOWED_TAGS = new Set([
+    'p', 'h1', 'h2', 'h3', 'h4', 'h5', 'h6', 'ul', 'ol', 'li', 'blockquote', 'pre', 'code', 'em', 'strong',
+    'del', 'a', 'img', 'hr', 'br', 'table', 'thead', 'tbody', 'tr', 'th', 'td', 'input', 'div', 'span',
+]);
+
+const VOID_TAGS = new Set(['img', 'hr', 'br', 'input']);
+
+const openLink = (e: React.MouseEvent<HTMLAnchorElement>) => {
+    const href = e.currentTarget.getAttribute('href');
+    if (href && (href.startsWith('http://') || href.startsWith('https://'))) {
+        e.preventDefault();
+        window.dispatchEvent(new CustomEvent('browser:open', { detail: href }));
+    }
+};
+
+const isRelativeUrl = (url: string) => !/^([a-z][a-z0-9+.-]*:|\/|#|\?)/i.test(url);
+
+function attributesOf(el: Element, assetBase?: string): Record<string, unknown> {
+    const props: Record<string, unknown> = {};
+    for (const attr of Array.from(el.attributes)) {
+        switch (attr.name) {
+            case 'class':
+                props.className = attr.value;
+                break;
+            case 'align':
+                props.style = { textAlign: attr.value };
+                break;
+            case 'checked':
+            case 'disabled':
+                props[attr.name] = true;
+                break;
+            case 'href':
+            case 'src':
+                props[attr.name] = assetBase && attr.value && isRelativeUrl(attr.value)
+                    ? assetBase + attr.value.replace(/^\.\//, '')
+                    : attr.value;
+                break;
+            case 'alt':
+            case 'title':
+            case 'type':
+            case 'start':
+                props[attr.name] = attr.value;
+                break;
+            default:
+                if (attr.name.startsWith('data-')) {
+                    props[attr.name] = attr.value;
+                }
+        }
+    }
+    return props;
+}
+
+// Highlighted code is parsed back into spans so CodeBlock can still read the command text
+function highlight(code: Element, key: React.Key, assetBase?: string): React.ReactNode {
+    const match = /language-([\w-]+)/.exec(code.className);
+    const text = code.textContent ?? '';
+    let children: React.ReactNode = text;
+    let className = code.className;
+    if (match && hljs.getLanguage(match[1])) {
+        const highlighted = hljs.highlight(text, { language: match[1], ignoreIllegals: true }).value;
+        const fragment = new DOMParser().parseFromString(`<div>${highlighted}</div>`, 'text/html').body.firstChild!;
+        children = Array.from(fragment.childNodes, (child, index) => toReact(child, index, assetBase));
+        className = `hljs ${className}`;
+    }
+    return <CodeBlock key={key} className={className}>{children}</CodeBlock>;
+}
+
+function toReact(node: ChildNode, key: number, assetBase?: string): React.ReactNode {
+    if (node.nodeType === Node.TEXT_NODE) {
+        return node.textContent;
+    }
+    if (node.nodeType !== Node.ELEMENT_NODE) {
+        return null;
+    }
+
+    const el = node as Element;
+    const tag = el.tagName.toLowerCase();
+    if (!ALLOWED_TAGS.has(tag)) {
+        return null;
+    }
+    const props = attributesOf(el, assetBase);
+
+    if (tag === 'code' && el.parentElement?.tagName.toLowerCase() === 'pre') {
+        return highlight(el, key, assetBase);
+    }
+    if (VOID_TAGS.has(tag)) {
+        return React.createElement(tag, { ...props, key, readOnly: tag === 'input' ? true : undefined });
+    }
+
+    const children = Array.from(el.childNodes, (child, index) => toReact(child, index, assetBase));
+
+    switch (tag) {
+        case 'div': {
+            const type = el.getAttribute('data-admonition-type');
+            if (type) {
+                return (
+                    <Admonition key={key} type={type as AdmonitionType} title={el.getAttribute('data-admonition-title') ?? undefined}>
+                        {children}
+                    </Admonition>
+                );
+            }
+            return <div key={key} {...props}>{children}</div>;
+        }
+        case 'pre':
+            return (
+                <pre key={key} className="overflow-x-auto w-full max-w-full rounded-sm bg-transparent !p-0 !m-0">
+                    {children}
+                </pre>
+            );
+        case 'a':
+            return (
+                <a key={key} {...props} onClick={openLink} className="text-blue-500 hover:underline cursor-pointer">
+                    {children}
+                </a>
+            );
+        case 'blockquote':
+            return (
+                <blockquote key={key} className="border-l-4 border-border pl-4 italic text-muted-foreground my-4">
+                    {children}
+                </blockquote>
+            );
+        default:
+            return React.createElement(tag, { ...props, key }, children);
+    }
+}
+
+/**
+ * Renders step HTML that was produced and sanitized by the server, mapping code blocks, admonitions
+ * and links onto the same components the Markdown renderer uses.
+ */
+export default function HtmlContent({ html, assetBase }: HtmlContentProps) {
+    const nodes = useMemo(() => {
+        const body = new DOMParser().parseFromString(html, 'text/html').body;
+        return Array.from(body.childNodes, (child, index) => toReact(child, index, assetBase));
+    }, [html, assetBase]);
+
+    return <div className="w-full min-w-0 break-words">{nodes}</div>;
+}
@@ -1,4 +1,5 @@
 import { Link } from 'react-router-dom';
+import { prefetchLesson } from '../../lessonCache';
 
 interface LessonListItemProps {
     id: string;
@@ -10,6 +11,8 @@ export default function LessonListItem({ id, title, description }: LessonListIte
     return (
         <Link
             to={`/lesson/${id}`}
+            onMouseEnter={() => prefetchLesson(id)}
+            onFocus={() => prefetchLesson(id)}
             className="block p-6 bg-card text-card-foreground rounded border border-border hover:border-foreground transition-colors group"
         >
             <h2 className="text-xl font-bold mb-2 text-foreground group-hover:text-primary transition-colors">{title}</h2>
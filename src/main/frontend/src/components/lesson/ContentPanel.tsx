@@ -41,7 +41,10 @@ export default function ContentPanel({
                 />
                 <ContentSection
                     content={currentStep.content}
+                    html={currentStep.html}
+                    assetBase={`/api/lessons/${encodeURIComponent(lesson.id)}/assets/`}
                     quizzes={currentStep.quizzes}
+                    quizGradeUrl={`/api/lessons/${encodeURIComponent(lesson.id)}/steps/${encodeURIComponent(currentStep.id)}/quizzes/grade`}
                 />
             </div>
         </div>
@@ -53,12 +53,10 @@ export const WithQuiz: Story = {
                 question: 'What command lists files?',
                 type: 'CHOICE',
                 options: ['ls', 'cd', 'mkdir'],
-                correctAnswer: 'ls'
             },
             {
                 question: 'Type "hello"',
                 type: 'TEXT',
-                validationRegex: '^hello$'
             }
         ]
     },
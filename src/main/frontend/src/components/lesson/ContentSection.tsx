@@ -1,26 +1,36 @@
+import { lazy, Suspense } from 'react';
 import * as ScrollArea from '@radix-ui/react-scroll-area';
-import MarkdownRenderer from '../MarkdownRenderer';
+import HtmlContent from '../HtmlContent';
 import QuizComponent from './QuizComponent';
+import { loadMarkdownRenderer } from '../../lazy';
 import type { QuizQuestion } from '../../types';
 
+// Only needed for steps the server did not pre-render
+const MarkdownRenderer = lazy(loadMarkdownRenderer);
+
 interface ContentSectionProps {
-    content: string;
+    content?: string;
+    html?: string;
+    assetBase?: string;
     quizzes?: QuizQuestion[];
+    quizGradeUrl?: string;
 }
 
-export default function ContentSection({ content, quizzes }: ContentSectionProps) {
+export default function ContentSection({ content, html, assetBase, quizzes, quizGradeUrl }: ContentSectionProps) {
     return (
         <div className="flex-1 flex flex-col min-w-0 bg-background h-full">
             <ScrollArea.Root className="w-full h-full overflow-hidden">
                 <ScrollArea.Viewport className="w-full h-full p-8 *:!block overscroll-contain">
                     <div className="prose max-w-none w-full min-w-0 break-words text-foreground prose-headings:text-foreground prose-p:text-muted-foreground prose-strong:text-foreground prose-code:text-primary prose-code:before:content-none prose-code:after:content-none prose-code:bg-muted/50 prose-code:px-1 prose-code:py-0.5 prose-code:rounded-sm prose-code:font-mono prose-code:font-normal prose-pre:bg-muted/50 prose-pre:border prose-pre:border-border prose-pre:overflow-x-auto">
-                        <MarkdownRenderer content={content} />
+                        {html != null
+                            ? <HtmlContent html={html} assetBase={assetBase} />
+                            : <Suspense fallback={null}><MarkdownRenderer content={content ?? ''} /></Suspense>}
 
                         {quizzes && quizzes.length > 0 && (
                             <div className="mt-8">
                                 <h2 className="text-xl font-bold mb-4">Quiz</h2>
                                 {quizzes.map((quiz, index) => (
-                                    <QuizComponent key={index} quiz={quiz} index={index} />
+                                    <QuizComponent key={index} quiz={quiz} index={index} gradeUrl={quizGradeUrl} />
                                 ))}
                             </div>
                         )}
@@ -1,9 +1,13 @@
+import { lazy, Suspense } from 'react';
 import { Panel, Group as PanelGroup, Separator as PanelResizeHandle } from 'react-resizable-panels';
 import LessonPageHeader from './LessonPageHeader';
 import ContentPanel from './ContentPanel';
-import TabbedPane from './TabbedPane';
+import { loadWorkspace } from '../../lazy';
 import type { Lesson } from '../../types';
 
+// The workspace pulls in xterm and its addons, so it is loaded as a separate chunk
+const TabbedPane = lazy(loadWorkspace);
+
 interface LessonLayoutProps {
     lesson: Lesson;
     currentStepIndex: number;
@@ -47,7 +51,9 @@ export default function LessonLayout({
 
                     <Panel className="flex flex-col min-w-[300px] border-l border-border bg-[#1e1e1e]">
                         <div className="flex-1 min-h-0">
-                            <TabbedPane />
+                            <Suspense fallback={<div className="h-full w-full bg-[#1e1e1e]" />}>
+                                <TabbedPane />
+                            </Suspense>
                         </div>
                     </Panel>
                 </PanelGroup>
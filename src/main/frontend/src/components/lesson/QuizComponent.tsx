@@ -1,29 +1,40 @@
 import { useState } from 'react';
-import type { QuizQuestion } from '../../types';
+import type { QuizQuestion, QuizResult } from '../../types';
 
 interface QuizComponentProps {
     quiz: QuizQuestion;
     index: number;
+    /** Grading endpoint of the step; answers are checked on the server. */
+    gradeUrl?: string;
 }
 
-export default function QuizComponent({ quiz, index }: QuizComponentProps) {
+export default function QuizComponent({ quiz, index, gradeUrl }: QuizComponentProps) {
     const [selectedOption, setSelectedOption] = useState<string>('');
     const [textInput, setTextInput] = useState<string>('');
     const [feedback, setFeedback] = useState<'success' | 'error' | null>(null);
+    const [checking, setChecking] = useState(false);
 
-    const handleSubmit = () => {
-        let isCorrect = false;
-
-        if (quiz.type === 'CHOICE') {
-            isCorrect = selectedOption === quiz.correctAnswer;
-        } else if (quiz.type === 'TEXT') {
-            if (quiz.validationRegex) {
-                const regex = new RegExp(quiz.validationRegex);
-                isCorrect = regex.test(textInput);
-            }
+    const handleSubmit = async () => {
+        if (!gradeUrl) {
+            return;
         }
+        const answers: (string | null)[] = Array(index + 1).fill(null);
+        answers[index] = quiz.type === 'CHOICE' ? selectedOption : textInput;
 
-        setFeedback(isCorrect ? 'success' : 'error');
+        setChecking(true);
+        try {
+            const response = await fetch(gradeUrl, {
+                method: 'POST',
+                headers: { 'Content-Type': 'application/json' },
+                body: JSON.stringify({ answers }),
+            });
+            const results: QuizResult[] = response.ok ? await response.json() : [];
+            setFeedback(results.some((result) => result.index === index && result.correct) ? 'success' : 'error');
+        } catch {
+            setFeedback('error');
+        } finally {
+            setChecking(false);
+        }
     };
 
     return (
@@ -78,7 +89,7 @@ export default function QuizComponent({ quiz, index }: QuizComponentProps) {
                 <button
                     onClick={handleSubmit}
                     className="px-4 py-2 bg-primary hover:bg-primary/90 text-primary-foreground rounded font-medium transition-colors shadow-sm active:translate-y-0.5 disabled:opacity-50 disabled:cursor-not-allowed"
-                    disabled={!selectedOption && !textInput}
+                    disabled={checking || (!selectedOption && !textInput)}
                 >
                     Check Answer
                 </button>
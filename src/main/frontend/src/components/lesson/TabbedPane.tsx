@@ -219,7 +219,7 @@ export default function TabbedPane({ initialTabs }: TabbedPaneProps = {}) {
                         forceMount
                         className="h-full w-full data-[state=inactive]:hidden"
                     >
-                        {tab.type === 'terminal' && <TerminalPanel onOpenUrl={(url) => addTab('browser', url)} />}
+                        {tab.type === 'terminal' && <TerminalPanel tabId={tab.id} onOpenUrl={(url) => addTab('browser', url)} />}
                         {tab.type === 'browser' && <BrowserPanel initialUrl={tab.url} />}
                     </Tabs.Content>
                 ))}
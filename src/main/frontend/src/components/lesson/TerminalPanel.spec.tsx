@@ -6,6 +6,7 @@ import TerminalPanel from './TerminalPanel';
 // Mock WebSocket
 const mockSend = vi.fn();
 const mockClose = vi.fn();
+const openedUrls: string[] = [];
 
 class MockWebSocket {
     send = mockSend;
@@ -14,6 +15,7 @@ class MockWebSocket {
     url: string;
     constructor(url: string) {
         this.url = url;
+        openedUrls.push(url);
         setTimeout(() => {
             if (this.onopen) {
                 this.onopen(new Event('open'));
@@ -33,6 +35,8 @@ describe('TerminalPanel', () => {
         originalWebSocket = window.WebSocket;
         window.WebSocket = MockWebSocket as any;
         vi.clearAllMocks();
+        openedUrls.length = 0;
+        sessionStorage.clear();
     });
 
     afterEach(() => {
@@ -60,4 +64,18 @@ describe('TerminalPanel', () => {
 
         expect(mockSend).toHaveBeenCalledWith('\t');
     });
+
+    it('should give each tab its own shell and keep it across reloads', () => {
+        const session = (url: string) => new URL(url).searchParams.get('session');
+
+        const first = render(<TerminalPanel tabId="term-1" />);
+        const second = render(<TerminalPanel tabId="term-2" />);
+        expect(openedUrls).toHaveLength(2);
+        expect(session(openedUrls[0])).not.toEqual(session(openedUrls[1]));
+
+        first.unmount();
+        second.unmount();
+        render(<TerminalPanel tabId="term-1" />);
+        expect(session(openedUrls[2])).toEqual(session(openedUrls[0]));
+    });
 });
@@ -6,9 +6,64 @@ import '@xterm/xterm/css/xterm.css';
 
 interface TerminalPanelProps {
     onOpenUrl?: (url: string) => void;
+    /** The tab showing this terminal; each tab keeps its own shell */
+    tabId?: string;
+    /** WebSocket path to read output from; defaults to the learner's shell */
+    socketPath?: string;
+    /** Shows output only, e.g. when replaying a recording */
+    readOnly?: boolean;
 }
 
-export default function TerminalPanel({ onOpenUrl }: TerminalPanelProps) {
+const SESSION_KEY_PREFIX = 'turtorial.terminal.session.';
+
+/** Identifies the shell of a terminal tab, so reloading the page, on whichever server node, resumes it. */
+function sessionId(tabId: string) {
+    const key = SESSION_KEY_PREFIX + tabId;
+    let id = sessionStorage.getItem(key);
+    if (!id) {
+        // crypto.randomUUID() is only available on secure origins
+        id = Array.from(crypto.getRandomValues(new Uint8Array(16)), (b) => b.toString(16).padStart(2, '0')).join('');
+        sessionStorage.setItem(key, id);
+    }
+    return id;
+}
+
+/** The server hands a shell back only to a connection that presents the token it issued with it. */
+function tokenKey(tabId: string) {
+    return SESSION_KEY_PREFIX + tabId + '.token';
+}
+
+/** Starts a new shell on the next connection, e.g. once the server refused to resume this one. */
+function forgetSession(tabId: string) {
+    sessionStorage.removeItem(SESSION_KEY_PREFIX + tabId);
+    sessionStorage.removeItem(tokenKey(tabId));
+}
+
+/**
+ * The learner's shell. An instructor opens the lesson with ?broadcast=<channel>&token=<token> to
+ * share their terminal, which learners then watch at /watch/<channel>.
+ */
+function shellPath(tabId: string) {
+    const page = new URLSearchParams(window.location.search);
+    const params = new URLSearchParams({ session: sessionId(tabId) });
+    const broadcast = page.get('broadcast');
+    const token = page.get('token');
+    if (broadcast && token) {
+        params.set('broadcast', broadcast);
+        params.set('token', token);
+    }
+    return `/term?${params}`;
+}
+
+const PING_INTERVAL_MS = 5000;
+
+interface ControlMessage {
+    type: string;
+    id?: number;
+    token?: string;
+}
+
+export default function TerminalPanel({ onOpenUrl, tabId = 'terminal', socketPath = shellPath(tabId), readOnly = false }: TerminalPanelProps) {
     const terminalRef = useRef<HTMLDivElement>(null);
     const xtermRef = useRef<Terminal | null>(null);
     const wsRef = useRef<WebSocket | null>(null);
@@ -18,7 +73,8 @@ export default function TerminalPanel({ onOpenUrl }: TerminalPanelProps) {
 
         // Initialize xterm
         const term = new Terminal({
-            cursorBlink: true,
+            cursorBlink: !readOnly,
+            disableStdin: readOnly,
             theme: {
                 background: '#1e1e1e',
                 foreground: '#f0f0f0',
@@ -47,7 +103,7 @@ export default function TerminalPanel({ onOpenUrl }: TerminalPanelProps) {
         term.attachCustomKeyEventHandler((arg) => {
             if (arg.code === 'Tab' || arg.key === 'Tab') {
                 arg.preventDefault();
-                if (wsRef.current && wsRef.current.readyState === WebSocket.OPEN) {
+                if (!readOnly && wsRef.current && wsRef.current.readyState === WebSocket.OPEN) {
                     wsRef.current.send('\t');
                 }
                 return false;
@@ -58,18 +114,43 @@ export default function TerminalPanel({ onOpenUrl }: TerminalPanelProps) {
         // Connect WebSocket
         const protocol = window.location.protocol === 'https:' ? 'wss:' : 'ws:';
         const host = window.location.host;
-        const wsUrl = `${protocol}//${host}/term`;
+        const wsUrl = `${protocol}//${host}${socketPath}`;
 
         console.log("Connecting to terminal: " + wsUrl);
 
         let ws: WebSocket | null = null;
+        // The shell answers pings, and each ping reports the previous round trip for the server's metrics
+        let pingId = 0;
+        let pingSentAt: number | null = null;
+        let lastRtt: number | null = null;
+        let pingTimer: number | undefined;
+        const ping = () => {
+            if (document.visibilityState !== 'visible' || !ws || ws.readyState !== WebSocket.OPEN) return;
+            // A pong that has not arrived by the next ping is not counted
+            const id = ++pingId;
+            pingSentAt = performance.now();
+            ws.send(new TextEncoder().encode(JSON.stringify({ type: 'ping', id, rtt: lastRtt })));
+            lastRtt = null;
+        };
         try {
             ws = new WebSocket(wsUrl);
+            // Shell output and broadcasts arrive as raw bytes, which xterm decodes across frame boundaries
+            ws.binaryType = 'arraybuffer';
             wsRef.current = ws;
 
             ws.onopen = () => {
                 console.log("WS Connected");
-                term.writeln('\x1b[32mConnected to terminal backend...\x1b[0m\r\n');
+                term.writeln(readOnly
+                    ? '\x1b[32mConnected, showing output only...\x1b[0m\r\n'
+                    : '\x1b[32mConnected to terminal backend...\x1b[0m\r\n');
+                if (!readOnly) {
+                    // Sent first, as the server waits for it before resuming an existing shell
+                    const token = sessionStorage.getItem(tokenKey(tabId));
+                    if (token) {
+                        ws?.send(new TextEncoder().encode(JSON.stringify({ type: 'resume', token })));
+                    }
+                    pingTimer = window.setInterval(ping, PING_INTERVAL_MS);
+                }
             };
 
             ws.onerror = (e) => {
@@ -78,16 +159,35 @@ export default function TerminalPanel({ onOpenUrl }: TerminalPanelProps) {
             };
 
             ws.onmessage = (event) => {
-                term.write(event.data);
+                if (typeof event.data !== 'string') {
+                    term.write(new Uint8Array(event.data));
+                } else if (readOnly) {
+                    // Recordings are replayed as text
+                    term.write(event.data);
+                } else {
+                    const message: ControlMessage = JSON.parse(event.data);
+                    if (message.type === 'pong' && message.id === pingId && pingSentAt !== null) {
+                        lastRtt = Math.round(performance.now() - pingSentAt);
+                        pingSentAt = null;
+                    } else if (message.type === 'session' && message.token) {
+                        sessionStorage.setItem(tokenKey(tabId), message.token);
+                    }
+                }
             };
 
             ws.onclose = (e) => {
                 console.log("WS Closed", e.code, e.reason);
-                term.writeln('\r\n\x1b[31mConnection closed.\x1b[0m');
+                window.clearInterval(pingTimer);
+                if (!readOnly && e.code === 1008) {
+                    forgetSession(tabId);
+                }
+                term.writeln(readOnly && (e.code === 1000 || e.code === 1001)
+                    ? `\r\n\x1b[32m${e.reason || 'Finished'}.\x1b[0m`
+                    : '\r\n\x1b[31mConnection closed.\x1b[0m');
             };
 
             term.onData((data) => {
-                if (ws && ws.readyState === WebSocket.OPEN) {
+                if (!readOnly && ws && ws.readyState === WebSocket.OPEN) {
                     ws.send(data);
                 }
             });
@@ -103,6 +203,7 @@ export default function TerminalPanel({ onOpenUrl }: TerminalPanelProps) {
             // Check wsRef.current instead of closure variable to get latest if needed, 
             // though effect runs once so closure 'ws' matches 'wsRef.current' if successful.
             // Safe to use wsRef.current
+            if (readOnly) return;
             if (wsRef.current && wsRef.current.readyState === WebSocket.OPEN) {
                 wsRef.current.send(customEvent.detail);
                 xtermRef.current?.focus();
@@ -132,11 +233,12 @@ export default function TerminalPanel({ onOpenUrl }: TerminalPanelProps) {
 
         return () => {
             resizeObserver.disconnect();
+            window.clearInterval(pingTimer);
             window.removeEventListener('terminal:input', handleInput);
             wsRef.current?.close();
             term.dispose();
         };
-    }, []);
+    }, [tabId, socketPath, readOnly]);
 
     return (
         <div className="h-full w-full p-6 bg-[#1e1e1e] box-border relative overflow-hidden">
@@ -0,0 +1,19 @@
+// Loaders for the code-split parts of the app. Keeping them in one place lets the same import()
+// call back both React.lazy and idle-time prefetching, so Vite emits one chunk per entry.
+export const loadLessonView = () => import('./views/LessonView');
+export const loadRecordingView = () => import('./views/RecordingView');
+export const loadWatchView = () => import('./views/WatchView');
+export const loadWorkspace = () => import('./components/lesson/TabbedPane');
+export const loadMarkdownRenderer = () => import('./components/MarkdownRenderer');
+
+type Loader = () => Promise<unknown>;
+
+/** Fetches chunks in the background once the browser is idle so navigation does not wait on them. */
+export function prefetch(...loaders: Loader[]) {
+    const run = () => loaders.forEach(load => load().catch(() => undefined));
+    if ('requestIdleCallback' in window) {
+        window.requestIdleCallback(run, { timeout: 2000 });
+    } else {
+        setTimeout(run, 200);
+    }
+}
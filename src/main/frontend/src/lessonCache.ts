@@ -0,0 +1,56 @@
+// Client side of the lesson cache: registers the service worker, warms it with lessons the learner
+// is likely to open next, and reports when a cached lesson turned out to be stale.
+
+const prefetched = new Set<string>();
+
+export function registerServiceWorker() {
+    if (!import.meta.env.PROD || !('serviceWorker' in navigator)) {
+        return;
+    }
+    window.addEventListener('load', () => {
+        navigator.serviceWorker.register('/sw.js').catch(err => console.error('Service worker registration failed', err));
+    });
+}
+
+/** Fetches a lesson in the background so the service worker (or HTTP cache) can answer the next request. */
+export function prefetchLesson(id: string) {
+    if (prefetched.has(id)) {
+        return;
+    }
+    prefetched.add(id);
+    fetch(`/api/lessons/${id}`).catch(() => prefetched.delete(id));
+}
+
+/** Calls back when the service worker replaced a cached response for the given API path with a newer one. */
+export function onLessonUpdated(path: string, callback: () => void): () => void {
+    if (!('serviceWorker' in navigator)) {
+        return () => undefined;
+    }
+    const listener = (event: MessageEvent) => {
+        if (event.data?.type === 'lesson-updated' && new URL(event.data.url).pathname === path) {
+            callback();
+        }
+    };
+    navigator.serviceWorker.addEventListener('message', listener);
+    return () => navigator.serviceWorker.removeEventListener('message', listener);
+}
+
+/** Once the browser is idle, prefetches the lesson that follows the given one in the catalog. */
+export function prefetchNextLesson(currentId: string) {
+    const run = () => {
+        fetch('/api/lessons')
+            .then(res => res.json())
+            .then((lessons: { id: string }[]) => {
+                const index = lessons.findIndex(lesson => lesson.id === currentId);
+                if (index >= 0 && index + 1 < lessons.length) {
+                    prefetchLesson(lessons[index + 1].id);
+                }
+            })
+            .catch(() => undefined);
+    };
+    if ('requestIdleCallback' in window) {
+        window.requestIdleCallback(run, { timeout: 5000 });
+    } else {
+        setTimeout(run, 1000);
+    }
+}
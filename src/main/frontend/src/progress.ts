@@ -0,0 +1,38 @@
+// Learner progress is stored on the server under a random token kept in local storage, so it
+// survives reloads without an account.
+
+export interface LessonProgress {
+    completedSteps: string[];
+    currentStep?: string | null;
+}
+
+const LEARNER_KEY = 'turtorial.learner';
+
+function learnerId(): string {
+    let id = localStorage.getItem(LEARNER_KEY);
+    if (!id) {
+        id = crypto.randomUUID();
+        localStorage.setItem(LEARNER_KEY, id);
+    }
+    return id;
+}
+
+export async function loadProgress(lessonId: string): Promise<LessonProgress | null> {
+    try {
+        const response = await fetch(`/api/lessons/${lessonId}/progress`, {
+            headers: { 'X-Learner-Id': learnerId() },
+        });
+        return response.ok ? await response.json() : null;
+    } catch {
+        return null;
+    }
+}
+
+export function saveProgress(lessonId: string, progress: LessonProgress) {
+    fetch(`/api/lessons/${lessonId}/progress`, {
+        method: 'PUT',
+        headers: { 'Content-Type': 'application/json', 'X-Learner-Id': learnerId() },
+        body: JSON.stringify(progress),
+        keepalive: true,
+    }).catch(err => console.error('Failed to save progress', err));
+}
@@ -2,14 +2,18 @@ export interface QuizQuestion {
     question: string;
     type: 'CHOICE' | 'TEXT';
     options?: string[];
-    correctAnswer?: string;
-    validationRegex?: string;
+}
+
+export interface QuizResult {
+    index: number;
+    correct: boolean;
 }
 
 export interface Step {
     id: string;
     title: string;
-    content: string;
+    content?: string;
+    html?: string;
 
     testCommand?: string;
     section?: string;
@@ -21,3 +25,11 @@ export interface Lesson {
     title: string;
     steps: Step[];
 }
+
+export interface LessonSummary {
+    id: string;
+    title: string;
+    description?: string;
+    stepCount: number;
+    sections: string[];
+}
@@ -1,6 +1,8 @@
 import { useEffect, useState } from 'react';
 import { useParams, useNavigate } from 'react-router-dom';
 import LessonLayout from '../components/lesson/LessonLayout';
+import { onLessonUpdated, prefetchNextLesson } from '../lessonCache';
+import { loadProgress, saveProgress, type LessonProgress } from '../progress';
 import type { Lesson } from '../types';
 
 export default function LessonView() {
@@ -14,21 +16,34 @@ export default function LessonView() {
     useEffect(() => {
         if (lessonId) {
             setLoading(true);
-            fetch(`/api/lessons/${lessonId}`)
-                .then(res => res.json())
-                .then(data => {
+            Promise.all([fetch(`/api/lessons/${lessonId}`).then(res => res.json()), loadProgress(lessonId)])
+                .then(([data, progress]: [Lesson, LessonProgress | null]) => {
+                    const indexOf = (id: string | null | undefined) => data.steps.findIndex(step => step.id === id);
+                    const completed = (progress?.completedSteps ?? []).map(indexOf).filter(index => index >= 0);
                     setLesson(data);
                     setLoading(false);
-                    setCurrentStepIndex(0);
-                    setCompletedSteps(new Set());
+                    setCurrentStepIndex(Math.max(0, indexOf(progress?.currentStep)));
+                    setCompletedSteps(new Set(completed));
                 })
                 .catch(err => {
                     console.error("Failed to fetch lesson", err);
                     setLoading(false);
                 });
+            prefetchNextLesson(lessonId);
         }
     }, [lessonId]);
 
+    // A cached copy may have been shown first; swap in the fresh one without losing progress
+    useEffect(() => {
+        if (!lessonId) return;
+        return onLessonUpdated(`/api/lessons/${lessonId}`, () => {
+            fetch(`/api/lessons/${lessonId}`)
+                .then(res => res.json())
+                .then(data => setLesson(data))
+                .catch(err => console.error("Failed to refresh lesson", err));
+        });
+    }, [lessonId]);
+
     // Lifecycle hooks for steps (runBefore / runAfter)
     useEffect(() => {
         if (!lesson || !lesson.steps[currentStepIndex]) return;
@@ -47,6 +62,39 @@ export default function LessonView() {
         };
     }, [lessonId, lesson, currentStepIndex]);
 
+    // Restored progress is saved back once on load, which is harmless; the server batches writes.
+    // The id check skips the render where the route changed but the previous lesson is still shown.
+    useEffect(() => {
+        if (!lessonId || !lesson || lesson.id !== lessonId) return;
+        saveProgress(lessonId, {
+            completedSteps: [...completedSteps]
+                .map(index => lesson.steps[index]?.id)
+                .filter((id): id is string => id != null),
+            currentStep: lesson.steps[currentStepIndex]?.id,
+        });
+    }, [lessonId, lesson, currentStepIndex, completedSteps]);
+
+    // Report time spent on a step when leaving it; sendBeacon survives the page being closed.
+    // As above, the previous lesson's step is not timed against the new route's lesson id.
+    const currentStepId = lesson && lesson.id === lessonId ? lesson.steps[currentStepIndex]?.id : undefined;
+    useEffect(() => {
+        if (!lessonId || !currentStepId) return;
+
+        let start = performance.now();
+        const report = () => {
+            const body = JSON.stringify({ millis: Math.round(performance.now() - start) });
+            navigator.sendBeacon?.(`/api/lessons/${lessonId}/steps/${currentStepId}/time`,
+                new Blob([body], { type: 'application/json' }));
+            start = performance.now();
+        };
+        window.addEventListener('pagehide', report);
+
+        return () => {
+            window.removeEventListener('pagehide', report);
+            report();
+        };
+    }, [lessonId, currentStepId]);
+
 
 
     const nextStep = () => {
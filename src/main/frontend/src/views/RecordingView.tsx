@@ -0,0 +1,20 @@
+import { useParams, useSearchParams } from 'react-router-dom';
+import TerminalPanel from '../components/lesson/TerminalPanel';
+
+/** Replays a recorded terminal session: /recordings/:name?speed=2&from=90 */
+export default function RecordingView() {
+    const { name } = useParams();
+    const [searchParams] = useSearchParams();
+
+    const query = new URLSearchParams({ name: name ?? '' });
+    for (const param of ['speed', 'from']) {
+        const value = searchParams.get(param);
+        if (value) query.set(param, value);
+    }
+
+    return (
+        <div className="h-screen w-screen bg-[#1e1e1e]">
+            <TerminalPanel key={query.toString()} socketPath={`/playback?${query}`} readOnly />
+        </div>
+    );
+}
@@ -0,0 +1,14 @@
+import { useParams } from 'react-router-dom';
+import TerminalPanel from '../components/lesson/TerminalPanel';
+
+/** Follows an instructor's broadcast terminal: /watch/:channel */
+export default function WatchView() {
+    const { channel } = useParams();
+    const query = new URLSearchParams({ channel: channel ?? '' });
+
+    return (
+        <div className="h-screen w-screen bg-[#1e1e1e]">
+            <TerminalPanel key={query.toString()} socketPath={`/watch?${query}`} readOnly />
+        </div>
+    );
+}
@@ -2,6 +2,8 @@
 import { defineConfig } from 'vite';
 import react from '@vitejs/plugin-react';
 import tailwindcss from '@tailwindcss/vite';
+import precompress from './precompress';
+import bundleBudget from './bundle-budget';
 
 // https://vite.dev/config/
 import path from 'node:path';
@@ -12,7 +14,14 @@ const dirname = typeof __dirname !== 'undefined' ? __dirname : path.dirname(file
 
 // More info at: https://storybook.js.org/docs/next/writing-tests/integrations/vitest-addon
 export default defineConfig({
-  plugins: [react(), tailwindcss()],
+  plugins: [
+    react(),
+    tailwindcss(),
+    // Gzipped KB. The entry only needs the lesson list; the lesson view, workspace (xterm) and
+    // Markdown renderer are lazy chunks.
+    bundleBudget({ entryKb: 120, chunkKb: 160, totalKb: 450 }),
+    precompress(),
+  ],
   server: {
     host: true, // Listen on all addresses (0.0.0.0)
     proxy: {
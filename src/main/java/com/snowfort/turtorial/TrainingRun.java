@@ -0,0 +1,88 @@
+package com.snowfort.turtorial;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exercises the startup path once and exits, for recording a JVM AOT cache
+ * ({@code -XX:AOTCacheOutput}) at image build time. By the time the application is ready the
+ * lessons are loaded; this then fetches the catalog and opens one terminal, so Jackson, the
+ * WebSocket stack and pty4j are part of the training as well.
+ */
+@Component
+@ConditionalOnBooleanProperty("turtorial.training-run")
+public class TrainingRun {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        ConfigurableApplicationContext context = event.getApplicationContext();
+        int exitCode = 0;
+        try {
+            train(context.getEnvironment().getProperty("local.server.port", "8080"));
+            System.out.println("Training run finished");
+        } catch (Exception e) {
+            System.err.println("Training run failed: " + e);
+            exitCode = 1;
+        }
+        int code = exitCode;
+        // Exit off the event thread so the context can close while this listener returns
+        Thread.ofPlatform().name("training-run-exit").start(() -> System.exit(SpringApplication.exit(context, () -> code)));
+    }
+
+    private void train(String port) throws Exception {
+        try (HttpClient client = HttpClient.newBuilder().connectTimeout(TIMEOUT).build()) {
+            HttpResponse<String> lessons = client.send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/lessons")).timeout(TIMEOUT).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            System.out.println("Training run fetched the catalog: HTTP " + lessons.statusCode());
+
+            CompletableFuture<Void> output = new CompletableFuture<>();
+            CompletableFuture<Void> closed = new CompletableFuture<>();
+            WebSocket socket = client.newWebSocketBuilder()
+                    .buildAsync(URI.create("ws://localhost:" + port + "/term"), new WebSocket.Listener() {
+                        @Override
+                        public CompletionStage<?> onBinary(WebSocket webSocket, ByteBuffer data, boolean last) {
+                            output.complete(null);
+                            webSocket.request(1);
+                            return null;
+                        }
+
+                        @Override
+                        public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+                            closed.complete(null);
+                            return null;
+                        }
+
+                        @Override
+                        public void onError(WebSocket webSocket, Throwable error) {
+                            output.completeExceptionally(error);
+                            closed.completeExceptionally(error);
+                        }
+                    })
+                    .get(TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+            // The first output is the shell's prompt, which means the PTY is up
+            output.get(TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+            socket.sendText("exit\n", true).get(TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+            socket.sendClose(WebSocket.NORMAL_CLOSURE, "").get(TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+            closed.completeOnTimeout(null, TIMEOUT.toSeconds(), TimeUnit.SECONDS).get();
+            System.out.println("Training run opened and closed a terminal session");
+        }
+    }
+}
@@ -2,12 +2,16 @@ package com.snowfort.turtorial;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class TurtorialApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(TurtorialApplication.class, args);
+        SpringApplication application = new SpringApplication(TurtorialApplication.class);
+        // Startup steps are kept for GET /actuator/startup
+        application.setApplicationStartup(new BufferingApplicationStartup(4096));
+        application.run(args);
     }
 
 }
@@ -0,0 +1,157 @@
+package com.snowfort.turtorial.controller;
+
+import com.snowfort.turtorial.model.LessonAsset;
+import com.snowfort.turtorial.service.LessonAssetService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Serves files stored next to lesson steps. Single byte ranges and conditional requests are
+ * supported. File-system assets are handed to Tomcat's sendfile when the connector offers it, so the
+ * kernel copies the file to the socket. Otherwise, e.g. over TLS, where Tomcat turns sendfile off,
+ * the content is copied through a heap buffer like any other response, which is logged the first
+ * time it happens.
+ */
+@RestController
+@RequestMapping("/api/lessons")
+@CrossOrigin(origins = "*")
+public class LessonAssetController {
+
+    static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final LessonAssetService assetService;
+    private final AtomicBoolean copyReported = new AtomicBoolean();
+
+    public LessonAssetController(LessonAssetService assetService) {
+        this.assetService = assetService;
+    }
+
+    @GetMapping("/{lessonId}/assets/{*path}")
+    public void getAsset(@PathVariable String lessonId, @PathVariable String path, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        LessonAsset asset = assetService.find(lessonId, path.startsWith("/") ? path.substring(1) : path);
+        if (asset == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (new ServletWebRequest(request, response).checkNotModified(asset.etag(), asset.lastModified())) {
+            return;
+        }
+
+        long length = asset.length();
+        long start = 0;
+        long end = length - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && rangeApplies(request, asset)) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+            // Multiple ranges are answered with the full body, which RFC 9110 allows
+            if (ranges.size() == 1) {
+                if (length == 0 || !isSatisfiable(ranges.get(0), length)) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                start = ranges.get(0).getRangeStart(length);
+                end = ranges.get(0).getRangeEnd(length);
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentType(asset.mediaType().toString());
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count <= 0) {
+            return;
+        }
+
+        if (asset.file() != null) {
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                request.setAttribute(SENDFILE_FILENAME, asset.file().toAbsolutePath().toString());
+                request.setAttribute(SENDFILE_START, start);
+                request.setAttribute(SENDFILE_END, end + 1);
+                return;
+            }
+            if (copyReported.compareAndSet(false, true)) {
+                System.out.println("Sendfile is not available for " + request.getProtocol()
+                        + " requests, so lesson assets are copied through the heap");
+            }
+            try (FileChannel channel = FileChannel.open(asset.file())) {
+                copy(Channels.newInputStream(channel.position(start)), response.getOutputStream(), count);
+            }
+            return;
+        }
+
+        try (InputStream in = asset.resource().getInputStream()) {
+            in.skipNBytes(start);
+            copy(in, response.getOutputStream(), count);
+        }
+    }
+
+    /** An {@code If-Range} validator that no longer matches turns the request into a full one. */
+    private static boolean rangeApplies(HttpServletRequest request, LessonAsset asset) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(asset.etag());
+        }
+        try {
+            long date = request.getDateHeader(HttpHeaders.IF_RANGE);
+            return date >= 0 && asset.lastModified() / 1000 <= date / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static boolean isSatisfiable(HttpRange range, long length) {
+        try {
+            range.getRangeStart(length);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static void copy(InputStream in, OutputStream out, long count) throws IOException {
+        byte[] buffer = new byte[8192];
+        long remaining = count;
+        while (remaining > 0) {
+            int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+            if (read < 0) {
+                break;
+            }
+            out.write(buffer, 0, read);
+            remaining -= read;
+        }
+    }
+}
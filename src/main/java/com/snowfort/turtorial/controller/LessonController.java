@@ -1,10 +1,22 @@
 package com.snowfort.turtorial.controller;
 
-import com.snowfort.turtorial.model.Lesson;
+import com.snowfort.turtorial.model.QuizAnswers;
+import com.snowfort.turtorial.model.QuizResult;
+import com.snowfort.turtorial.model.Step;
+import com.snowfort.turtorial.service.LessonAnalytics;
+import com.snowfort.turtorial.service.LessonResponseCache;
+import com.snowfort.turtorial.service.LessonResponseCache.CachedResponse;
 import com.snowfort.turtorial.service.LessonService;
+import com.snowfort.turtorial.service.QuizGradingService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("/api/lessons")
@@ -12,24 +24,58 @@ import java.util.List;
 public class LessonController {
 
     private final LessonService lessonService;
+    private final LessonResponseCache responseCache;
+    private final QuizGradingService quizGradingService;
+    private final LessonAnalytics analytics;
 
-    public LessonController(LessonService lessonService) {
+    public LessonController(LessonService lessonService, LessonResponseCache responseCache,
+            QuizGradingService quizGradingService, LessonAnalytics analytics) {
         this.lessonService = lessonService;
+        this.responseCache = responseCache;
+        this.quizGradingService = quizGradingService;
+        this.analytics = analytics;
     }
 
     @GetMapping
-    public List<Lesson> getAllLessons() {
-        return lessonService.findAll();
+    public ResponseEntity<byte[]> getAllLessons(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return cachedResponse(responseCache.lessonList(), ifNoneMatch, acceptEncoding);
     }
 
     @GetMapping("/{id}")
-    public Lesson getLessonById(@PathVariable String id) {
-        return lessonService.findById(id);
+    public ResponseEntity<byte[]> getLessonById(@PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        CachedResponse response = responseCache.lesson(id);
+        if (response == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return cachedResponse(response, ifNoneMatch, acceptEncoding);
+    }
+
+    @GetMapping("/{lessonId}/steps/{stepId}")
+    public ResponseEntity<Step> getStep(@PathVariable String lessonId, @PathVariable String stepId) {
+        Step step = lessonService.findStep(lessonId, stepId);
+        return step == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(step);
+    }
+
+    @PostMapping("/{lessonId}/steps/{stepId}/quizzes/grade")
+    public ResponseEntity<List<QuizResult>> gradeQuizzes(@PathVariable String lessonId, @PathVariable String stepId,
+            @RequestBody QuizAnswers answers) {
+        List<QuizResult> results = quizGradingService.grade(lessonId, stepId, answers.answers());
+        return results == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(results);
     }
 
     @PostMapping("/{lessonId}/steps/{stepId}/verify")
     public boolean verifyStep(@PathVariable String lessonId, @PathVariable String stepId) {
-        return lessonService.verifyStep(lessonId, stepId);
+        Step step = lessonService.findStep(lessonId, stepId);
+        long start = System.nanoTime();
+        boolean success = lessonService.verifyStep(step);
+        if (step != null) {
+            analytics.recordVerify(lessonId, stepId, success, System.nanoTime() - start);
+        }
+        return success;
     }
 
     @PostMapping("/{lessonId}/steps/{stepId}/runBefore")
@@ -41,4 +87,34 @@ public class LessonController {
     public boolean runAfterStep(@PathVariable String lessonId, @PathVariable String stepId) {
         return lessonService.runAfterStep(lessonId, stepId);
     }
+
+    private ResponseEntity<byte[]> cachedResponse(CachedResponse response, String ifNoneMatch, String acceptEncoding) {
+        boolean gzip = response.gzipBody() != null && acceptsGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .eTag(gzip ? response.gzipEtag() : response.etag())
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+
+        if (response.matches(ifNoneMatch)) {
+            return builder.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.contentType(MediaType.APPLICATION_JSON).body(gzip ? response.gzipBody() : response.body());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].strip();
+            if (name.equals("gzip") || name.equals("*")) {
+                return parts.length < 2 || !parts[1].strip().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,40 @@
+package com.snowfort.turtorial.controller;
+
+import com.snowfort.turtorial.model.LessonStats;
+import com.snowfort.turtorial.model.TimeOnStep;
+import com.snowfort.turtorial.service.LessonAnalytics;
+import com.snowfort.turtorial.service.LessonService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/lessons")
+@CrossOrigin(origins = "*")
+public class LessonStatsController {
+
+    private final LessonService lessonService;
+    private final LessonAnalytics analytics;
+
+    public LessonStatsController(LessonService lessonService, LessonAnalytics analytics) {
+        this.lessonService = lessonService;
+        this.analytics = analytics;
+    }
+
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<LessonStats> getStats(@PathVariable String id) {
+        if (lessonService.findById(id) == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(analytics.stats(id));
+    }
+
+    @PostMapping("/{lessonId}/steps/{stepId}/time")
+    public ResponseEntity<Void> recordTimeOnStep(@PathVariable String lessonId, @PathVariable String stepId,
+            @RequestBody TimeOnStep time) {
+        if (lessonService.findStep(lessonId, stepId) == null) {
+            return ResponseEntity.notFound().build();
+        }
+        analytics.recordTimeOnStep(lessonId, stepId, time.millis());
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,68 @@
+package com.snowfort.turtorial.controller;
+
+import com.snowfort.turtorial.model.Lesson;
+import com.snowfort.turtorial.model.LessonProgress;
+import com.snowfort.turtorial.model.Step;
+import com.snowfort.turtorial.service.LessonService;
+import com.snowfort.turtorial.service.ProgressStore;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Stores learner progress per lesson. Learners are identified by a random token the client keeps
+ * in local storage and sends in the {@value #LEARNER_HEADER} header.
+ */
+@RestController
+@RequestMapping("/api/lessons")
+@CrossOrigin(origins = "*")
+public class ProgressController {
+
+    static final String LEARNER_HEADER = "X-Learner-Id";
+    private static final Pattern LEARNER_TOKEN = Pattern.compile("[A-Za-z0-9-]{8,64}");
+
+    private final LessonService lessonService;
+    private final ProgressStore progressStore;
+
+    public ProgressController(LessonService lessonService, ProgressStore progressStore) {
+        this.lessonService = lessonService;
+        this.progressStore = progressStore;
+    }
+
+    @GetMapping("/{lessonId}/progress")
+    public ResponseEntity<LessonProgress> getProgress(@PathVariable String lessonId,
+            @RequestHeader(LEARNER_HEADER) String learner) {
+        if (!LEARNER_TOKEN.matcher(learner).matches()) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (lessonService.findById(lessonId) == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(progressStore.find(learner, lessonId));
+    }
+
+    @PutMapping("/{lessonId}/progress")
+    public ResponseEntity<Void> saveProgress(@PathVariable String lessonId,
+            @RequestHeader(LEARNER_HEADER) String learner, @RequestBody LessonProgress progress) {
+        if (!LEARNER_TOKEN.matcher(learner).matches()) {
+            return ResponseEntity.badRequest().build();
+        }
+        Lesson lesson = lessonService.findById(lessonId);
+        if (lesson == null) {
+            return ResponseEntity.notFound().build();
+        }
+        // Only steps of this lesson are kept, so the store cannot be filled with arbitrary strings
+        Set<String> stepIds = lesson.getSteps().stream().map(Step::getId).collect(Collectors.toSet());
+        List<String> completed = progress.completedSteps().stream().filter(stepIds::contains).distinct().toList();
+        String current = stepIds.contains(progress.currentStep()) ? progress.currentStep() : null;
+        if (!progressStore.save(learner, lessonId, new LessonProgress(completed, current))) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+}
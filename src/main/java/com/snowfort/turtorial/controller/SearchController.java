@@ -0,0 +1,24 @@
+package com.snowfort.turtorial.controller;
+
+import com.snowfort.turtorial.model.SearchResults;
+import com.snowfort.turtorial.service.LessonSearchService;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/search")
+@CrossOrigin(origins = "*")
+public class SearchController {
+
+    private final LessonSearchService lessonSearchService;
+
+    public SearchController(LessonSearchService lessonSearchService) {
+        this.lessonSearchService = lessonSearchService;
+    }
+
+    @GetMapping
+    public SearchResults search(@RequestParam("q") String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        return lessonSearchService.search(query, page, size);
+    }
+}
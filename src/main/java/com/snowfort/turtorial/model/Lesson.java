@@ -1,52 +1,83 @@
 package com.snowfort.turtorial.model;
 
-public class Lesson {
-    private String id;
-    private String title;
-    private String description;
-    private String content;
+import java.util.List;
 
-    public String getId() {
-        return id;
+public final class Lesson {
+    private final String id;
+    private final String title;
+    private final String description;
+    private final boolean draft;
+    private final List<Step> steps;
+
+    private Lesson(Builder builder) {
+        this.id = builder.id;
+        this.title = builder.title;
+        this.description = builder.description;
+        this.draft = builder.draft;
+        this.steps = List.copyOf(builder.steps);
     }
 
-    public void setId(String id) {
-        this.id = id;
+    public static Builder builder(String id) {
+        return new Builder(id);
     }
 
-    public String getTitle() {
-        return title;
+    public String getId() {
+        return id;
     }
 
-    public void setTitle(String title) {
-        this.title = title;
+    public String getTitle() {
+        return title;
     }
 
     public String getDescription() {
         return description;
     }
 
-    public void setDescription(String description) {
-        this.description = description;
-    }
-
-    private boolean draft;
-
     public boolean isDraft() {
         return draft;
     }
 
-    public void setDraft(boolean draft) {
-        this.draft = draft;
+    public List<Step> getSteps() {
+        return steps;
     }
 
-    private java.util.List<Step> steps;
+    public static final class Builder {
+        private final String id;
+        private String title;
+        private String description;
+        private boolean draft;
+        private List<Step> steps = List.of();
 
-    public java.util.List<Step> getSteps() {
-        return steps;
-    }
+        private Builder(String id) {
+            this.id = id;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public Builder title(String title) {
+            this.title = title;
+            return this;
+        }
+
+        public Builder description(String description) {
+            this.description = description;
+            return this;
+        }
+
+        public Builder draft(boolean draft) {
+            this.draft = draft;
+            return this;
+        }
+
+        public Builder steps(List<Step> steps) {
+            this.steps = steps;
+            return this;
+        }
 
-    public void setSteps(java.util.List<Step> steps) {
-        this.steps = steps;
+        public Lesson build() {
+            return new Lesson(this);
+        }
     }
 }
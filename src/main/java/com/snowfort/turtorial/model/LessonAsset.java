@@ -0,0 +1,14 @@
+package com.snowfort.turtorial.model;
+
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+
+import java.nio.file.Path;
+
+/**
+ * Metadata of a file served from a lesson directory. {@code file} is set when the asset lives on the
+ * file system and can be transferred without copying through the heap.
+ */
+public record LessonAsset(Resource resource, Path file, long length, long lastModified, String etag,
+        MediaType mediaType) {
+}
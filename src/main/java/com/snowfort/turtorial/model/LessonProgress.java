@@ -0,0 +1,13 @@
+package com.snowfort.turtorial.model;
+
+import java.util.List;
+
+/** Where a learner is in a lesson: the steps they completed and the step they were on. */
+public record LessonProgress(List<String> completedSteps, String currentStep) {
+
+    public static final LessonProgress EMPTY = new LessonProgress(List.of(), null);
+
+    public LessonProgress {
+        completedSteps = completedSteps == null ? List.of() : List.copyOf(completedSteps);
+    }
+}
@@ -0,0 +1,26 @@
+package com.snowfort.turtorial.model;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Learner activity for one lesson: verify attempts and latencies, time spent on each step and
+ * quiz answers per option. Counts are cumulative since analytics were first recorded.
+ */
+public record LessonStats(String lessonId, List<StepStats> steps) {
+
+    public record StepStats(String stepId, long verifyAttempts, long verifySuccesses, Histogram verifyMillis,
+            Histogram timeOnStepMillis, List<QuizStats> quizzes) {
+    }
+
+    /** Answer counts for one quiz; {@code options} is only filled for multiple-choice quizzes. */
+    public record QuizStats(int index, long attempts, long correct, Map<String, Long> options) {
+    }
+
+    /**
+     * Power-of-two histogram: bucket 0 counts values below 1, bucket {@code i} counts values in
+     * {@code [2^(i-1), 2^i)}. Percentiles are the upper bound of the bucket they fall into.
+     */
+    public record Histogram(long count, long sum, long p50, long p90, long[] buckets) {
+    }
+}
@@ -0,0 +1,21 @@
+package com.snowfort.turtorial.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * List view of a lesson: everything the landing page shows, without step content.
+ */
+public record LessonSummary(String id, String title, String description, int stepCount, List<String> sections) {
+
+    public static LessonSummary of(Lesson lesson) {
+        List<String> sections = new ArrayList<>();
+        for (Step step : lesson.getSteps()) {
+            if (step.getSection() != null && !sections.contains(step.getSection())) {
+                sections.add(step.getSection());
+            }
+        }
+        return new LessonSummary(lesson.getId(), lesson.getTitle(), lesson.getDescription(),
+                lesson.getSteps().size(), List.copyOf(sections));
+    }
+}
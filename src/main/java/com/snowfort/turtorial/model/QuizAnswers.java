@@ -0,0 +1,7 @@
+package com.snowfort.turtorial.model;
+
+import java.util.List;
+
+/** Answers to the quizzes of one step, by quiz index; {@code null} entries are not graded. */
+public record QuizAnswers(List<String> answers) {
+}
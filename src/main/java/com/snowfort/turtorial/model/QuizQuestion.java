@@ -1,51 +1,98 @@
 package com.snowfort.turtorial.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder;
+
 import java.util.List;
+import java.util.regex.Pattern;
 
-public class QuizQuestion {
-    private String question;
-    private QuizType type;
-    private List<String> options;
-    private String correctAnswer;
-    private String validationRegex;
+@JsonDeserialize(builder = QuizQuestion.Builder.class)
+public final class QuizQuestion {
+    private final String question;
+    private final QuizType type;
+    private final List<String> options;
+    private final String correctAnswer;
+    private final String validationRegex;
+    private final Pattern validationPattern;
 
-    public String getQuestion() {
-        return question;
+    private QuizQuestion(Builder builder) {
+        this.question = builder.question;
+        this.type = builder.type;
+        this.options = builder.options == null ? null : builder.options.stream().map(Step::intern).toList();
+        this.correctAnswer = Step.intern(builder.correctAnswer);
+        this.validationRegex = Step.intern(builder.validationRegex);
+        this.validationPattern = validationRegex == null ? null : Pattern.compile(validationRegex);
     }
 
-    public void setQuestion(String question) {
-        this.question = question;
+    public static Builder builder() {
+        return new Builder();
     }
 
-    public QuizType getType() {
-        return type;
+    public String getQuestion() {
+        return question;
     }
 
-    public void setType(QuizType type) {
-        this.type = type;
+    public QuizType getType() {
+        return type;
     }
 
     public List<String> getOptions() {
         return options;
     }
 
-    public void setOptions(List<String> options) {
-        this.options = options;
-    }
-
+    /** Answers stay on the server; clients submit to the grading endpoint instead. */
+    @JsonIgnore
     public String getCorrectAnswer() {
         return correctAnswer;
     }
 
-    public void setCorrectAnswer(String correctAnswer) {
-        this.correctAnswer = correctAnswer;
-    }
-
+    @JsonIgnore
     public String getValidationRegex() {
         return validationRegex;
     }
 
-    public void setValidationRegex(String validationRegex) {
-        this.validationRegex = validationRegex;
+    /** {@link #getValidationRegex()} compiled when the step was loaded. */
+    @JsonIgnore
+    public Pattern getValidationPattern() {
+        return validationPattern;
+    }
+
+    @JsonPOJOBuilder(withPrefix = "")
+    public static final class Builder {
+        private String question;
+        private QuizType type;
+        private List<String> options;
+        private String correctAnswer;
+        private String validationRegex;
+
+        public Builder question(String question) {
+            this.question = question;
+            return this;
+        }
+
+        public Builder type(QuizType type) {
+            this.type = type;
+            return this;
+        }
+
+        public Builder options(List<String> options) {
+            this.options = options;
+            return this;
+        }
+
+        public Builder correctAnswer(String correctAnswer) {
+            this.correctAnswer = correctAnswer;
+            return this;
+        }
+
+        public Builder validationRegex(String validationRegex) {
+            this.validationRegex = validationRegex;
+            return this;
+        }
+
+        public QuizQuestion build() {
+            return new QuizQuestion(this);
+        }
     }
 }
@@ -0,0 +1,4 @@
+package com.snowfort.turtorial.model;
+
+public record QuizResult(int index, boolean correct) {
+}
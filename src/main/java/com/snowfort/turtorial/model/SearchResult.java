@@ -0,0 +1,11 @@
+package com.snowfort.turtorial.model;
+
+public record SearchResult(
+        String lessonId,
+        String lessonTitle,
+        String stepId,
+        String stepTitle,
+        String section,
+        double score,
+        String snippet) {
+}
@@ -0,0 +1,6 @@
+package com.snowfort.turtorial.model;
+
+import java.util.List;
+
+public record SearchResults(String query, int total, int page, int size, List<SearchResult> results) {
+}
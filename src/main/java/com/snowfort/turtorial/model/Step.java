@@ -1,85 +1,160 @@
 package com.snowfort.turtorial.model;
 
-public class Step {
-    private String id;
-    private String title;
-    private String content;
-    private String testCommand;
-    private String beforeCommand;
-    private String afterCommand;
-    private Integer order;
-    private String section;
-    private java.util.List<QuizQuestion> quizzes;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * A single lesson step. Instances are immutable; the short strings that repeat across a catalog
+ * (sections and commands) are interned when the step is built.
+ */
+public final class Step {
+    private final String id;
+    private final String title;
+    private final String content;
+    private final String html;
+    private final String testCommand;
+    private final String beforeCommand;
+    private final String afterCommand;
+    private final int order;
+    private final String section;
+    private final List<QuizQuestion> quizzes;
+
+    private Step(Builder builder) {
+        this.id = builder.id;
+        this.title = builder.title;
+        this.content = builder.content;
+        this.html = builder.html;
+        this.testCommand = intern(builder.testCommand);
+        this.beforeCommand = intern(builder.beforeCommand);
+        this.afterCommand = intern(builder.afterCommand);
+        this.order = builder.order;
+        this.section = intern(builder.section);
+        this.quizzes = builder.quizzes == null ? null : List.copyOf(builder.quizzes);
+    }
+
+    public static Builder builder(String id) {
+        return new Builder(id);
+    }
+
+    static String intern(String value) {
+        return value == null ? null : value.intern();
+    }
 
     public String getId() {
         return id;
     }
 
-    public void setId(String id) {
-        this.id = id;
-    }
-
     public String getTitle() {
         return title;
     }
 
-    public void setTitle(String title) {
-        this.title = title;
-    }
-
+    @JsonIgnore
     public String getContent() {
         return content;
     }
 
-    public void setContent(String content) {
-        this.content = content;
+    /** Clients get the raw Markdown only for steps that were not rendered to {@link #getHtml()}. */
+    @JsonProperty("content")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    String getUnrenderedContent() {
+        return html == null ? content : null;
     }
 
-    public String getTestCommand() {
-        return testCommand;
+    /** Content rendered to sanitized HTML when the step was loaded. */
+    public String getHtml() {
+        return html;
     }
 
-    public void setTestCommand(String testCommand) {
-        this.testCommand = testCommand;
+    public String getTestCommand() {
+        return testCommand;
     }
 
     public String getBeforeCommand() {
         return beforeCommand;
     }
 
-    public void setBeforeCommand(String beforeCommand) {
-        this.beforeCommand = beforeCommand;
-    }
-
     public String getAfterCommand() {
         return afterCommand;
     }
 
-    public void setAfterCommand(String afterCommand) {
-        this.afterCommand = afterCommand;
-    }
-
-    public Integer getOrder() {
+    public int getOrder() {
         return order;
     }
 
-    public void setOrder(Integer order) {
-        this.order = order;
-    }
-
     public String getSection() {
         return section;
     }
 
-    public void setSection(String section) {
-        this.section = section;
-    }
-
-    public java.util.List<QuizQuestion> getQuizzes() {
+    public List<QuizQuestion> getQuizzes() {
         return quizzes;
     }
 
-    public void setQuizzes(java.util.List<QuizQuestion> quizzes) {
-        this.quizzes = quizzes;
+    public static final class Builder {
+        private final String id;
+        private String title;
+        private String content = "";
+        private String html;
+        private String testCommand;
+        private String beforeCommand;
+        private String afterCommand;
+        private int order = Integer.MAX_VALUE;
+        private String section;
+        private List<QuizQuestion> quizzes;
+
+        private Builder(String id) {
+            this.id = id;
+        }
+
+        public Builder title(String title) {
+            this.title = title;
+            return this;
+        }
+
+        public Builder content(String content) {
+            this.content = content;
+            return this;
+        }
+
+        public Builder html(String html) {
+            this.html = html;
+            return this;
+        }
+
+        public Builder testCommand(String testCommand) {
+            this.testCommand = testCommand;
+            return this;
+        }
+
+        public Builder beforeCommand(String beforeCommand) {
+            this.beforeCommand = beforeCommand;
+            return this;
+        }
+
+        public Builder afterCommand(String afterCommand) {
+            this.afterCommand = afterCommand;
+            return this;
+        }
+
+        public Builder order(int order) {
+            this.order = order;
+            return this;
+        }
+
+        public Builder section(String section) {
+            this.section = section;
+            return this;
+        }
+
+        public Builder quizzes(List<QuizQuestion> quizzes) {
+            this.quizzes = quizzes;
+            return this;
+        }
+
+        public Step build() {
+            return new Step(this);
+        }
     }
 }
@@ -0,0 +1,5 @@
+package com.snowfort.turtorial.model;
+
+/** Time a learner spent on a step before leaving it, as reported by the client. */
+public record TimeOnStep(long millis) {
+}
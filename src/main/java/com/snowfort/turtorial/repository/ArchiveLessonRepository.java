@@ -0,0 +1,132 @@
+package com.snowfort.turtorial.repository;
+
+import com.snowfort.turtorial.model.Lesson;
+import com.snowfort.turtorial.service.LessonParser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Repository;
+
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.util.List;
+
+@Repository
+@ConditionalOnExpression("!'${turtorial.lessons.archive:}'.isEmpty()")
+public class ArchiveLessonRepository implements LessonRepository {
+
+    private final LessonParser lessonParser;
+    private final Path archivePath;
+    private final boolean devMode;
+    private final boolean failOnError;
+
+    private volatile List<Lesson> lessons = List.of();
+
+    public ArchiveLessonRepository(
+            LessonParser lessonParser,
+            @Value("${turtorial.lessons.archive}") String archivePath,
+            @Value("${turtorial.dev-mode:false}") boolean devMode,
+            @Value("${turtorial.lessons.frontmatter.validation.fail-on-error:true}") boolean failOnError) {
+        this.lessonParser = lessonParser;
+        this.archivePath = Path.of(archivePath);
+        this.devMode = devMode;
+        this.failOnError = failOnError;
+    }
+
+    @PostConstruct
+    public void init() {
+        loadLessons();
+    }
+
+    public void loadLessons() {
+        CatalogReloadEvent event = new CatalogReloadEvent();
+        event.begin();
+        System.out.println("Loading lessons from archive: " + archivePath);
+
+        try (LessonArchive archive = LessonArchive.open(archivePath)) {
+            LessonCatalogBuilder catalog = new LessonCatalogBuilder(lessonParser, devMode);
+
+            for (LessonArchive.Entry entry : archive.entries()) {
+                if (entry.isDirectory() || !LessonCatalogBuilder.isLessonFile(entry.name())) {
+                    continue;
+                }
+                Resource resource = new ArchiveEntryResource(archive, entry);
+                try {
+                    catalog.add(entry.name(), resource);
+                } catch (Exception e) {
+                    if (failOnError) {
+                        throw new RuntimeException("Failed to process resource: " + resource.getDescription(), e);
+                    }
+                    System.err.println(
+                            "Failed to process resource: " + resource.getDescription() + ". Error: " + e.getMessage());
+                }
+            }
+
+            this.lessons = catalog.build();
+            System.out.println("Loaded " + lessons.size() + " lessons.");
+            event.commit(archivePath.toString(), lessons);
+        } catch (IOException e) {
+            if (failOnError) {
+                throw new RuntimeException("Failed to read lesson archive: " + archivePath, e);
+            }
+            System.err.println("Failed to read lesson archive " + archivePath + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public List<Lesson> findAll() {
+        return lessons;
+    }
+
+    @Override
+    public Lesson findById(String id) {
+        return lessons.stream().filter(l -> l.getId().equals(id)).findFirst().orElse(null);
+    }
+
+    private static class ArchiveEntryResource extends AbstractResource {
+
+        private final LessonArchive archive;
+        private final LessonArchive.Entry entry;
+
+        ArchiveEntryResource(LessonArchive archive, LessonArchive.Entry entry) {
+            this.archive = archive;
+            this.entry = entry;
+        }
+
+        @Override
+        public String getDescription() {
+            return "archive entry [" + entry.name() + "] in [" + archive.getPath() + "]";
+        }
+
+        @Override
+        public String getFilename() {
+            String name = entry.name();
+            return name.substring(name.lastIndexOf('/') + 1);
+        }
+
+        @Override
+        public boolean exists() {
+            return true;
+        }
+
+        @Override
+        public long contentLength() {
+            return entry.size();
+        }
+
+        @Override
+        public ReadableByteChannel readableChannel() throws IOException {
+            return archive.openChannel(entry);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return Channels.newInputStream(readableChannel());
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.snowfort.turtorial.repository;
+
+import com.snowfort.turtorial.model.Lesson;
+import com.snowfort.turtorial.service.LessonParser;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The lessons bundled under {@code classpath:/lessons}, parsed and validated when this class is
+ * initialized. The {@code catalog} Maven profile has native-image initialize it at build time, so
+ * the parsed catalog is stored in the image heap and an invalid lesson fails the build.
+ */
+final class BuildTimeLessonCatalog {
+
+    static final String CLASSPATH_ROOT = "lessons/";
+    static final List<Lesson> LESSONS;
+    static final Map<String, String> LESSON_DIRECTORIES;
+
+    static {
+        LessonParser parser = new LessonParser(true);
+        parser.init();
+        ResourceLessonRepository repository = new ResourceLessonRepository(parser, "classpath:/lessons", false, true);
+        try {
+            LessonCatalogBuilder catalog = repository.scan();
+            LESSONS = catalog == null ? List.of() : catalog.build();
+            LESSON_DIRECTORIES = catalog == null ? Map.of() : catalog.lessonDirectories(LESSONS);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not build the lesson catalog", e);
+        }
+        System.out.println("Built lesson catalog with " + LESSONS.size() + " lessons.");
+    }
+
+    private BuildTimeLessonCatalog() {
+    }
+}
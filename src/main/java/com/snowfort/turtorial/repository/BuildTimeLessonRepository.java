@@ -0,0 +1,37 @@
+package com.snowfort.turtorial.repository;
+
+import com.snowfort.turtorial.model.Lesson;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Serves the catalog prepared by {@link BuildTimeLessonCatalog}. In a native image nothing is
+ * scanned or parsed at startup; on the JVM the catalog is built on first use instead.
+ */
+@Repository
+@ConditionalOnExpression("'${turtorial.lessons.archive:}'.isEmpty() and ${turtorial.lessons.build-time-catalog:false}")
+public class BuildTimeLessonRepository implements LessonRepository {
+
+    @Override
+    public List<Lesson> findAll() {
+        return BuildTimeLessonCatalog.LESSONS;
+    }
+
+    @Override
+    public Lesson findById(String id) {
+        return BuildTimeLessonCatalog.LESSONS.stream().filter(l -> l.getId().equals(id)).findFirst().orElse(null);
+    }
+
+    @Override
+    public Resource findAsset(String lessonId, String path) {
+        String directory = BuildTimeLessonCatalog.LESSON_DIRECTORIES.get(lessonId);
+        if (directory == null || !LessonCatalogBuilder.isAssetPath(path)) {
+            return null;
+        }
+        return new ClassPathResource(BuildTimeLessonCatalog.CLASSPATH_ROOT + directory + path);
+    }
+}
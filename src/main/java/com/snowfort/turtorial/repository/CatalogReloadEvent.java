@@ -0,0 +1,38 @@
+package com.snowfort.turtorial.repository;
+
+import com.snowfort.turtorial.model.Lesson;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.List;
+
+@Name("com.snowfort.turtorial.CatalogReload")
+@Label("Catalog Reload")
+@Description("Loading the lesson catalog from its source")
+@Category({ "Turtorial", "Lessons" })
+@StackTrace(false)
+class CatalogReloadEvent extends Event {
+
+    @Label("Source")
+    String source;
+
+    @Label("Lessons")
+    int lessons;
+
+    @Label("Steps")
+    int steps;
+
+    void commit(String source, List<Lesson> catalog) {
+        end();
+        if (shouldCommit()) {
+            this.source = source;
+            this.lessons = catalog.size();
+            this.steps = catalog.stream().mapToInt(lesson -> lesson.getSteps().size()).sum();
+            commit();
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.snowfort.turtorial.repository;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Read-only view of a zip or jar file backed by a single memory mapping. The central directory is
+ * parsed straight from the mapping and entries are read from slices of it, stored entries without
+ * any copy and deflated entries through an inflater, so nothing is extracted to disk.
+ */
+public final class LessonArchive implements Closeable {
+
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+    private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+    private static final int MAX_COMMENT_SIZE = 0xFFFF;
+
+    private static final int STORED = 0;
+    private static final int DEFLATED = 8;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer mapping;
+    private final List<Entry> entries;
+
+    private LessonArchive(Path path, FileChannel channel, MappedByteBuffer mapping) throws IOException {
+        this.path = path;
+        this.channel = channel;
+        this.mapping = mapping;
+        this.mapping.order(ByteOrder.LITTLE_ENDIAN);
+        this.entries = readCentralDirectory();
+    }
+
+    public static LessonArchive open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Lesson archive larger than 2 GB is not supported: " + path);
+            }
+            MappedByteBuffer mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return new LessonArchive(path, channel, mapping);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public List<Entry> entries() {
+        return entries;
+    }
+
+    public ReadableByteChannel openChannel(Entry entry) throws IOException {
+        ByteBuffer data = data(entry);
+        return switch (entry.method()) {
+            case STORED -> new BufferChannel(data);
+            case DEFLATED -> Channels.newChannel(new EntryInflaterInputStream(new BufferInputStream(data)));
+            default -> throw new IOException(
+                    "Unsupported compression method " + entry.method() + " for " + entry.name() + " in " + path);
+        };
+    }
+
+    private ByteBuffer data(Entry entry) throws IOException {
+        int header = (int) entry.localHeaderOffset();
+        if (header + 30 > mapping.limit() || mapping.getInt(header) != LOCAL_HEADER_SIGNATURE) {
+            throw new IOException("Corrupt local header for " + entry.name() + " in " + path);
+        }
+        int nameLength = Short.toUnsignedInt(mapping.getShort(header + 26));
+        int extraLength = Short.toUnsignedInt(mapping.getShort(header + 28));
+        int start = header + 30 + nameLength + extraLength;
+        long end = start + entry.compressedSize();
+        if (end > mapping.limit()) {
+            throw new IOException("Truncated entry " + entry.name() + " in " + path);
+        }
+        return mapping.slice(start, (int) entry.compressedSize());
+    }
+
+    private List<Entry> readCentralDirectory() throws IOException {
+        int end = findEndOfCentralDirectory();
+        int count = Short.toUnsignedInt(mapping.getShort(end + 10));
+        long directorySize = Integer.toUnsignedLong(mapping.getInt(end + 12));
+        long directoryOffset = Integer.toUnsignedLong(mapping.getInt(end + 16));
+        if (count == 0xFFFF || directorySize == 0xFFFFFFFFL || directoryOffset == 0xFFFFFFFFL) {
+            throw new IOException("ZIP64 lesson archives are not supported: " + path);
+        }
+        if (directoryOffset + directorySize > end) {
+            throw new IOException("Corrupt central directory in " + path);
+        }
+
+        List<Entry> result = new ArrayList<>(count);
+        int position = (int) directoryOffset;
+        for (int i = 0; i < count; i++) {
+            if (mapping.getInt(position) != CENTRAL_HEADER_SIGNATURE) {
+                throw new IOException("Corrupt central directory entry " + i + " in " + path);
+            }
+            int method = Short.toUnsignedInt(mapping.getShort(position + 10));
+            long compressedSize = Integer.toUnsignedLong(mapping.getInt(position + 20));
+            long size = Integer.toUnsignedLong(mapping.getInt(position + 24));
+            int nameLength = Short.toUnsignedInt(mapping.getShort(position + 28));
+            int extraLength = Short.toUnsignedInt(mapping.getShort(position + 30));
+            int commentLength = Short.toUnsignedInt(mapping.getShort(position + 32));
+            long localHeaderOffset = Integer.toUnsignedLong(mapping.getInt(position + 42));
+
+            byte[] name = new byte[nameLength];
+            mapping.get(position + 46, name);
+
+            result.add(new Entry(new String(name, StandardCharsets.UTF_8), method, compressedSize, size,
+                    localHeaderOffset));
+            position += 46 + nameLength + extraLength + commentLength;
+        }
+        return List.copyOf(result);
+    }
+
+    private int findEndOfCentralDirectory() throws IOException {
+        int last = mapping.limit() - END_OF_CENTRAL_DIRECTORY_SIZE;
+        int first = Math.max(0, last - MAX_COMMENT_SIZE);
+        for (int position = last; position >= first; position--) {
+            if (mapping.getInt(position) == END_OF_CENTRAL_DIRECTORY_SIGNATURE) {
+                return position;
+            }
+        }
+        throw new IOException("Not a zip archive: " + path);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    public record Entry(String name, int method, long compressedSize, long size, long localHeaderOffset) {
+
+        public boolean isDirectory() {
+            return name.endsWith("/");
+        }
+    }
+
+    /** Channel over a slice of the mapping; seekable so readers can size their buffers up front. */
+    private static final class BufferChannel implements SeekableByteChannel {
+        private final ByteBuffer buffer;
+        private boolean open = true;
+
+        BufferChannel(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(dst.remaining(), buffer.remaining());
+            dst.put(dst.position(), buffer, buffer.position(), count);
+            dst.position(dst.position() + count);
+            buffer.position(buffer.position() + count);
+            return count;
+        }
+
+        @Override
+        public int write(ByteBuffer src) {
+            throw new NonWritableChannelException();
+        }
+
+        @Override
+        public long position() {
+            return buffer.position();
+        }
+
+        @Override
+        public SeekableByteChannel position(long newPosition) {
+            buffer.position((int) Math.min(newPosition, buffer.limit()));
+            return this;
+        }
+
+        @Override
+        public long size() {
+            return buffer.limit();
+        }
+
+        @Override
+        public SeekableByteChannel truncate(long size) {
+            throw new NonWritableChannelException();
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+    }
+
+    /**
+     * Ends its inflater when closed. {@link InflaterInputStream} only ends inflaters it created itself,
+     * so the native zlib memory of each entry would otherwise wait for the cleaner.
+     */
+    private static final class EntryInflaterInputStream extends InflaterInputStream {
+
+        EntryInflaterInputStream(InputStream in) {
+            super(in, new Inflater(true), 8192);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                inf.end();
+            }
+        }
+    }
+
+    private static final class BufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        BufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? Byte.toUnsignedInt(buffer.get()) : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(len, buffer.remaining());
+            buffer.get(b, off, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.snowfort.turtorial.repository;
+
+import com.snowfort.turtorial.model.Lesson;
+import com.snowfort.turtorial.model.Step;
+import com.snowfort.turtorial.service.LessonParser;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Groups step and metadata files into lessons by their parent directory, independent of where the
+ * files come from.
+ */
+class LessonCatalogBuilder {
+
+    private final LessonParser lessonParser;
+    private final boolean devMode;
+    private final Map<String, Lesson.Builder> lessonMap = new TreeMap<>();
+    private final Map<String, List<Step>> stepMap = new HashMap<>();
+    private final Map<String, Resource> lessonFiles = new HashMap<>();
+    private final Map<String, String> lessonDirectories = new HashMap<>();
+
+    LessonCatalogBuilder(LessonParser lessonParser, boolean devMode) {
+        this.lessonParser = lessonParser;
+        this.devMode = devMode;
+    }
+
+    static boolean isLessonFile(String path) {
+        return isStep(path) || isMetadata(path);
+    }
+
+    private static boolean isStep(String path) {
+        return path.endsWith(".md") || path.endsWith(".mdx");
+    }
+
+    private static boolean isMetadata(String path) {
+        return path.endsWith("lesson.yml") || path.endsWith("lesson.yaml");
+    }
+
+    /**
+     * Whether a path relative to a lesson directory may be served as an asset: no empty, dot or
+     * hidden segments, no absolute or Windows-style paths, and no step or metadata files.
+     */
+    static boolean isAssetPath(String path) {
+        if (path == null || path.isEmpty() || path.startsWith("/") || path.contains("\\") || path.contains(":")) {
+            return false;
+        }
+        for (String segment : path.split("/", -1)) {
+            if (segment.isEmpty() || segment.startsWith(".")) {
+                return false;
+            }
+        }
+        return !isLessonFile(path);
+    }
+
+    void add(String relativePath, Resource resource) throws IOException {
+        if (relativePath.startsWith("/")) {
+            relativePath = relativePath.substring(1);
+        }
+
+        String[] segments = relativePath.split("/");
+
+        if (segments.length < 2)
+            return;
+
+        String lessonDir = segments[segments.length - 2];
+        String filename = segments[segments.length - 1];
+
+        Lesson.Builder lesson = lessonMap.computeIfAbsent(lessonDir,
+                k -> Lesson.builder(k).title(lessonParser.formatTitle(k)));
+        lessonFiles.putIfAbsent(lessonDir, resource);
+        lessonDirectories.putIfAbsent(lessonDir, relativePath.substring(0, relativePath.lastIndexOf('/') + 1));
+
+        if (isMetadata(filename)) {
+            lessonParser.parseLessonMetadata(resource, lesson);
+        } else {
+            Step step = lessonParser.parseStep(resource, filename, devMode);
+            if (step != null) {
+                stepMap.computeIfAbsent(lessonDir, k -> new ArrayList<>()).add(step);
+            }
+        }
+    }
+
+    List<Lesson> build() {
+        List<Lesson> lessons = new ArrayList<>();
+        for (Lesson.Builder builder : lessonMap.values()) {
+            List<Step> steps = stepMap.getOrDefault(builder.getId(), new ArrayList<>());
+            steps.sort(Comparator.comparingInt(Step::getOrder).thenComparing(Step::getId));
+            Lesson l = builder.steps(steps).build();
+            if (l.isDraft() && !devMode) {
+                System.out.println("Skipping draft lesson: " + l.getId());
+                continue;
+            }
+            lessons.add(l);
+        }
+        return List.copyOf(lessons);
+    }
+
+    /**
+     * One file from each built lesson's directory, which assets are resolved against with
+     * {@link Resource#createRelative(String)}.
+     */
+    Map<String, Resource> lessonFiles(List<Lesson> lessons) {
+        Map<String, Resource> files = new HashMap<>();
+        for (Lesson lesson : lessons) {
+            files.put(lesson.getId(), lessonFiles.get(lesson.getId()));
+        }
+        return Map.copyOf(files);
+    }
+
+    /** The directory of each built lesson, relative to the catalog root and ending in {@code /}. */
+    Map<String, String> lessonDirectories(List<Lesson> lessons) {
+        Map<String, String> directories = new HashMap<>();
+        for (Lesson lesson : lessons) {
+            directories.put(lesson.getId(), lessonDirectories.get(lesson.getId()));
+        }
+        return Map.copyOf(directories);
+    }
+}
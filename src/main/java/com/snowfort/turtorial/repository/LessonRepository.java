@@ -1,9 +1,21 @@
 package com.snowfort.turtorial.repository;
 
 import com.snowfort.turtorial.model.Lesson;
+import org.springframework.core.io.Resource;
+
 import java.util.List;
 
 public interface LessonRepository {
     List<Lesson> findAll();
     Lesson findById(String id);
+
+    /**
+     * Resolves a file stored next to a lesson's steps, such as an image or sample download.
+     *
+     * @return the resource, which may not exist, or {@code null} if the lesson is unknown, the path is
+     *         not a valid asset path or this repository does not serve assets
+     */
+    default Resource findAsset(String lessonId, String path) {
+        return null;
+    }
 }
@@ -1,18 +1,20 @@
 package com.snowfort.turtorial.repository;
 
 import com.snowfort.turtorial.model.Lesson;
-import com.snowfort.turtorial.model.Step;
 import com.snowfort.turtorial.service.LessonParser;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.stereotype.Repository;
 
 import jakarta.annotation.PostConstruct;
 import java.io.IOException;
-import java.util.*;
+import java.util.List;
+import java.util.Map;
 
 @Repository
+@ConditionalOnExpression("'${turtorial.lessons.archive:}'.isEmpty() and !${turtorial.lessons.build-time-catalog:false}")
 public class ResourceLessonRepository implements LessonRepository {
 
     private final LessonParser lessonParser;
@@ -20,7 +22,8 @@ public class ResourceLessonRepository implements LessonRepository {
     private final boolean devMode;
     private final boolean failOnError;
 
-    private final List<Lesson> lessons = new ArrayList<>();
+    private volatile List<Lesson> lessons = List.of();
+    private volatile Map<String, Resource> lessonFiles = Map.of();
 
     public ResourceLessonRepository(
             LessonParser lessonParser,
@@ -39,104 +42,79 @@ public class ResourceLessonRepository implements LessonRepository {
     }
 
     public void loadLessons() {
+        CatalogReloadEvent event = new CatalogReloadEvent();
+        event.begin();
         try {
-            PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
-            String locationPattern;
-
-            if (lessonsDirectory.startsWith("classpath:") || lessonsDirectory.startsWith("file:")) {
-                locationPattern = lessonsDirectory + "/**/*.*";
-            } else {
-                locationPattern = "file:" + lessonsDirectory + "/**/*.*";
+            LessonCatalogBuilder catalog = scan();
+            if (catalog == null) {
+                return;
             }
 
-            System.out.println("Loading lessons from: " + locationPattern);
+            List<Lesson> built = catalog.build();
+            this.lessonFiles = catalog.lessonFiles(built);
+            this.lessons = built;
+            System.out.println("Loaded " + lessons.size() + " lessons.");
+            event.commit(locationPattern(), lessons);
 
-            Resource[] resources;
-            try {
-                resources = resolver.getResources(locationPattern);
-            } catch (java.io.FileNotFoundException e) {
-                System.out.println("No lessons found at " + locationPattern);
-                return;
-            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
 
-            if (resources == null || resources.length == 0) {
-                System.out.println("No lesson resources found at " + locationPattern);
-                return;
-            }
+    /** Parses every lesson file under the lessons directory, or returns {@code null} if there are none. */
+    LessonCatalogBuilder scan() throws IOException {
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        String locationPattern = locationPattern();
 
-            Map<String, Lesson> lessonMap = new TreeMap<>();
-
-            for (Resource resource : resources) {
-                try {
-                    String path = resource.getURL().getPath();
-                    boolean isStep = path.endsWith(".md") || path.endsWith(".mdx");
-                    boolean isMetadata = path.endsWith("lesson.yml") || path.endsWith("lesson.yaml");
-
-                    if (!isStep && !isMetadata) {
-                        continue;
-                    }
-
-                    String relativePath = getRelativePath(resource);
-
-                    if (relativePath == null) {
-                        System.err.println("Could not determine relative path for " + resource.getDescription());
-                        continue;
-                    }
-
-                    if (relativePath.startsWith("/")) {
-                        relativePath = relativePath.substring(1);
-                    }
-
-                    String[] segments = relativePath.split("/");
-
-                    if (segments.length < 2)
-                        continue;
-
-                    String lessonDir = segments[segments.length - 2];
-                    String filename = segments[segments.length - 1];
-
-                    Lesson lesson = lessonMap.computeIfAbsent(lessonDir, k -> {
-                        Lesson l = new Lesson();
-                        l.setId(k);
-                        l.setTitle(lessonParser.formatTitle(k));
-                        l.setSteps(new ArrayList<>());
-                        return l;
-                    });
-
-                    if (isMetadata) {
-                        lessonParser.parseLessonMetadata(resource, lesson);
-                    } else {
-                        Step step = lessonParser.parseStep(resource, filename, devMode);
-                        if (step != null) {
-                            lesson.getSteps().add(step);
-                        }
-                    }
-                } catch (Exception e) {
-                    if (failOnError) {
-                        throw new RuntimeException("Failed to process resource: " + resource.getDescription(), e);
-                    }
-                    System.err.println(
-                            "Failed to process resource: " + resource.getDescription() + ". Error: " + e.getMessage());
-                }
-            }
+        System.out.println("Loading lessons from: " + locationPattern);
+
+        Resource[] resources;
+        try {
+            resources = resolver.getResources(locationPattern);
+        } catch (java.io.FileNotFoundException e) {
+            System.out.println("No lessons found at " + locationPattern);
+            return null;
+        }
+
+        if (resources == null || resources.length == 0) {
+            System.out.println("No lesson resources found at " + locationPattern);
+            return null;
+        }
 
-            lessonMap.values()
-                    .forEach(l -> l.getSteps().sort(Comparator.comparing(Step::getOrder).thenComparing(Step::getId)));
+        LessonCatalogBuilder catalog = new LessonCatalogBuilder(lessonParser, devMode);
 
-            this.lessons.clear();
+        for (Resource resource : resources) {
+            try {
+                String path = resource.getURL().getPath();
+
+                if (!LessonCatalogBuilder.isLessonFile(path)) {
+                    continue;
+                }
+
+                String relativePath = getRelativePath(resource);
 
-            for (Lesson l : lessonMap.values()) {
-                if (l.isDraft() && !devMode) {
-                    System.out.println("Skipping draft lesson: " + l.getId());
+                if (relativePath == null) {
+                    System.err.println("Could not determine relative path for " + resource.getDescription());
                     continue;
                 }
-                this.lessons.add(l);
+
+                catalog.add(relativePath, resource);
+            } catch (Exception e) {
+                if (failOnError) {
+                    throw new RuntimeException("Failed to process resource: " + resource.getDescription(), e);
+                }
+                System.err.println(
+                        "Failed to process resource: " + resource.getDescription() + ". Error: " + e.getMessage());
             }
-            System.out.println("Loaded " + lessons.size() + " lessons.");
+        }
+        return catalog;
+    }
 
-        } catch (IOException e) {
-            e.printStackTrace();
+    private String locationPattern() {
+        if (lessonsDirectory.startsWith("classpath:") || lessonsDirectory.startsWith("file:")) {
+            return lessonsDirectory + "/**/*.*";
         }
+        return "file:" + lessonsDirectory + "/**/*.*";
     }
 
     private String getRelativePath(Resource resource) throws IOException {
@@ -173,4 +151,17 @@ public class ResourceLessonRepository implements LessonRepository {
     public Lesson findById(String id) {
         return lessons.stream().filter(l -> l.getId().equals(id)).findFirst().orElse(null);
     }
+
+    @Override
+    public Resource findAsset(String lessonId, String path) {
+        Resource lessonFile = lessonFiles.get(lessonId);
+        if (lessonFile == null || !LessonCatalogBuilder.isAssetPath(path)) {
+            return null;
+        }
+        try {
+            return lessonFile.createRelative(path);
+        } catch (IOException e) {
+            return null;
+        }
+    }
 }
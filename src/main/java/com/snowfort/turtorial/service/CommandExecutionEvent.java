@@ -0,0 +1,23 @@
+package com.snowfort.turtorial.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.snowfort.turtorial.CommandExecution")
+@Label("Command Execution")
+@Description("A step test, before or after command run through the shell")
+@Category({ "Turtorial", "Lessons" })
+@StackTrace(false)
+class CommandExecutionEvent extends Event {
+
+    @Label("Command")
+    String command;
+
+    @Label("Exit Code")
+    @Description("-1 if the process could not be run")
+    int exitCode;
+}
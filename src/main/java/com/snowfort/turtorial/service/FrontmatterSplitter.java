@@ -0,0 +1,272 @@
+package com.snowfort.turtorial.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Splits a step file into YAML frontmatter and Markdown content by scanning its UTF-8 bytes.
+ * <p>
+ * The file is read from a channel into a single buffer and the two parts are kept as offsets into
+ * that buffer, so nothing is decoded until {@link #frontmatter()} or {@link #content()} is called.
+ * {@link #readFrontmatter()} stops reading as soon as the closing delimiter has been seen, which lets
+ * callers inspect the metadata without reading the body.
+ * <p>
+ * Delimiter rules follow the frontmatter pattern this replaces: the file must start with {@code ---}
+ * (a byte order mark disables frontmatter), the closing {@code ---} line may carry trailing
+ * whitespace, CRLF, LF and lone CR line breaks are accepted, and blank lines directly after the
+ * closing delimiter are not part of the content.
+ */
+public final class FrontmatterSplitter {
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private static final int FOUND = 0;
+    private static final int NOT_FOUND = -1;
+    private static final int NEED_MORE = -2;
+
+    private final ReadableByteChannel channel;
+    private byte[] buffer;
+    private int length;
+    private boolean eof;
+
+    private boolean resolved;
+    private int frontmatterStart = -1;
+    private int frontmatterEnd = -1;
+    private int contentStart;
+
+    public FrontmatterSplitter(ReadableByteChannel channel) throws IOException {
+        this.channel = channel;
+        int size = DEFAULT_BUFFER_SIZE;
+        if (channel instanceof SeekableByteChannel seekable) {
+            // One spare byte so end of file is detected without growing the buffer
+            size = (int) Math.min(seekable.size() - seekable.position() + 1, Integer.MAX_VALUE - 8);
+        }
+        this.buffer = new byte[Math.max(size, 16)];
+    }
+
+    private FrontmatterSplitter(byte[] bytes, int length) {
+        this.channel = null;
+        this.buffer = bytes;
+        this.length = length;
+        this.eof = true;
+    }
+
+    public static FrontmatterSplitter of(byte[] bytes) {
+        return new FrontmatterSplitter(bytes, bytes.length);
+    }
+
+    /**
+     * Reads until the frontmatter boundaries are known.
+     *
+     * @return whether the file starts with a frontmatter block
+     */
+    public boolean readFrontmatter() throws IOException {
+        while (!resolved) {
+            if (!scan() && !eof) {
+                readMore();
+            }
+        }
+        return frontmatterStart >= 0;
+    }
+
+    public void readFully() throws IOException {
+        while (!eof) {
+            readMore();
+        }
+        readFrontmatter();
+    }
+
+    public boolean hasFrontmatter() {
+        return frontmatterStart >= 0;
+    }
+
+    public String frontmatter() {
+        if (frontmatterStart < 0) {
+            return "";
+        }
+        return new String(buffer, frontmatterStart, frontmatterEnd - frontmatterStart, StandardCharsets.UTF_8);
+    }
+
+    /** Content of a fully read file, decoded from the buffer slice after the frontmatter. */
+    public String content() {
+        return contentFrom(contentStart);
+    }
+
+    /** Content of a fully read file starting at a byte offset previously taken from {@link #contentStart()}. */
+    public String contentFrom(int offset) {
+        if (!eof) {
+            throw new IllegalStateException("content requires readFully()");
+        }
+        return new String(buffer, offset, length - offset, StandardCharsets.UTF_8);
+    }
+
+    public int contentStart() {
+        return contentStart;
+    }
+
+    public byte[] buffer() {
+        return buffer;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    private void readMore() throws IOException {
+        if (length == buffer.length) {
+            byte[] grown = new byte[buffer.length * 2];
+            System.arraycopy(buffer, 0, grown, 0, length);
+            buffer = grown;
+        }
+        int read = channel.read(ByteBuffer.wrap(buffer, length, buffer.length - length));
+        if (read < 0) {
+            eof = true;
+        } else {
+            length += read;
+        }
+    }
+
+    /**
+     * Scans the bytes read so far.
+     *
+     * @return {@code true} once the split is known, {@code false} if more input is needed
+     */
+    private boolean scan() {
+        byte[] b = buffer;
+        int n = length;
+
+        if (n < 3) {
+            if (!eof && startsLikeDelimiter(b, n)) {
+                return false;
+            }
+            return resolveWithoutFrontmatter();
+        }
+        if (b[0] != '-' || b[1] != '-' || b[2] != '-') {
+            return resolveWithoutFrontmatter();
+        }
+
+        int openingEnd = skipWhitespace(b, 3, n);
+        if (openingEnd == n && !eof) {
+            return false;
+        }
+
+        // Candidate starts are tried in the order a backtracking match would try them: the
+        // longest run of whitespace after the opening delimiter first, CRLF before a lone CR.
+        // Only the first candidate can need more input; later ones are reached at end of file.
+        for (int pos = openingEnd - 1; pos >= 3; pos--) {
+            if (!isLineBreak(b[pos])) {
+                continue;
+            }
+            if (b[pos] == '\r' && pos + 1 < n && b[pos + 1] == '\n') {
+                int result = findClosing(b, n, pos + 2);
+                if (result != NOT_FOUND) {
+                    return result != NEED_MORE;
+                }
+            }
+            int result = findClosing(b, n, pos + 1);
+            if (result != NOT_FOUND) {
+                return result != NEED_MORE;
+            }
+        }
+        return resolveWithoutFrontmatter();
+    }
+
+    private int findClosing(byte[] b, int n, int start) {
+        for (int e = start; e < n; e++) {
+            if (!isLineBreak(b[e])) {
+                continue;
+            }
+            if (b[e] == '\r' && e + 1 == n && !eof) {
+                return NEED_MORE;
+            }
+            if (b[e] == '\r' && e + 1 < n && b[e + 1] == '\n') {
+                int result = matchClosing(b, n, start, e, e + 2);
+                if (result != NOT_FOUND) {
+                    return result;
+                }
+            }
+            int result = matchClosing(b, n, start, e, e + 1);
+            if (result != NOT_FOUND) {
+                return result;
+            }
+        }
+        return eof ? NOT_FOUND : NEED_MORE;
+    }
+
+    private int matchClosing(byte[] b, int n, int start, int end, int delimiter) {
+        for (int i = 0; i < 3; i++) {
+            if (delimiter + i == n) {
+                return eof ? NOT_FOUND : NEED_MORE;
+            }
+            if (b[delimiter + i] != '-') {
+                return NOT_FOUND;
+            }
+        }
+
+        int closingEnd = skipWhitespace(b, delimiter + 3, n);
+        int bodyStart;
+        if (closingEnd == n) {
+            if (!eof) {
+                return NEED_MORE;
+            }
+            bodyStart = n;
+        } else {
+            int lastBreak = lastLineBreak(b, delimiter + 3, closingEnd);
+            if (lastBreak < 0) {
+                return NOT_FOUND;
+            }
+            bodyStart = lastBreak + 1;
+        }
+
+        this.frontmatterStart = start;
+        this.frontmatterEnd = end;
+        this.contentStart = bodyStart;
+        this.resolved = true;
+        return FOUND;
+    }
+
+    private boolean resolveWithoutFrontmatter() {
+        this.frontmatterStart = -1;
+        this.frontmatterEnd = -1;
+        this.contentStart = 0;
+        this.resolved = true;
+        return true;
+    }
+
+    private static boolean startsLikeDelimiter(byte[] b, int n) {
+        for (int i = 0; i < n; i++) {
+            if (b[i] != '-') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isLineBreak(byte c) {
+        return c == '\n' || c == '\r' || c == 0x0B || c == '\f';
+    }
+
+    private static boolean isWhitespace(byte c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == 0x0B || c == '\f';
+    }
+
+    private static int skipWhitespace(byte[] b, int from, int to) {
+        int i = from;
+        while (i < to && isWhitespace(b[i])) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int lastLineBreak(byte[] b, int from, int to) {
+        for (int i = to - 1; i >= from; i--) {
+            if (isLineBreak(b[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,293 @@
+package com.snowfort.turtorial.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.snowfort.turtorial.model.Lesson;
+import com.snowfort.turtorial.model.LessonStats;
+import com.snowfort.turtorial.model.LessonStats.Histogram;
+import com.snowfort.turtorial.model.LessonStats.QuizStats;
+import com.snowfort.turtorial.model.LessonStats.StepStats;
+import com.snowfort.turtorial.model.Step;
+import com.snowfort.turtorial.repository.LessonRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory counters for learner activity. Recording only touches {@link LongAdder}s, which spread
+ * concurrent updates over per-thread cells, so request threads never contend on a lock.
+ * <p>
+ * When {@code turtorial.analytics.file} is set, the cumulative counters replace that file as a
+ * single JSON line every snapshot interval (skipped if nothing was recorded), and are loaded back
+ * on startup for the lessons and steps still in the catalog.
+ */
+@Service
+public class LessonAnalytics {
+
+    static final int BUCKETS = 32;
+    private static final long MAX_TIME_ON_STEP_MILLIS = TimeUnit.HOURS.toMillis(6);
+
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, StepCounters>> lessons = new ConcurrentHashMap<>();
+    private final LongAdder events = new LongAdder();
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+    private final LessonRepository lessonRepository;
+    private final Path file;
+    private final long snapshotIntervalSeconds;
+    private ScheduledExecutorService scheduler;
+    private long snapshotEvents;
+
+    public LessonAnalytics(LessonRepository lessonRepository, @Value("${turtorial.analytics.file:}") String file,
+            @Value("${turtorial.analytics.snapshot-interval-seconds:60}") long snapshotIntervalSeconds) {
+        this.lessonRepository = lessonRepository;
+        this.file = file == null || file.isBlank() ? null : Path.of(file);
+        this.snapshotIntervalSeconds = snapshotIntervalSeconds;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (file == null) {
+            return;
+        }
+        restore();
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("lesson-analytics").daemon().factory());
+        scheduler.scheduleWithFixedDelay(this::snapshot, snapshotIntervalSeconds, snapshotIntervalSeconds,
+                TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            snapshot();
+        }
+    }
+
+    public void recordVerify(String lessonId, String stepId, boolean success, long nanos) {
+        StepCounters step = step(lessonId, stepId);
+        step.verifyAttempts.increment();
+        if (success) {
+            step.verifySuccesses.increment();
+        }
+        step.verifyMillis.record(TimeUnit.NANOSECONDS.toMillis(nanos));
+        events.increment();
+    }
+
+    /** @param option the chosen option of a multiple-choice quiz, {@code null} for free text */
+    public void recordQuizAnswer(String lessonId, String stepId, int index, String option, boolean correct) {
+        QuizCounters quiz = step(lessonId, stepId).quizzes.computeIfAbsent(index, i -> new QuizCounters());
+        quiz.attempts.increment();
+        if (correct) {
+            quiz.correct.increment();
+        }
+        if (option != null) {
+            quiz.options.computeIfAbsent(option, o -> new LongAdder()).increment();
+        }
+        events.increment();
+    }
+
+    public void recordTimeOnStep(String lessonId, String stepId, long millis) {
+        step(lessonId, stepId).timeOnStep.record(Math.min(Math.max(millis, 0), MAX_TIME_ON_STEP_MILLIS));
+        events.increment();
+    }
+
+    public LessonStats stats(String lessonId) {
+        Map<String, StepCounters> steps = lessons.get(lessonId);
+        List<StepStats> stepStats = new ArrayList<>();
+        if (steps != null) {
+            for (Map.Entry<String, StepCounters> entry : new TreeMap<>(steps).entrySet()) {
+                stepStats.add(entry.getValue().stats(entry.getKey()));
+            }
+        }
+        return new LessonStats(lessonId, stepStats);
+    }
+
+    synchronized void snapshot() {
+        long recorded = events.sum();
+        if (recorded == snapshotEvents) {
+            return;
+        }
+        List<LessonStats> all = new ArrayList<>();
+        for (String lessonId : new TreeMap<>(lessons).keySet()) {
+            all.add(stats(lessonId));
+        }
+        try {
+            // Written aside and moved into place, so a crash mid-write leaves the previous snapshot
+            Path directory = file.toAbsolutePath().getParent();
+            Path tmp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try {
+                byte[] line = jsonMapper.writeValueAsBytes(new Snapshot(Instant.now().toString(), all));
+                byte[] content = Arrays.copyOf(line, line.length + 1);
+                content[line.length] = '\n';
+                Files.write(tmp, content);
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+            snapshotEvents = recorded;
+        } catch (IOException e) {
+            System.err.println("Could not write analytics snapshot to " + file + ": " + e.getMessage());
+        }
+    }
+
+    private void restore() {
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        try {
+            Snapshot snapshot = jsonMapper.readValue(file.toFile(), Snapshot.class);
+            int dropped = 0;
+            for (LessonStats lesson : snapshot.lessons()) {
+                Lesson current = lessonRepository.findById(lesson.lessonId());
+                for (StepStats stats : lesson.steps()) {
+                    if (current != null && hasStep(current, stats.stepId())) {
+                        step(lesson.lessonId(), stats.stepId()).restore(stats);
+                    } else {
+                        dropped++;
+                    }
+                }
+            }
+            System.out.println("Restored lesson analytics from " + file + " (" + snapshot.timestamp() + ")"
+                    + (dropped > 0 ? ", dropped " + dropped + " steps no longer in the catalog" : ""));
+        } catch (Exception e) {
+            System.err.println("Ignoring unreadable analytics file " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static boolean hasStep(Lesson lesson, String stepId) {
+        for (Step step : lesson.getSteps()) {
+            if (step.getId().equals(stepId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private StepCounters step(String lessonId, String stepId) {
+        return lessons.computeIfAbsent(lessonId, id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(stepId, id -> new StepCounters());
+    }
+
+    record Snapshot(String timestamp, List<LessonStats> lessons) {
+    }
+
+    private static final class StepCounters {
+        final LongAdder verifyAttempts = new LongAdder();
+        final LongAdder verifySuccesses = new LongAdder();
+        final HistogramCounter verifyMillis = new HistogramCounter();
+        final HistogramCounter timeOnStep = new HistogramCounter();
+        final ConcurrentHashMap<Integer, QuizCounters> quizzes = new ConcurrentHashMap<>();
+
+        StepStats stats(String stepId) {
+            List<QuizStats> quizStats = new ArrayList<>();
+            for (Map.Entry<Integer, QuizCounters> entry : quizzes.entrySet()) {
+                quizStats.add(entry.getValue().stats(entry.getKey()));
+            }
+            quizStats.sort(Comparator.comparingInt(QuizStats::index));
+            return new StepStats(stepId, verifyAttempts.sum(), verifySuccesses.sum(), verifyMillis.stats(),
+                    timeOnStep.stats(), quizStats);
+        }
+
+        void restore(StepStats stats) {
+            verifyAttempts.add(stats.verifyAttempts());
+            verifySuccesses.add(stats.verifySuccesses());
+            verifyMillis.restore(stats.verifyMillis());
+            timeOnStep.restore(stats.timeOnStepMillis());
+            if (stats.quizzes() != null) {
+                for (QuizStats quiz : stats.quizzes()) {
+                    quizzes.computeIfAbsent(quiz.index(), i -> new QuizCounters()).restore(quiz);
+                }
+            }
+        }
+    }
+
+    private static final class QuizCounters {
+        final LongAdder attempts = new LongAdder();
+        final LongAdder correct = new LongAdder();
+        final ConcurrentHashMap<String, LongAdder> options = new ConcurrentHashMap<>();
+
+        QuizStats stats(int index) {
+            Map<String, Long> counts = new TreeMap<>();
+            options.forEach((option, count) -> counts.put(option, count.sum()));
+            return new QuizStats(index, attempts.sum(), correct.sum(), counts);
+        }
+
+        void restore(QuizStats stats) {
+            attempts.add(stats.attempts());
+            correct.add(stats.correct());
+            if (stats.options() != null) {
+                stats.options().forEach((option, count) -> options.computeIfAbsent(option, o -> new LongAdder()).add(count));
+            }
+        }
+    }
+
+    private static final class HistogramCounter {
+        final LongAdder sum = new LongAdder();
+        final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+        HistogramCounter() {
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void record(long value) {
+            int bucket = value <= 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(value));
+            buckets[bucket].increment();
+            sum.add(value);
+        }
+
+        Histogram stats() {
+            long[] counts = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets[i].sum();
+                total += counts[i];
+            }
+            return new Histogram(total, sum.sum(), percentile(counts, total, 0.5), percentile(counts, total, 0.9),
+                    counts);
+        }
+
+        void restore(Histogram stats) {
+            if (stats == null) {
+                return;
+            }
+            sum.add(stats.sum());
+            for (int i = 0; i < Math.min(BUCKETS, stats.buckets().length); i++) {
+                buckets[i].add(stats.buckets()[i]);
+            }
+        }
+
+        private static long percentile(long[] counts, long total, double fraction) {
+            if (total == 0) {
+                return 0;
+            }
+            long target = (long) Math.ceil(total * fraction);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= target) {
+                    return 1L << i;
+                }
+            }
+            return 1L << (counts.length - 1);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.snowfort.turtorial.service;
+
+import com.snowfort.turtorial.model.LessonAsset;
+import com.snowfort.turtorial.repository.LessonRepository;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Looks up lesson assets and keeps their metadata (length, media type, ETag) in memory. A cached entry
+ * is reused for as long as the file's modification time is unchanged, so a request costs one stat.
+ */
+@Service
+public class LessonAssetService {
+
+    private final LessonRepository lessonRepository;
+    private final Map<String, LessonAsset> metadata = new ConcurrentHashMap<>();
+
+    public LessonAssetService(LessonRepository lessonRepository) {
+        this.lessonRepository = lessonRepository;
+    }
+
+    /** @return the asset, or {@code null} if it does not exist or may not be served */
+    public LessonAsset find(String lessonId, String path) {
+        Resource resource = lessonRepository.findAsset(lessonId, path);
+        if (resource == null) {
+            return null;
+        }
+        String key = lessonId + "/" + path;
+        try {
+            long lastModified = resource.lastModified();
+            LessonAsset cached = metadata.get(key);
+            if (cached != null && cached.lastModified() == lastModified
+                    && cached.resource().getDescription().equals(resource.getDescription())) {
+                return cached;
+            }
+            if (!resource.isReadable()) {
+                metadata.remove(key);
+                return null;
+            }
+            LessonAsset asset = describe(resource, lastModified);
+            metadata.put(key, asset);
+            return asset;
+        } catch (IOException e) {
+            // Missing files report themselves through lastModified()/contentLength()
+            metadata.remove(key);
+            return null;
+        }
+    }
+
+    int cachedEntries() {
+        return metadata.size();
+    }
+
+    private static LessonAsset describe(Resource resource, long lastModified) throws IOException {
+        long length = resource.contentLength();
+        Path file = resource.isFile() ? resource.getFile().toPath() : null;
+        MediaType mediaType = MediaTypeFactory.getMediaType(resource).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        String etag = "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(length) + "\"";
+        return new LessonAsset(resource, file, length, lastModified, etag, mediaType);
+    }
+}
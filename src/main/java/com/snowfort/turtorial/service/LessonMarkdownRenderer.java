@@ -0,0 +1,281 @@
+package com.snowfort.turtorial.service;
+
+import org.commonmark.Extension;
+import org.commonmark.ext.autolink.AutolinkExtension;
+import org.commonmark.ext.gfm.strikethrough.StrikethroughExtension;
+import org.commonmark.ext.gfm.tables.TablesExtension;
+import org.commonmark.ext.task.list.items.TaskListItemsExtension;
+import org.commonmark.node.AbstractVisitor;
+import org.commonmark.node.Block;
+import org.commonmark.node.BlockQuote;
+import org.commonmark.node.CustomBlock;
+import org.commonmark.node.Node;
+import org.commonmark.node.Paragraph;
+import org.commonmark.node.SoftLineBreak;
+import org.commonmark.node.Text;
+import org.commonmark.parser.Parser;
+import org.commonmark.parser.PostProcessor;
+import org.commonmark.parser.block.AbstractBlockParser;
+import org.commonmark.parser.block.AbstractBlockParserFactory;
+import org.commonmark.parser.block.BlockContinue;
+import org.commonmark.parser.block.BlockStart;
+import org.commonmark.parser.block.MatchedBlockParser;
+import org.commonmark.parser.block.ParserState;
+import org.commonmark.renderer.NodeRenderer;
+import org.commonmark.renderer.html.HtmlNodeRendererContext;
+import org.commonmark.renderer.html.HtmlRenderer;
+import org.commonmark.renderer.html.HtmlWriter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Renders step Markdown to HTML on the server, producing the same markup the client-side renderer
+ * hands to its components.
+ * <p>
+ * GitHub-flavoured tables, strikethrough, task lists and autolinks are supported. {@code :::note}
+ * style directives and {@code > [!NOTE]} alerts become
+ * {@code <div class="admonition-wrapper" data-admonition-type="...">} blocks, and fenced code keeps its
+ * {@code language-*} class so the client can attach highlighting and run buttons. Raw HTML in the
+ * Markdown is escaped and unsafe link protocols are dropped, so the output can be inserted as-is.
+ */
+public final class LessonMarkdownRenderer {
+
+    private static final Set<String> ADMONITION_TYPES = Set.of("note", "tip", "important", "warning", "caution");
+
+    private static final Pattern DIRECTIVE_OPEN = Pattern.compile(
+            "^(:{3,})\\s*(note|tip|important|warning|caution)(?:\\{title=\"([^\"]*)\"\\}|\\s+(.*?))?\\s*$");
+    private static final Pattern DIRECTIVE_CLOSE = Pattern.compile("^(:{3,})\\s*$");
+    private static final Pattern ALERT_MARKER = Pattern.compile("^\\[!(\\w+)\\]\\s*");
+
+    /** Bump when the admonition, alert or escaping behaviour of this class changes its output. */
+    static final int RENDERER_VERSION = 1;
+
+    private final Parser parser;
+    private final HtmlRenderer renderer;
+    private final String fingerprint;
+
+    public LessonMarkdownRenderer() {
+        List<Extension> extensions = List.of(TablesExtension.create(), StrikethroughExtension.create(),
+                TaskListItemsExtension.create(), AutolinkExtension.create());
+        this.fingerprint = RENDERER_VERSION + ";commonmark-" + commonmarkVersion() + ";"
+                + String.join(",", extensions.stream().map(extension -> extension.getClass().getName()).toList());
+        this.parser = Parser.builder()
+                .extensions(extensions)
+                .customBlockParserFactory(new AdmonitionParserFactory())
+                .postProcessor(new AlertPostProcessor())
+                .build();
+        this.renderer = HtmlRenderer.builder()
+                .extensions(extensions)
+                .escapeHtml(true)
+                .sanitizeUrls(true)
+                .nodeRendererFactory(AdmonitionRenderer::new)
+                .build();
+    }
+
+    public String render(String markdown) {
+        if (markdown == null || markdown.isEmpty()) {
+            return "";
+        }
+        return renderer.render(parser.parse(markdown));
+    }
+
+    /**
+     * Identifies the output this renderer produces: its own version, the commonmark version and the
+     * enabled extensions. Cached HTML rendered under another fingerprint must not be reused.
+     */
+    public String fingerprint() {
+        return fingerprint;
+    }
+
+    private static String commonmarkVersion() {
+        String version = Parser.class.getPackage().getImplementationVersion();
+        if (version != null) {
+            return version;
+        }
+        try (InputStream is = Parser.class.getResourceAsStream("/META-INF/maven/org.commonmark/commonmark/pom.properties")) {
+            if (is != null) {
+                Properties properties = new Properties();
+                properties.load(is);
+                return properties.getProperty("version", "unknown");
+            }
+        } catch (IOException e) {
+            System.err.println("Could not read the commonmark version: " + e.getMessage());
+        }
+        return "unknown";
+    }
+
+    static final class Admonition extends CustomBlock {
+        private final String type;
+        private final String title;
+
+        Admonition(String type, String title) {
+            this.type = type;
+            this.title = title;
+        }
+    }
+
+    private static final class AdmonitionParser extends AbstractBlockParser {
+        private final Admonition block;
+        private final int fenceLength;
+
+        AdmonitionParser(Admonition block, int fenceLength) {
+            this.block = block;
+            this.fenceLength = fenceLength;
+        }
+
+        @Override
+        public Block getBlock() {
+            return block;
+        }
+
+        @Override
+        public boolean isContainer() {
+            return true;
+        }
+
+        @Override
+        public boolean canContain(Block childBlock) {
+            return true;
+        }
+
+        @Override
+        public BlockContinue tryContinue(ParserState state) {
+            if (state.getIndent() < 4) {
+                Matcher close = DIRECTIVE_CLOSE.matcher(remainder(state));
+                if (close.matches() && close.group(1).length() >= fenceLength) {
+                    return BlockContinue.finished();
+                }
+            }
+            return BlockContinue.atIndex(state.getIndex());
+        }
+    }
+
+    private static final class AdmonitionParserFactory extends AbstractBlockParserFactory {
+        @Override
+        public BlockStart tryStart(ParserState state, MatchedBlockParser matchedBlockParser) {
+            if (state.getIndent() >= 4) {
+                return BlockStart.none();
+            }
+            Matcher open = DIRECTIVE_OPEN.matcher(remainder(state));
+            if (!open.matches()) {
+                return BlockStart.none();
+            }
+            String title = open.group(3) != null ? open.group(3) : open.group(4);
+            Admonition block = new Admonition(open.group(2), title == null || title.isBlank() ? null : title);
+            return BlockStart.of(new AdmonitionParser(block, open.group(1).length()))
+                    .atIndex(state.getLine().getContent().length());
+        }
+    }
+
+    private static String remainder(ParserState state) {
+        CharSequence line = state.getLine().getContent();
+        return line.subSequence(state.getNextNonSpaceIndex(), line.length()).toString();
+    }
+
+    /** Turns {@code > [!NOTE]} block quotes into admonitions, dropping the marker text. */
+    private static final class AlertPostProcessor implements PostProcessor {
+        @Override
+        public Node process(Node document) {
+            List<BlockQuote> quotes = new ArrayList<>();
+            document.accept(new AbstractVisitor() {
+                @Override
+                public void visit(BlockQuote blockQuote) {
+                    quotes.add(blockQuote);
+                    visitChildren(blockQuote);
+                }
+            });
+
+            for (BlockQuote quote : quotes) {
+                if (!(quote.getFirstChild() instanceof Paragraph paragraph)
+                        || !(paragraph.getFirstChild() instanceof Text text)) {
+                    continue;
+                }
+                // Unmatched brackets may be split into separate text nodes
+                while (text.getNext() instanceof Text following) {
+                    text.setLiteral(text.getLiteral() + following.getLiteral());
+                    following.unlink();
+                }
+                Matcher marker = ALERT_MARKER.matcher(text.getLiteral());
+                if (!marker.find()) {
+                    continue;
+                }
+                String type = marker.group(1).toLowerCase(Locale.ROOT);
+                if (!ADMONITION_TYPES.contains(type)) {
+                    continue;
+                }
+
+                text.setLiteral(text.getLiteral().substring(marker.end()));
+                if (text.getLiteral().isEmpty()) {
+                    Node next = text.getNext();
+                    text.unlink();
+                    if (next instanceof SoftLineBreak) {
+                        next.unlink();
+                    }
+                }
+                if (paragraph.getFirstChild() == null) {
+                    paragraph.unlink();
+                }
+
+                Admonition admonition = new Admonition(type, null);
+                Node child = quote.getFirstChild();
+                while (child != null) {
+                    Node next = child.getNext();
+                    admonition.appendChild(child);
+                    child = next;
+                }
+                quote.insertBefore(admonition);
+                quote.unlink();
+            }
+            return document;
+        }
+    }
+
+    private static final class AdmonitionRenderer implements NodeRenderer {
+        private final HtmlNodeRendererContext context;
+        private final HtmlWriter html;
+
+        AdmonitionRenderer(HtmlNodeRendererContext context) {
+            this.context = context;
+            this.html = context.getWriter();
+        }
+
+        @Override
+        public Set<Class<? extends Node>> getNodeTypes() {
+            return Set.of(Admonition.class);
+        }
+
+        @Override
+        public void render(Node node) {
+            Admonition admonition = (Admonition) node;
+            Map<String, String> attributes = new LinkedHashMap<>();
+            attributes.put("class", "admonition-wrapper");
+            attributes.put("data-admonition-type", admonition.type);
+            if (admonition.title != null) {
+                attributes.put("data-admonition-title", admonition.title);
+            }
+
+            html.line();
+            html.tag("div", context.extendAttributes(node, "div", attributes));
+            html.line();
+            Node child = node.getFirstChild();
+            while (child != null) {
+                Node next = child.getNext();
+                context.render(child);
+                child = next;
+            }
+            html.line();
+            html.tag("/div");
+            html.line();
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package com.snowfort.turtorial.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
@@ -11,33 +10,42 @@ import com.networknt.schema.ValidationMessage;
 import com.snowfort.turtorial.model.Lesson;
 import com.snowfort.turtorial.model.QuizQuestion;
 import com.snowfort.turtorial.model.Step;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 
 import jakarta.annotation.PostConstruct;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
+/** Not created when the build-time catalog is served, which parses with its own instance. */
 @Component
+@ConditionalOnExpression("!'${turtorial.lessons.archive:}'.isEmpty() or !${turtorial.lessons.build-time-catalog:false}")
 public class LessonParser {
 
     private final ObjectMapper yamlMapper = new ObjectMapper(new YAMLFactory());
-    private static final Pattern FRONTMATTER_PATTERN = Pattern.compile(
-            "^---\\s*\\R(.*?)\\R---\\s*(?:\\R(.*))?$",
-            Pattern.DOTALL | Pattern.MULTILINE);
+    private final LessonMarkdownRenderer markdownRenderer = new LessonMarkdownRenderer();
 
     private final boolean failOnError;
+    private final StepParseCache parseCache;
     private JsonSchema schema;
 
-    public LessonParser(@Value("${turtorial.lessons.frontmatter.validation.fail-on-error:true}") boolean failOnError) {
+    public LessonParser(boolean failOnError) {
+        this(failOnError, StepParseCache.disabled());
+    }
+
+    @Autowired
+    public LessonParser(@Value("${turtorial.lessons.frontmatter.validation.fail-on-error:true}") boolean failOnError,
+            StepParseCache parseCache) {
         this.failOnError = failOnError;
+        this.parseCache = parseCache;
     }
 
     @PostConstruct
@@ -46,122 +54,182 @@ public class LessonParser {
     }
 
     private void loadSchema() {
+        byte[] schemaBytes = new byte[0];
         try (InputStream is = getClass().getResourceAsStream("/schemas/lesson-frontmatter.schema.json")) {
             if (is != null) {
+                schemaBytes = is.readAllBytes();
                 JsonSchemaFactory factory = JsonSchemaFactory.getInstance(SpecVersion.VersionFlag.V7);
-                this.schema = factory.getSchema(is);
+                this.schema = factory.getSchema(new ByteArrayInputStream(schemaBytes));
             } else {
                 System.err.println("Could not find frontmatter schema at /schemas/lesson-frontmatter.schema.json");
             }
         } catch (Exception e) {
             System.err.println("Failed to load frontmatter schema: " + e.getMessage());
         }
+        parseCache.init(schemaBytes, markdownRenderer.fingerprint());
     }
 
-    public void parseLessonMetadata(Resource resource, Lesson lesson) {
+    public void parseLessonMetadata(Resource resource, Lesson.Builder lesson) {
         try {
             JsonNode node = yamlMapper.readTree(resource.getInputStream());
             if (node.has("title"))
-                lesson.setTitle(node.get("title").asText());
+                lesson.title(node.get("title").asText());
             if (node.has("description"))
-                lesson.setDescription(node.get("description").asText());
+                lesson.description(node.get("description").asText());
             if (node.has("draft"))
-                lesson.setDraft(node.get("draft").asBoolean());
+                lesson.draft(node.get("draft").asBoolean());
         } catch (IOException e) {
             System.err.println("Error parsing lesson metadata for " + lesson.getId() + ": " + e.getMessage());
         }
     }
 
     public Step parseStep(Resource resource, String filename, boolean devMode) throws IOException {
-        String fullContent;
-        if (resource.isFile()) {
-            fullContent = Files.readString(resource.getFile().toPath(), StandardCharsets.UTF_8);
-        } else {
-            try (InputStream is = resource.getInputStream()) {
-                fullContent = new String(is.readAllBytes(), StandardCharsets.UTF_8);
+        StepParseEvent event = new StepParseEvent();
+        event.begin();
+        try {
+            return parseStep(resource, filename, devMode, event);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.filename = filename;
+                event.commit();
             }
         }
+    }
 
-        String frontMatter = "";
-        String content = "";
-
-        Matcher matcher = FRONTMATTER_PATTERN.matcher(fullContent);
-        if (matcher.find()) {
-            frontMatter = matcher.group(1);
-            content = matcher.group(2);
-            if (content == null) {
-                content = "";
+    private Step parseStep(Resource resource, String filename, boolean devMode, StepParseEvent event)
+            throws IOException {
+        String baseName = filename.replaceAll("\\.mdx?$", "");
+        Step.Builder step = Step.builder(baseName).title(formatTitle(baseName));
+
+        try (ReadableByteChannel channel = resource.readableChannel()) {
+            FrontmatterSplitter splitter = new FrontmatterSplitter(channel);
+
+            String cacheKey = null;
+            StepParseCache.Entry cached = null;
+            if (parseCache.isEnabled()) {
+                splitter.readFully();
+                cacheKey = parseCache.key(splitter.buffer(), splitter.length());
+                cached = parseCache.load(cacheKey);
+                if (cached != null && cached.contentStart() > splitter.length()) {
+                    cached = null;
+                }
             }
-        } else {
-            content = fullContent;
-        }
 
-        Step step = new Step();
-        String baseName = filename.replaceAll("\\.mdx?$", "");
-        step.setId(baseName);
-        step.setTitle(formatTitle(baseName));
+            JsonNode node = null;
+            int contentStart;
+            boolean store = false;
 
-        if (!frontMatter.isBlank()) {
-            try {
-                JsonNode node = yamlMapper.readTree(frontMatter);
+            if (cached != null) {
+                event.cacheHit = true;
+                node = cached.frontmatter();
+                contentStart = cached.contentStart();
+            } else {
+                splitter.readFrontmatter();
+                contentStart = splitter.contentStart();
+                String frontMatter = splitter.frontmatter();
 
-                if (node.has("draft") && node.get("draft").asBoolean() && !devMode) {
-                    return null;
-                }
+                boolean cacheable = true;
+                if (!frontMatter.isBlank()) {
+                    try {
+                        node = yamlMapper.readTree(frontMatter);
 
-                if (this.schema != null) {
-                    Set<ValidationMessage> errors = this.schema.validate(node);
-                    if (!errors.isEmpty()) {
-                        String errorMessage = "Frontmatter validation errors for " + filename + ": " + errors;
+                        if (isSkippedDraft(node, devMode)) {
+                            return null;
+                        }
+
+                        cacheable = validateFrontmatter(node, filename);
+                    } catch (Exception e) {
                         if (failOnError) {
-                            throw new RuntimeException(errorMessage);
-                        } else {
-                            System.err.println(errorMessage);
+                            throw new RuntimeException("Error parsing YAML for " + filename, e);
                         }
+                        System.err.println("Error parsing YAML for " + filename + ": " + e.getMessage());
+                        node = null;
+                        cacheable = false;
                     }
                 }
 
-                mapStepFields(step, node, filename);
+                store = cacheable && cacheKey != null;
+            }
 
-            } catch (Exception e) {
-                if (failOnError) {
-                    throw new RuntimeException("Error parsing YAML for " + filename, e);
+            if (node != null) {
+                if (isSkippedDraft(node, devMode)) {
+                    return null;
+                }
+                try {
+                    mapStepFields(step, node, filename);
+                } catch (Exception e) {
+                    if (failOnError) {
+                        throw new RuntimeException("Error parsing YAML for " + filename, e);
+                    }
+                    System.err.println("Error parsing YAML for " + filename + ": " + e.getMessage());
                 }
-                System.err.println("Error parsing YAML for " + filename + ": " + e.getMessage());
             }
-        }
 
-        step.setContent(content);
+            splitter.readFully();
+            event.bytes = splitter.length();
+            String content = splitter.contentFrom(contentStart);
+            String html = cached != null && cached.html() != null ? cached.html() : markdownRenderer.render(content);
+            step.content(content).html(html);
 
-        if (step.getOrder() == null) {
-            step.setOrder(Integer.MAX_VALUE);
+            if (store) {
+                parseCache.store(cacheKey, new StepParseCache.Entry(node, contentStart, html));
+            }
         }
 
-        return step;
+        return step.build();
+    }
+
+    private boolean isSkippedDraft(JsonNode node, boolean devMode) {
+        return node.has("draft") && node.get("draft").asBoolean() && !devMode;
     }
 
-    private void mapStepFields(Step step, JsonNode node, String filename) {
+    private boolean validateFrontmatter(JsonNode node, String filename) {
+        if (this.schema == null) {
+            return true;
+        }
+        Set<ValidationMessage> errors = this.schema.validate(node);
+        if (errors.isEmpty()) {
+            return true;
+        }
+        String errorMessage = "Frontmatter validation errors for " + filename + ": " + errors;
+        if (failOnError) {
+            throw new RuntimeException(errorMessage);
+        }
+        System.err.println(errorMessage);
+        return false;
+    }
+
+    private void mapStepFields(Step.Builder step, JsonNode node, String filename) {
         if (node.has("title"))
-            step.setTitle(node.get("title").asText());
+            step.title(node.get("title").asText());
         if (node.has("testCommand"))
-            step.setTestCommand(node.get("testCommand").asText());
+            step.testCommand(node.get("testCommand").asText());
         if (node.has("before"))
-            step.setBeforeCommand(node.get("before").asText());
+            step.beforeCommand(node.get("before").asText());
         if (node.has("after"))
-            step.setAfterCommand(node.get("after").asText());
+            step.afterCommand(node.get("after").asText());
         if (node.has("order"))
-            step.setOrder(node.get("order").asInt());
+            step.order(node.get("order").asInt());
         if (node.has("section"))
-            step.setSection(node.get("section").asText());
+            step.section(node.get("section").asText());
         if (node.has("quizzes")) {
-            try {
-                List<QuizQuestion> quizzes = yamlMapper.convertValue(node.get("quizzes"),
-                        new TypeReference<List<QuizQuestion>>() {
-                        });
-                step.setQuizzes(quizzes);
-            } catch (Exception e) {
-                System.err.println("Error parsing quizzes for " + filename + ": " + e.getMessage());
+            // One at a time, so an invalid question, e.g. one with a bad validationRegex, only drops itself
+            List<QuizQuestion> quizzes = new ArrayList<>();
+            int index = 0;
+            for (JsonNode quiz : node.get("quizzes")) {
+                index++;
+                try {
+                    quizzes.add(yamlMapper.convertValue(quiz, QuizQuestion.class));
+                } catch (IllegalArgumentException e) {
+                    String message = "Error parsing quiz " + index + " for " + filename;
+                    if (failOnError) {
+                        throw new RuntimeException(message, e);
+                    }
+                    System.err.println(message + ": " + e.getMessage());
+                }
             }
+            step.quizzes(quizzes);
         }
     }
 
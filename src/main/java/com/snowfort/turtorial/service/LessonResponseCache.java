@@ -0,0 +1,151 @@
+package com.snowfort.turtorial.service;
+
+import com.snowfort.turtorial.model.Lesson;
+import com.snowfort.turtorial.model.LessonSummary;
+import com.snowfort.turtorial.repository.LessonRepository;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import jakarta.annotation.PostConstruct;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * JSON bodies of the lesson endpoints, serialized and gzip-compressed once per catalog snapshot.
+ * <p>
+ * The catalog is immutable between reloads, so the lesson list and every lesson are written to byte
+ * arrays the first time a snapshot is seen and served as-is until the repository publishes a new one.
+ * Each body carries a strong ETag derived from its SHA-256. Bodies are written with the application's
+ * {@link JsonMapper}, the one Spring MVC would use for these endpoints.
+ */
+@Component
+public class LessonResponseCache {
+
+    private final LessonRepository lessonRepository;
+    private final JsonMapper jsonMapper;
+    private volatile Snapshot snapshot;
+
+    public LessonResponseCache(LessonRepository lessonRepository, JsonMapper jsonMapper) {
+        this.lessonRepository = lessonRepository;
+        this.jsonMapper = jsonMapper;
+    }
+
+    @PostConstruct
+    public void init() {
+        currentSnapshot();
+    }
+
+    public CachedResponse lessonList() {
+        return currentSnapshot().list();
+    }
+
+    /** @return the cached lesson body, or {@code null} if there is no such lesson */
+    public CachedResponse lesson(String id) {
+        return currentSnapshot().lessons().get(id);
+    }
+
+    private Snapshot currentSnapshot() {
+        List<Lesson> catalog = lessonRepository.findAll();
+        Snapshot current = snapshot;
+        if (current == null || current.source() != catalog) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null || current.source() != catalog) {
+                    current = build(catalog);
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private Snapshot build(List<Lesson> catalog) {
+        long start = System.nanoTime();
+        CachedResponse list = serialize(catalog.stream().map(LessonSummary::of).toList());
+        long bytes = list.body().length;
+        Map<String, CachedResponse> lessons = new HashMap<>();
+        for (Lesson lesson : catalog) {
+            CachedResponse response = serialize(lesson);
+            lessons.put(lesson.getId(), response);
+            bytes += response.body().length;
+        }
+        System.out.println("Serialized " + catalog.size() + " lessons (" + bytes / 1024 + " KB) in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return new Snapshot(catalog, list, Map.copyOf(lessons));
+    }
+
+    private CachedResponse serialize(Object value) {
+        byte[] body = jsonMapper.writeValueAsBytes(value);
+        try {
+            byte[] gzipped = gzip(body);
+            return new CachedResponse(body, gzipped.length < body.length ? gzipped : null, etag(body));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to serialize lesson response", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+
+    private static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record Snapshot(List<Lesson> source, CachedResponse list, Map<String, CachedResponse> lessons) {
+    }
+
+    /**
+     * A serialized body, its gzip variant ({@code null} when compression does not pay off) and the
+     * strong ETag of the uncompressed body.
+     */
+    public record CachedResponse(byte[] body, byte[] gzipBody, String etag) {
+
+        /** The ETag of the gzip variant, distinct from the identity one as required for strong validators. */
+        public String gzipEtag() {
+            return etag.substring(0, etag.length() - 1) + "-gzip\"";
+        }
+
+        /** Whether an {@code If-None-Match} header value matches either variant of this body. */
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+                return false;
+            }
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.strip();
+                if (tag.equals("*")) {
+                    return true;
+                }
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals(etag) || tag.equals(gzipEtag())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.snowfort.turtorial.service;
+
+import com.snowfort.turtorial.model.Lesson;
+import com.snowfort.turtorial.model.QuizQuestion;
+import com.snowfort.turtorial.model.SearchResult;
+import com.snowfort.turtorial.model.SearchResults;
+import com.snowfort.turtorial.model.Step;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable inverted index over every step of a lesson catalog.
+ * <p>
+ * Each step is one document. Titles, sections, quiz text and Markdown content are tokenized into
+ * lower-case terms with per-field weights, and each term maps to parallel arrays of document ids and
+ * weighted term frequencies. Queries require every term to match (the last term also matches as a
+ * prefix) and are ranked with BM25.
+ */
+public final class LessonSearchIndex {
+
+    private static final float STEP_TITLE_WEIGHT = 4f;
+    private static final float LESSON_TITLE_WEIGHT = 2f;
+    private static final float SECTION_WEIGHT = 2f;
+    private static final float QUIZ_WEIGHT = 1f;
+    private static final float CONTENT_WEIGHT = 1f;
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    private static final int MAX_QUERY_TERMS = 16;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int SNIPPET_RADIUS = 80;
+
+    private final List<Lesson> source;
+    private final Step[] steps;
+    private final Lesson[] lessons;
+    private final float[] lengthNorms;
+    private final String[] terms;
+    private final int[][] postingDocs;
+    private final float[][] postingFrequencies;
+
+    private LessonSearchIndex(List<Lesson> source, Step[] steps, Lesson[] lessons, float[] lengthNorms,
+            String[] terms, int[][] postingDocs, float[][] postingFrequencies) {
+        this.source = source;
+        this.steps = steps;
+        this.lessons = lessons;
+        this.lengthNorms = lengthNorms;
+        this.terms = terms;
+        this.postingDocs = postingDocs;
+        this.postingFrequencies = postingFrequencies;
+    }
+
+    public static LessonSearchIndex build(List<Lesson> catalog) {
+        List<Step> steps = new ArrayList<>();
+        List<Lesson> owners = new ArrayList<>();
+        for (Lesson lesson : catalog) {
+            if (lesson.getSteps() == null) {
+                continue;
+            }
+            for (Step step : lesson.getSteps()) {
+                steps.add(step);
+                owners.add(lesson);
+            }
+        }
+
+        int docCount = steps.size();
+        Map<String, PostingBuilder> postings = new HashMap<>();
+        float[] lengths = new float[docCount];
+
+        for (int doc = 0; doc < docCount; doc++) {
+            Step step = steps.get(doc);
+            Lesson lesson = owners.get(doc);
+            Map<String, Float> frequencies = new HashMap<>();
+
+            lengths[doc] += addField(frequencies, step.getTitle(), STEP_TITLE_WEIGHT);
+            lengths[doc] += addField(frequencies, lesson.getTitle(), LESSON_TITLE_WEIGHT);
+            lengths[doc] += addField(frequencies, step.getSection(), SECTION_WEIGHT);
+            lengths[doc] += addField(frequencies, step.getContent(), CONTENT_WEIGHT);
+            if (step.getQuizzes() != null) {
+                for (QuizQuestion quiz : step.getQuizzes()) {
+                    lengths[doc] += addField(frequencies, quiz.getQuestion(), QUIZ_WEIGHT);
+                    if (quiz.getOptions() != null) {
+                        for (String option : quiz.getOptions()) {
+                            lengths[doc] += addField(frequencies, option, QUIZ_WEIGHT);
+                        }
+                    }
+                }
+            }
+
+            for (Map.Entry<String, Float> entry : frequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), k -> new PostingBuilder()).add(doc, entry.getValue());
+            }
+        }
+
+        float averageLength = 0f;
+        for (float length : lengths) {
+            averageLength += length;
+        }
+        averageLength = docCount == 0 ? 1f : Math.max(1f, averageLength / docCount);
+
+        float[] lengthNorms = new float[docCount];
+        for (int doc = 0; doc < docCount; doc++) {
+            lengthNorms[doc] = K1 * (1 - B + B * lengths[doc] / averageLength);
+        }
+
+        String[] terms = postings.keySet().toArray(new String[0]);
+        Arrays.sort(terms);
+        int[][] postingDocs = new int[terms.length][];
+        float[][] postingFrequencies = new float[terms.length][];
+        for (int i = 0; i < terms.length; i++) {
+            PostingBuilder builder = postings.get(terms[i]);
+            postingDocs[i] = Arrays.copyOf(builder.docs, builder.size);
+            postingFrequencies[i] = Arrays.copyOf(builder.frequencies, builder.size);
+        }
+
+        return new LessonSearchIndex(catalog, steps.toArray(new Step[0]), owners.toArray(new Lesson[0]),
+                lengthNorms, terms, postingDocs, postingFrequencies);
+    }
+
+    /** The catalog this index was built from, compared by identity to detect reloads. */
+    public List<Lesson> getSource() {
+        return source;
+    }
+
+    public int documentCount() {
+        return steps.length;
+    }
+
+    public SearchResults search(String query, int page, int size) {
+        List<String> queryTerms = new ArrayList<>();
+        tokenize(query, token -> {
+            if (queryTerms.size() < MAX_QUERY_TERMS && !queryTerms.contains(token)) {
+                queryTerms.add(token);
+            }
+        });
+        if (queryTerms.isEmpty() || steps.length == 0) {
+            return new SearchResults(query, 0, page, size, List.of());
+        }
+
+        int docCount = steps.length;
+        float[] scores = new float[docCount];
+        int[] matched = new int[docCount];
+        int required = 0;
+
+        for (int t = 0; t < queryTerms.size(); t++) {
+            int bit = 1 << t;
+            required |= bit;
+            boolean prefix = t == queryTerms.size() - 1;
+            int[] range = termRange(queryTerms.get(t), prefix);
+            if (range[0] == range[1]) {
+                return new SearchResults(query, 0, page, size, List.of());
+            }
+            for (int i = range[0]; i < range[1]; i++) {
+                int[] docs = postingDocs[i];
+                float[] frequencies = postingFrequencies[i];
+                float idf = (float) Math.log(1 + (docCount - docs.length + 0.5) / (docs.length + 0.5));
+                for (int p = 0; p < docs.length; p++) {
+                    int doc = docs[p];
+                    float tf = frequencies[p];
+                    scores[doc] += idf * (tf * (K1 + 1)) / (tf + lengthNorms[doc]);
+                    matched[doc] |= bit;
+                }
+            }
+        }
+
+        // Pack score and document into one sortable long; scores are positive so their IEEE bits
+        // order the same way as the values, and the inverted document id keeps ties in catalog order.
+        int total = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (matched[doc] == required) {
+                total++;
+            }
+        }
+        long[] ranked = new long[total];
+        total = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (matched[doc] == required) {
+                ranked[total++] = ((long) Float.floatToIntBits(scores[doc]) << 32) | (Integer.MAX_VALUE - doc);
+            }
+        }
+        Arrays.sort(ranked);
+
+        // A page far past the end must not overflow into a negative offset
+        int from = (int) Math.min(total, (long) page * size);
+        int to = (int) Math.min(total, (long) from + size);
+        List<SearchResult> results = new ArrayList<>(Math.max(0, to - from));
+        if (from < to) {
+            Pattern highlight = highlightPattern(queryTerms);
+            for (int rank = from; rank < to; rank++) {
+                long packed = ranked[total - 1 - rank];
+                int doc = Integer.MAX_VALUE - (int) packed;
+                Step step = steps[doc];
+                Lesson lesson = lessons[doc];
+                results.add(new SearchResult(lesson.getId(), lesson.getTitle(), step.getId(), step.getTitle(),
+                        step.getSection(), Float.intBitsToFloat((int) (packed >>> 32)),
+                        snippet(step, highlight)));
+            }
+        }
+        return new SearchResults(query, total, page, size, results);
+    }
+
+    private int[] termRange(String term, boolean prefix) {
+        int start = Arrays.binarySearch(terms, term);
+        if (!prefix) {
+            return start >= 0 ? new int[] { start, start + 1 } : new int[] { 0, 0 };
+        }
+        if (start < 0) {
+            start = -start - 1;
+        }
+        int end = start;
+        while (end < terms.length && end - start < MAX_PREFIX_EXPANSIONS && terms[end].startsWith(term)) {
+            end++;
+        }
+        return new int[] { start, end };
+    }
+
+    private static float addField(Map<String, Float> frequencies, String text, float weight) {
+        if (text == null || text.isEmpty()) {
+            return 0f;
+        }
+        float[] length = new float[1];
+        tokenize(text, token -> {
+            frequencies.merge(token, weight, Float::sum);
+            length[0] += 1;
+        });
+        return length[0];
+    }
+
+    static void tokenize(String text, Consumer<String> sink) {
+        if (text == null) {
+            return;
+        }
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean wordChar = i < length && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                if (i - start > 1) {
+                    sink.accept(text.substring(start, i).toLowerCase(Locale.ROOT));
+                }
+                start = -1;
+            }
+        }
+    }
+
+    private static Pattern highlightPattern(List<String> queryTerms) {
+        StringBuilder regex = new StringBuilder("(?<![\\p{L}\\p{N}])(?:");
+        for (int i = 0; i < queryTerms.size(); i++) {
+            if (i > 0) {
+                regex.append('|');
+            }
+            regex.append(Pattern.quote(queryTerms.get(i)));
+        }
+        regex.append(')');
+        return Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+    }
+
+    private static String snippet(Step step, Pattern highlight) {
+        String content = step.getContent() == null ? "" : step.getContent();
+        Matcher matcher = highlight.matcher(content);
+        int center = matcher.find() ? matcher.start() : 0;
+        int from = Math.max(0, center - SNIPPET_RADIUS);
+        int to = Math.min(content.length(), center + SNIPPET_RADIUS);
+        while (from > 0 && !Character.isWhitespace(content.charAt(from - 1)) && center - from < SNIPPET_RADIUS * 2) {
+            from--;
+        }
+        while (to < content.length() && !Character.isWhitespace(content.charAt(to)) && to - center < SNIPPET_RADIUS * 2) {
+            to++;
+        }
+
+        StringBuilder snippet = new StringBuilder();
+        if (from > 0) {
+            snippet.append('…');
+        }
+        matcher.region(from, to);
+        int last = from;
+        while (matcher.find()) {
+            appendEscaped(snippet, content, last, matcher.start());
+            snippet.append("<mark>");
+            appendEscaped(snippet, content, matcher.start(), matcher.end());
+            snippet.append("</mark>");
+            last = matcher.end();
+        }
+        appendEscaped(snippet, content, last, to);
+        if (to < content.length()) {
+            snippet.append('…');
+        }
+        return snippet.toString().replaceAll("\\s+", " ").strip();
+    }
+
+    private static void appendEscaped(StringBuilder out, String text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+
+    private static final class PostingBuilder {
+        private int[] docs = new int[4];
+        private float[] frequencies = new float[4];
+        private int size;
+
+        void add(int doc, float frequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docs[size] = doc;
+            frequencies[size] = frequency;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.snowfort.turtorial.service;
+
+import com.snowfort.turtorial.model.Lesson;
+import com.snowfort.turtorial.model.SearchResults;
+import com.snowfort.turtorial.repository.LessonRepository;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import java.util.List;
+
+@Service
+public class LessonSearchService {
+
+    private static final int MAX_PAGE_SIZE = 50;
+
+    private final LessonRepository lessonRepository;
+    private volatile LessonSearchIndex index;
+
+    public LessonSearchService(LessonRepository lessonRepository) {
+        this.lessonRepository = lessonRepository;
+    }
+
+    @PostConstruct
+    public void init() {
+        currentIndex();
+    }
+
+    public SearchResults search(String query, int page, int size) {
+        int safePage = Math.max(0, page);
+        int safeSize = Math.clamp(size, 1, MAX_PAGE_SIZE);
+        return currentIndex().search(query == null ? "" : query, safePage, safeSize);
+    }
+
+    private LessonSearchIndex currentIndex() {
+        List<Lesson> catalog = lessonRepository.findAll();
+        LessonSearchIndex current = index;
+        if (current == null || current.getSource() != catalog) {
+            synchronized (this) {
+                current = index;
+                if (current == null || current.getSource() != catalog) {
+                    long start = System.nanoTime();
+                    current = LessonSearchIndex.build(catalog);
+                    index = current;
+                    System.out.println("Indexed " + current.documentCount() + " steps for search in "
+                            + (System.nanoTime() - start) / 1_000_000 + " ms");
+                }
+            }
+        }
+        return current;
+    }
+}
@@ -30,8 +30,10 @@ public class LessonService {
     }
 
     public boolean verifyStep(String lessonId, String stepId) {
-        Step step = findStep(lessonId, stepId);
+        return verifyStep(findStep(lessonId, stepId));
+    }
 
+    public boolean verifyStep(Step step) {
         if (step == null || step.getTestCommand() == null || step.getTestCommand().isEmpty()) {
             return true;
         }
@@ -65,7 +67,7 @@ public class LessonService {
         return commandExecutor.execute(step.getAfterCommand());
     }
 
-    private Step findStep(String lessonId, String stepId) {
+    public Step findStep(String lessonId, String stepId) {
         Lesson lesson = findById(lessonId);
         if (lesson == null)
             return null;
@@ -0,0 +1,251 @@
+package com.snowfort.turtorial.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.snowfort.turtorial.model.LessonProgress;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Learner progress, keyed by an opaque learner token and lesson id.
+ * <p>
+ * Reads are served from memory. Updates replace the in-memory entry and queue its key for a writer
+ * thread, which appends the entry's value at the time it is written in batches to a log of JSON
+ * lines ({@code turtorial.progress.file}). Reading the value from the map rather than queueing it
+ * means the last record logged for a key is always the latest value, however concurrent saves of
+ * the same key interleave.
+ * The log is replayed on startup, last record winning, and rewritten with only the live entries once
+ * it holds more than {@link #COMPACTION_FACTOR} times as many records. Without a file, progress is
+ * kept in memory only.
+ * <p>
+ * Learner tokens are chosen by clients, so the store takes at most {@code turtorial.progress.max-learners}
+ * learners, each with at most one entry per lesson, and at most {@link #MAX_PENDING} queued writes.
+ * Saves past either limit are refused.
+ */
+@Service
+public class ProgressStore {
+
+    static final int COMPACTION_FACTOR = 4;
+    private static final int MAX_BATCH = 1024;
+    private static final int MIN_COMPACTION_RECORDS = 1024;
+    static final int MAX_PENDING = 65_536;
+
+    private final Map<Key, LessonProgress> progress = new ConcurrentHashMap<>();
+    private final BlockingQueue<Key> pending = new LinkedBlockingQueue<>(MAX_PENDING);
+    private final Set<String> learners = ConcurrentHashMap.newKeySet();
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+    private final Path file;
+    private final long flushIntervalMillis;
+    private final int maxLearners;
+    private Thread writer;
+    private volatile boolean running;
+    private long logRecords;
+
+    public ProgressStore(@Value("${turtorial.progress.file:}") String file,
+            @Value("${turtorial.progress.flush-interval-ms:200}") long flushIntervalMillis,
+            @Value("${turtorial.progress.max-learners:100000}") int maxLearners) {
+        this.file = file == null || file.isBlank() ? null : Path.of(file);
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.maxLearners = maxLearners;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        } catch (IOException e) {
+            System.err.println("Could not create progress directory for " + file + ": " + e.getMessage());
+        }
+        replay();
+        terminateTornLine();
+        running = true;
+        writer = Thread.ofPlatform().name("progress-writer").daemon().start(this::writeLoop);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (writer != null) {
+            // The writer notices within one flush interval and drains the queue before exiting
+            running = false;
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    public LessonProgress find(String learner, String lessonId) {
+        return progress.getOrDefault(new Key(learner, lessonId), LessonProgress.EMPTY);
+    }
+
+    /**
+     * @return {@code false} if the save was refused, because the learner is new and the store is full
+     *         or because the writer has fallen {@link #MAX_PENDING} writes behind
+     */
+    public boolean save(String learner, String lessonId, LessonProgress lessonProgress) {
+        if (!admit(learner) || (file != null && pending.remainingCapacity() == 0)) {
+            return false;
+        }
+        Key key = new Key(learner, lessonId);
+        progress.put(key, lessonProgress);
+        // Only fails if concurrent saves filled the queue since the check; the entry is then logged by
+        // its next save or the next compaction
+        if (file != null) {
+            pending.offer(key);
+        }
+        return true;
+    }
+
+    private boolean admit(String learner) {
+        if (learners.contains(learner)) {
+            return true;
+        }
+        synchronized (learners) {
+            if (learners.size() >= maxLearners) {
+                return false;
+            }
+            learners.add(learner);
+            return true;
+        }
+    }
+
+    int pendingWrites() {
+        return pending.size();
+    }
+
+    private void writeLoop() {
+        List<Key> batch = new ArrayList<>();
+        while (running || !pending.isEmpty()) {
+            try {
+                Key first = pending.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            pending.drainTo(batch, MAX_BATCH - batch.size());
+            if (!batch.isEmpty()) {
+                append(batch);
+                batch.clear();
+            }
+            if (logRecords >= MIN_COMPACTION_RECORDS && logRecords > (long) progress.size() * COMPACTION_FACTOR) {
+                compact();
+            }
+        }
+    }
+
+    private void append(List<Key> batch) {
+        List<ProgressRecord> records = new ArrayList<>(batch.size());
+        for (Key key : batch) {
+            records.add(record(key, progress.get(key)));
+        }
+        try (OutputStream out = Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            out.write(encode(records));
+            logRecords += batch.size();
+        } catch (IOException e) {
+            System.err.println("Could not write " + batch.size() + " progress records to " + file + ": "
+                    + e.getMessage());
+        }
+    }
+
+    /** Rewrites the log with one record per live entry. Runs on the writer thread, so no append can interleave. */
+    void compact() {
+        List<ProgressRecord> live = new ArrayList<>(progress.size());
+        progress.forEach((key, value) -> live.add(record(key, value)));
+        try {
+            Path tmp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+            Files.write(tmp, encode(live));
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            System.out.println("Compacted progress log " + file + " from " + logRecords + " to " + live.size()
+                    + " records");
+            logRecords = live.size();
+        } catch (IOException e) {
+            System.err.println("Could not compact progress log " + file + ": " + e.getMessage());
+        }
+    }
+
+    private void replay() {
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    ProgressRecord record = jsonMapper.readValue(line, ProgressRecord.class);
+                    progress.put(new Key(record.learner(), record.lesson()),
+                            new LessonProgress(record.completed(), record.current()));
+                    learners.add(record.learner());
+                    logRecords++;
+                } catch (IOException e) {
+                    // A torn last line from a crash mid-append; earlier records are still good
+                    System.err.println("Skipping unreadable progress record in " + file + ": " + e.getMessage());
+                }
+            }
+            System.out.println("Restored progress for " + progress.size() + " learner lessons from " + file);
+        } catch (IOException e) {
+            System.err.println("Could not read progress log " + file + ": " + e.getMessage());
+        }
+    }
+
+    /** Ends a partially written last record with a newline so the next append starts a fresh line. */
+    private void terminateTornLine() {
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            ByteBuffer last = ByteBuffer.allocate(1);
+            if (size > 0 && channel.read(last, size - 1) == 1 && last.get(0) != '\n') {
+                channel.write(ByteBuffer.wrap(new byte[] { '\n' }), size);
+            }
+        } catch (IOException e) {
+            System.err.println("Could not repair progress log " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static ProgressRecord record(Key key, LessonProgress value) {
+        return new ProgressRecord(key.learner(), key.lessonId(), value.completedSteps(), value.currentStep());
+    }
+
+    private byte[] encode(List<ProgressRecord> records) throws IOException {
+        StringBuilder out = new StringBuilder();
+        for (ProgressRecord record : records) {
+            out.append(jsonMapper.writeValueAsString(record)).append('\n');
+        }
+        return out.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private record Key(String learner, String lessonId) {
+    }
+
+    record ProgressRecord(String learner, String lesson, List<String> completed, String current) {
+    }
+}
@@ -0,0 +1,125 @@
+package com.snowfort.turtorial.service;
+
+import com.snowfort.turtorial.model.QuizQuestion;
+import com.snowfort.turtorial.model.QuizResult;
+import com.snowfort.turtorial.model.QuizType;
+import com.snowfort.turtorial.model.Step;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Grades quiz answers against the step definitions, so correct answers never have to leave the
+ * server. Text answers are matched with the step's precompiled pattern; since lesson authors write
+ * those patterns, each match runs against a deadline and counts as wrong once it is exceeded.
+ */
+@Service
+public class QuizGradingService {
+
+    static final int MAX_ANSWER_LENGTH = 1000;
+
+    private final LessonService lessonService;
+    private final LessonAnalytics analytics;
+    private final long regexTimeoutNanos;
+
+    public QuizGradingService(LessonService lessonService, LessonAnalytics analytics,
+            @Value("${turtorial.quizzes.regex-timeout-ms:100}") long regexTimeoutMillis) {
+        this.lessonService = lessonService;
+        this.analytics = analytics;
+        this.regexTimeoutNanos = regexTimeoutMillis * 1_000_000L;
+    }
+
+    /** @return one result per non-null answer, or {@code null} if the step does not exist */
+    public List<QuizResult> grade(String lessonId, String stepId, List<String> answers) {
+        Step step = lessonService.findStep(lessonId, stepId);
+        if (step == null) {
+            return null;
+        }
+        List<QuizQuestion> quizzes = step.getQuizzes() == null ? List.of() : step.getQuizzes();
+        List<QuizResult> results = new ArrayList<>();
+        if (answers == null) {
+            return results;
+        }
+        for (int i = 0; i < answers.size() && i < quizzes.size(); i++) {
+            String answer = answers.get(i);
+            if (answer != null) {
+                QuizQuestion quiz = quizzes.get(i);
+                boolean correct = isCorrect(quiz, answer);
+                // Only known options are counted, so arbitrary input cannot grow the counters
+                String option = quiz.getType() == QuizType.CHOICE && quiz.getOptions() != null
+                        && quiz.getOptions().contains(answer) ? answer : null;
+                analytics.recordQuizAnswer(lessonId, stepId, i, option, correct);
+                results.add(new QuizResult(i, correct));
+            }
+        }
+        return results;
+    }
+
+    boolean isCorrect(QuizQuestion quiz, String answer) {
+        if (answer.length() > MAX_ANSWER_LENGTH) {
+            return false;
+        }
+        if (quiz.getType() == QuizType.CHOICE) {
+            return answer.equals(quiz.getCorrectAnswer());
+        }
+        Pattern pattern = quiz.getValidationPattern();
+        if (pattern == null) {
+            return false;
+        }
+        try {
+            return pattern.matcher(new DeadlineCharSequence(answer, System.nanoTime() + regexTimeoutNanos)).find();
+        } catch (MatchTimeoutException e) {
+            System.err.println("Validation pattern timed out for quiz \"" + quiz.getQuestion() + "\": "
+                    + quiz.getValidationRegex());
+            return false;
+        }
+    }
+
+    /**
+     * Checks the deadline as the regex engine reads characters. Catastrophic backtracking re-reads
+     * the input over and over, so it is stopped shortly after the deadline passes.
+     */
+    private static final class DeadlineCharSequence implements CharSequence {
+        private final CharSequence text;
+        private final long deadline;
+        private int reads;
+
+        DeadlineCharSequence(CharSequence text, long deadline) {
+            this.text = text;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public char charAt(int index) {
+            // nanoTime is cheap but not free; sampling keeps short matches at full speed
+            if ((++reads & 0x3FF) == 0 && System.nanoTime() - deadline > 0) {
+                throw new MatchTimeoutException();
+            }
+            return text.charAt(index);
+        }
+
+        @Override
+        public int length() {
+            return text.length();
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new DeadlineCharSequence(text.subSequence(start, end), deadline);
+        }
+
+        @Override
+        public String toString() {
+            return text.toString();
+        }
+    }
+
+    private static final class MatchTimeoutException extends RuntimeException {
+        MatchTimeoutException() {
+            super(null, null, false, false);
+        }
+    }
+}
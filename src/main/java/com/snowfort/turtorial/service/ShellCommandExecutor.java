@@ -6,16 +6,26 @@ import org.springframework.stereotype.Service;
 public class ShellCommandExecutor implements CommandExecutor {
     @Override
     public boolean execute(String command) {
+        CommandExecutionEvent event = new CommandExecutionEvent();
+        event.begin();
+        int exitCode = -1;
         try {
             Process process = new ProcessBuilder("/bin/sh", "-c", command)
                     .redirectOutput(ProcessBuilder.Redirect.DISCARD)
                     .redirectError(ProcessBuilder.Redirect.DISCARD)
                     .start();
-            int exitCode = process.waitFor();
+            exitCode = process.waitFor();
             return exitCode == 0;
         } catch (Exception e) {
             e.printStackTrace();
             return false;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.command = command;
+                event.exitCode = exitCode;
+                event.commit();
+            }
         }
     }
 }
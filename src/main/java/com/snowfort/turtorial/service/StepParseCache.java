@@ -0,0 +1,151 @@
+package com.snowfort.turtorial.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * On-disk cache of {@link LessonParser#parseStep} results. Entries hold the validated frontmatter,
+ * the offset at which the step content starts and the rendered HTML, keyed by the SHA-256 of the step file. Entries
+ * live in a directory named after the entry format version and a hash of the frontmatter schema and the
+ * {@link LessonMarkdownRenderer#fingerprint() renderer fingerprint}, so a changed step file, schema,
+ * commonmark version or extension set simply misses the cache.
+ */
+@Component
+@ConditionalOnExpression("!'${turtorial.lessons.archive:}'.isEmpty() or !${turtorial.lessons.build-time-catalog:false}")
+public class StepParseCache {
+
+    static final int FORMAT_VERSION = 3;
+    /** Names of the generation directories this cache creates; nothing else in the directory is touched. */
+    private static final Pattern GENERATION = Pattern.compile("v\\d+-[0-9a-f]{16}");
+
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+    private final Path directory;
+    private Path versionDirectory;
+
+    public StepParseCache(@Value("${turtorial.lessons.parse-cache.directory:}") String directory) {
+        this.directory = directory == null || directory.isBlank() ? null : Path.of(directory);
+    }
+
+    public static StepParseCache disabled() {
+        return new StepParseCache("");
+    }
+
+    /**
+     * Selects the cache generation for the given schema and renderer and removes entries written for
+     * any other schema, renderer or format version.
+     */
+    public void init(byte[] schemaBytes, String rendererFingerprint) {
+        if (directory == null) {
+            return;
+        }
+        MessageDigest digest = sha256();
+        digest.update(schemaBytes);
+        digest.update((byte) 0);
+        digest.update(rendererFingerprint.getBytes(StandardCharsets.UTF_8));
+        String version = "v" + FORMAT_VERSION + "-" + HexFormat.of().formatHex(digest.digest()).substring(0, 16);
+        try {
+            Files.createDirectories(directory);
+            pruneStaleGenerations(version);
+            this.versionDirectory = Files.createDirectories(directory.resolve(version));
+            System.out.println("Using step parse cache at " + versionDirectory);
+        } catch (IOException e) {
+            System.err.println("Step parse cache disabled, could not prepare " + directory + ": " + e.getMessage());
+            this.versionDirectory = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return versionDirectory != null;
+    }
+
+    public String key(byte[] content, int length) {
+        MessageDigest digest = sha256();
+        digest.update(content, 0, length);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    public Entry load(String key) {
+        Path file = versionDirectory.resolve(key + ".json");
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            JsonNode root = jsonMapper.readTree(file.toFile());
+            JsonNode frontmatter = root.get("frontmatter");
+            JsonNode html = root.get("html");
+            return new Entry(frontmatter == null || frontmatter.isNull() ? null : frontmatter,
+                    root.get("contentStart").asInt(), html == null || html.isNull() ? null : html.asText());
+        } catch (Exception e) {
+            System.err.println("Ignoring unreadable step parse cache entry " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    public void store(String key, Entry entry) {
+        Path file = versionDirectory.resolve(key + ".json");
+        try {
+            ObjectNode root = jsonMapper.createObjectNode();
+            root.set("frontmatter", entry.frontmatter() == null ? NullNode.getInstance() : entry.frontmatter());
+            root.put("contentStart", entry.contentStart());
+            root.put("html", entry.html());
+
+            Path tmp = Files.createTempFile(versionDirectory, key, ".tmp");
+            jsonMapper.writeValue(tmp.toFile(), root);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Could not write step parse cache entry " + file + ": " + e.getMessage());
+        }
+    }
+
+    private void pruneStaleGenerations(String version) throws IOException {
+        try (DirectoryStream<Path> generations = Files.newDirectoryStream(directory, Files::isDirectory)) {
+            for (Path generation : generations) {
+                String name = generation.getFileName().toString();
+                if (GENERATION.matcher(name).matches() && !name.equals(version)) {
+                    deleteRecursively(generation);
+                }
+            }
+        }
+    }
+
+    private static void deleteRecursively(Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * A cached parse: the validated frontmatter ({@code null} when the step has none), the byte
+     * offset at which the step content starts and the rendered content ({@code null} if unknown).
+     */
+    public record Entry(JsonNode frontmatter, int contentStart, String html) {
+    }
+}
@@ -0,0 +1,30 @@
+package com.snowfort.turtorial.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/** A catalog load parses every step, so only slow parses are recorded. */
+@Name("com.snowfort.turtorial.StepParse")
+@Label("Step Parse")
+@Description("Parsing and rendering of one step file")
+@Category({ "Turtorial", "Lessons" })
+@Threshold("1 ms")
+@StackTrace(false)
+class StepParseEvent extends Event {
+
+    @Label("File")
+    String filename;
+
+    @Label("Size")
+    @DataAmount
+    long bytes;
+
+    @Label("Parse Cache Hit")
+    boolean cacheHit;
+}
@@ -0,0 +1,130 @@
+package com.snowfort.turtorial.terminal;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Output of one broadcast PTY, kept in a ring buffer that any number of viewers read from.
+ * <p>
+ * The broadcaster copies each chunk into the ring once, whatever the number of viewers. Every viewer
+ * keeps its own cursor into the stream; one that falls more than a ring's length behind continues
+ * from the oldest retained byte, so a slow viewer never holds up the broadcaster or anyone else.
+ * Positions are absolute byte counts since the broadcast started.
+ * <p>
+ * Viewers copy without a lock, validating afterwards like a seqlock; the lock is only used to
+ * wake viewers that wait for more output.
+ */
+final class Broadcast {
+
+    private final String channel;
+    private final byte[] ring;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition published = lock.newCondition();
+    /** End of the data readers may use. */
+    private volatile long head;
+    /** End of the data being written; bytes up to a ring's length before it may be overwritten. */
+    private volatile long reserved;
+    private volatile boolean closed;
+
+    Broadcast(String channel, int capacity) {
+        this.channel = channel;
+        this.ring = new byte[capacity];
+    }
+
+    String channel() {
+        return channel;
+    }
+
+    /** Called from the broadcaster's PTY thread only. */
+    void publish(byte[] data, int length) {
+        // Of a chunk larger than the ring, only the end is kept
+        int offset = Math.max(0, length - ring.length);
+        int count = length - offset;
+        long end = head + length;
+        reserved = end;
+        // Readers check reserved after copying, so it must be visible before any byte is overwritten
+        VarHandle.storeStoreFence();
+        int position = (int) ((end - count) % ring.length);
+        int first = Math.min(count, ring.length - position);
+        System.arraycopy(data, offset, ring, position, first);
+        System.arraycopy(data, offset + first, ring, 0, count - first);
+        head = end;
+        signal();
+    }
+
+    void close() {
+        closed = true;
+        signal();
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    long head() {
+        return head;
+    }
+
+    /** Where a new viewer starts: as far back as the ring reaches, to rebuild the current screen. */
+    long oldest() {
+        return Math.max(0, head - ring.length);
+    }
+
+    /**
+     * Waits for data after {@code cursor} and copies up to {@code maxBytes} of it.
+     *
+     * @return the data, which starts later than {@code cursor} if that part was overwritten, or
+     *         {@code null} if nothing arrived within the timeout or the broadcast ended
+     */
+    Chunk read(long cursor, int maxBytes, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        lock.lock();
+        try {
+            while (head <= cursor && !closed) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return null;
+                }
+                published.awaitNanos(remaining);
+            }
+        } finally {
+            lock.unlock();
+        }
+        while (true) {
+            long end = head;
+            if (end <= cursor) {
+                return null;
+            }
+            long from = Math.max(cursor, end - ring.length);
+            int count = (int) Math.min(end - from, maxBytes);
+            byte[] data = new byte[count];
+            int position = (int) (from % ring.length);
+            int first = Math.min(count, ring.length - position);
+            System.arraycopy(ring, position, data, 0, first);
+            System.arraycopy(ring, 0, data, first, count - first);
+            // The broadcaster may have lapped us during the copy; if so, retry from the surviving data
+            VarHandle.acquireFence();
+            if (from >= reserved - ring.length) {
+                return new Chunk(from, data);
+            }
+            cursor = reserved - ring.length;
+        }
+    }
+
+    private void signal() {
+        lock.lock();
+        try {
+            published.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    record Chunk(long from, byte[] data) {
+        long end() {
+            return from + data.length;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.snowfort.turtorial.terminal;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Named broadcast channels. An instructor's {@code /term} session opens one by passing
+ * {@code broadcast=<channel>} and the configured {@code turtorial.broadcast.token}; learners watch it
+ * read-only on {@code /watch?channel=<channel>}. Without a token, broadcasting is disabled.
+ */
+@Component
+public class BroadcastHub {
+
+    private final Map<String, Broadcast> channels = new ConcurrentHashMap<>();
+    private final byte[] token;
+    private final int bufferBytes;
+
+    public BroadcastHub(@Value("${turtorial.broadcast.token:}") String token,
+            @Value("${turtorial.broadcast.buffer-bytes:1048576}") int bufferBytes) {
+        this.token = token == null || token.isBlank() ? null : token.getBytes(StandardCharsets.UTF_8);
+        this.bufferBytes = bufferBytes;
+    }
+
+    /**
+     * @return the new broadcast, or {@code null} if the token is wrong, the channel name is invalid or
+     *         the channel is already on air
+     */
+    Broadcast open(String channel, String token) {
+        if (this.token == null || token == null || channel == null || !channel.matches("[A-Za-z0-9-]{1,64}")
+                || !MessageDigest.isEqual(this.token, token.getBytes(StandardCharsets.UTF_8))) {
+            return null;
+        }
+        Broadcast broadcast = new Broadcast(channel, bufferBytes);
+        return channels.putIfAbsent(channel, broadcast) == null ? broadcast : null;
+    }
+
+    Broadcast find(String channel) {
+        return channel == null ? null : channels.get(channel);
+    }
+
+    void close(Broadcast broadcast) {
+        channels.remove(broadcast.channel(), broadcast);
+        broadcast.close();
+    }
+}
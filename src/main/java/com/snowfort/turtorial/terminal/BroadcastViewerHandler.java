@@ -0,0 +1,85 @@
+package com.snowfort.turtorial.terminal;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.AbstractWebSocketHandler;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-only viewers of a {@link Broadcast}: {@code /watch?channel=<channel>}.
+ * <p>
+ * Each viewer runs on its own virtual thread with its own cursor, so a blocking send to a slow
+ * client only delays that client. Output is sent as binary frames because a chunk can end in the
+ * middle of a UTF-8 sequence; the terminal decodes across frames.
+ */
+@Component
+public class BroadcastViewerHandler extends AbstractWebSocketHandler {
+
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(BroadcastViewerHandler.class);
+
+    private static final int MAX_FRAME_BYTES = 64 * 1024;
+
+    private final BroadcastHub hub;
+    private final Map<String, Thread> viewers = new ConcurrentHashMap<>();
+
+    public BroadcastViewerHandler(BroadcastHub hub) {
+        this.hub = hub;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        String channel = UriComponentsBuilder.fromUri(session.getUri()).build().getQueryParams().getFirst("channel");
+        Broadcast broadcast = hub.find(channel);
+        if (broadcast == null) {
+            session.close(CloseStatus.NOT_ACCEPTABLE.withReason("No broadcast on this channel"));
+            return;
+        }
+        Thread viewer = Thread.ofVirtual().name("broadcast-viewer-" + session.getId())
+                .unstarted(() -> watch(session, broadcast));
+        viewers.put(session.getId(), viewer);
+        viewer.start();
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        Thread viewer = viewers.remove(session.getId());
+        if (viewer != null) {
+            viewer.interrupt();
+        }
+    }
+
+    private void watch(WebSocketSession session, Broadcast broadcast) {
+        long cursor = broadcast.oldest();
+        try {
+            while (session.isOpen()) {
+                Broadcast.Chunk chunk = broadcast.read(cursor, MAX_FRAME_BYTES, 1, TimeUnit.SECONDS);
+                if (chunk == null) {
+                    if (broadcast.isClosed()) {
+                        session.close(CloseStatus.GOING_AWAY.withReason("Broadcast ended"));
+                        return;
+                    }
+                    continue;
+                }
+                if (chunk.from() > cursor) {
+                    log.debug("Viewer {} of {} skipped {} bytes", session.getId(), broadcast.channel(),
+                            chunk.from() - cursor);
+                }
+                session.sendMessage(new BinaryMessage(chunk.data()));
+                cursor = chunk.end();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.debug("Viewer {} of {} disconnected: {}", session.getId(), broadcast.channel(), e.getMessage());
+        } finally {
+            viewers.remove(session.getId());
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.snowfort.turtorial.terminal;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A directory shared by several nodes through a common folder ({@code turtorial.cluster.directory}),
+ * e.g. a volume mounted into each container of a local multi-node setup. Each session is a file
+ * holding its owner's URL, and every change happens under a file lock, so nodes never both claim a
+ * session. Each node must set {@code turtorial.cluster.node-url} to the {@code ws://} or
+ * {@code wss://} base URL the others reach it at.
+ * <p>
+ * If the folder cannot be read or written, every node owns its own sessions, as on a single node.
+ */
+@Component
+@ConditionalOnExpression("!'${turtorial.cluster.directory:}'.isEmpty()")
+public class FileSessionDirectory implements SessionDirectory {
+
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(FileSessionDirectory.class);
+
+    static final String EXTENSION = ".owner";
+    private static final String LOCK_FILE = ".lock";
+
+    private final Path directory;
+    private final String node;
+
+    public FileSessionDirectory(@Value("${turtorial.cluster.directory}") String directory,
+            @Value("${turtorial.cluster.node-url:}") String node) throws IOException {
+        if (node == null || node.isBlank()) {
+            throw new IllegalStateException("turtorial.cluster.node-url is required with turtorial.cluster.directory");
+        }
+        this.directory = Files.createDirectories(Path.of(directory));
+        this.node = node;
+    }
+
+    @Override
+    public String node() {
+        return node;
+    }
+
+    @Override
+    public String claim(String sessionId) {
+        return locked(() -> {
+            String owner = owner(sessionId);
+            if (owner != null) {
+                return owner;
+            }
+            Files.writeString(file(sessionId), node, StandardCharsets.UTF_8);
+            return node;
+        }, node);
+    }
+
+    @Override
+    public boolean transfer(String sessionId, String from) {
+        return locked(() -> {
+            String owner = owner(sessionId);
+            if (owner != null && !owner.equals(from)) {
+                return false;
+            }
+            Files.writeString(file(sessionId), node, StandardCharsets.UTF_8);
+            return true;
+        }, false);
+    }
+
+    @Override
+    public void release(String sessionId) {
+        locked(() -> {
+            if (node.equals(owner(sessionId))) {
+                Files.delete(file(sessionId));
+            }
+            return null;
+        }, null);
+    }
+
+    private String owner(String sessionId) throws IOException {
+        Path file = file(sessionId);
+        return Files.exists(file) ? Files.readString(file, StandardCharsets.UTF_8) : null;
+    }
+
+    private Path file(String sessionId) {
+        return directory.resolve(sessionId + EXTENSION);
+    }
+
+    /** Runs {@code action} holding the directory lock, which is shared by all nodes. */
+    private synchronized <T> T locked(DirectoryAction<T> action, T fallback) {
+        // The file lock is held per JVM, so the monitor keeps this node's own threads apart
+        try (FileChannel channel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE); FileLock lock = channel.lock()) {
+            return action.run();
+        } catch (IOException e) {
+            log.warn("Session directory {} is unavailable: {}", directory, e.getMessage());
+            return fallback;
+        }
+    }
+
+    private interface DirectoryAction<T> {
+        T run() throws IOException;
+    }
+}
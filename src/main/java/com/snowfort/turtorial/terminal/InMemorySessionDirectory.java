@@ -0,0 +1,42 @@
+package com.snowfort.turtorial.terminal;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** The directory of a single node, which owns every session. */
+@Component
+@ConditionalOnExpression("'${turtorial.cluster.directory:}'.isEmpty()")
+public class InMemorySessionDirectory implements SessionDirectory {
+
+    private final Map<String, String> owners = new ConcurrentHashMap<>();
+    private final String node;
+
+    public InMemorySessionDirectory(@Value("${turtorial.cluster.node-url:local}") String node) {
+        this.node = node;
+    }
+
+    @Override
+    public String node() {
+        return node;
+    }
+
+    @Override
+    public String claim(String sessionId) {
+        String owner = owners.putIfAbsent(sessionId, node);
+        return owner == null ? node : owner;
+    }
+
+    @Override
+    public boolean transfer(String sessionId, String from) {
+        return owners.replace(sessionId, from, node);
+    }
+
+    @Override
+    public void release(String sessionId) {
+        owners.remove(sessionId, node);
+    }
+}
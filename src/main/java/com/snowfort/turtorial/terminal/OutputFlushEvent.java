@@ -0,0 +1,27 @@
+package com.snowfort.turtorial.terminal;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/** Recorded only for slow sends, since every chunk of PTY output is one flush. */
+@Name("com.snowfort.turtorial.OutputFlush")
+@Label("Terminal Output Flush")
+@Description("A chunk of PTY output sent to the WebSocket client")
+@Category({ "Turtorial", "Terminal" })
+@Threshold("5 ms")
+@StackTrace(false)
+class OutputFlushEvent extends Event {
+
+    @Label("Session Id")
+    String sessionId;
+
+    @Label("Bytes")
+    @DataAmount
+    int bytes;
+}
@@ -0,0 +1,25 @@
+package com.snowfort.turtorial.terminal;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.snowfort.turtorial.PtySpawn")
+@Label("PTY Spawn")
+@Description("Start of the shell process behind a terminal session")
+@Category({ "Turtorial", "Terminal" })
+@StackTrace(false)
+class PtySpawnEvent extends Event {
+
+    @Label("Session Id")
+    String sessionId;
+
+    @Label("Command")
+    String command;
+
+    @Label("Success")
+    boolean success;
+}
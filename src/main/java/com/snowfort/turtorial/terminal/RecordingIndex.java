@@ -0,0 +1,71 @@
+package com.snowfort.turtorial.terminal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Sparse time index of an asciicast recording, stored next to it as pairs of big-endian longs:
+ * event time in microseconds since the start of the file, and the byte offset of that event's
+ * line. The recorder adds an entry every few seconds or few hundred kilobytes of output.
+ */
+final class RecordingIndex {
+
+    private static final RecordingIndex EMPTY = new RecordingIndex(new long[0], new long[0]);
+
+    private final long[] micros;
+    private final long[] offsets;
+
+    private RecordingIndex(long[] micros, long[] offsets) {
+        this.micros = micros;
+        this.offsets = offsets;
+    }
+
+    static Path indexFile(Path recording) {
+        return recording.resolveSibling(recording.getFileName() + ".idx");
+    }
+
+    /**
+     * Loads the index of a recording. Entries past the end of the recording, which a session still
+     * being recorded can have, are left out; without an index every lookup returns 0.
+     */
+    static RecordingIndex load(Path recording) throws IOException {
+        Path file = indexFile(recording);
+        if (!Files.isRegularFile(file)) {
+            return EMPTY;
+        }
+        ByteBuffer entries = ByteBuffer.wrap(Files.readAllBytes(file));
+        long size = Files.size(recording);
+        int count = entries.remaining() / 16;
+        long[] micros = new long[count];
+        long[] offsets = new long[count];
+        int valid = 0;
+        for (int i = 0; i < count; i++) {
+            long time = entries.getLong();
+            long offset = entries.getLong();
+            if (offset < size) {
+                micros[valid] = time;
+                offsets[valid] = offset;
+                valid++;
+            }
+        }
+        return new RecordingIndex(Arrays.copyOf(micros, valid), Arrays.copyOf(offsets, valid));
+    }
+
+    /** @return the offset of the last indexed event at or before the given time, or 0 to read from the start */
+    long offsetBefore(long timeMicros) {
+        int found = Arrays.binarySearch(micros, timeMicros);
+        int entry = found >= 0 ? found : -found - 2;
+        // Equal times can repeat; take the first so no event at that time is skipped
+        while (entry > 0 && micros[entry - 1] == timeMicros) {
+            entry--;
+        }
+        return entry < 0 ? 0 : offsets[entry];
+    }
+
+    int size() {
+        return micros.length;
+    }
+}
@@ -0,0 +1,136 @@
+package com.snowfort.turtorial.terminal;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays a recording from {@link SessionRecorder} as terminal output:
+ * {@code /playback?name=<recording>&speed=<factor>&from=<seconds>}.
+ * <p>
+ * Playback starts at the last index entry before {@code from}. Output up to {@code from} is sent
+ * at once to rebuild the screen, and later output keeps its recorded timing divided by
+ * {@code speed}, with idle gaps shortened to {@link #MAX_IDLE_MILLIS}. Input events are skipped.
+ */
+@Component
+public class RecordingPlaybackHandler extends TextWebSocketHandler {
+
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(RecordingPlaybackHandler.class);
+
+    static final long MAX_IDLE_MILLIS = 2000;
+    private static final int MAX_CATCH_UP_CHARS = 32 * 1024;
+
+    private final SessionRecorder recorder;
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+    private final Map<String, Thread> players = new ConcurrentHashMap<>();
+
+    public RecordingPlaybackHandler(SessionRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        Map<String, String> params = UriComponentsBuilder.fromUri(session.getUri()).build().getQueryParams()
+                .toSingleValueMap();
+        Path file = recorder.find(params.get("name"));
+        if (file == null) {
+            session.close(CloseStatus.NOT_ACCEPTABLE.withReason("Unknown recording"));
+            return;
+        }
+        double speed = Math.clamp(parse(params.get("speed"), 1), 0.1, 100);
+        long fromMicros = (long) (Math.max(0, parse(params.get("from"), 0)) * 1_000_000);
+
+        Thread player = Thread.ofVirtual().name("playback-" + session.getId()).unstarted(() -> {
+            try {
+                play(session, file, speed, fromMicros);
+                session.close(CloseStatus.NORMAL);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                log.warn("Playback of {} stopped: {}", file.getFileName(), e.getMessage());
+            } finally {
+                players.remove(session.getId());
+            }
+        });
+        players.put(session.getId(), player);
+        player.start();
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        Thread player = players.remove(session.getId());
+        if (player != null) {
+            player.interrupt();
+        }
+    }
+
+    void play(WebSocketSession session, Path file, double speed, long fromMicros)
+            throws IOException, InterruptedException {
+        long offset = RecordingIndex.load(file).offsetBefore(fromMicros);
+        try (FileChannel channel = FileChannel.open(file);
+                BufferedReader reader = new BufferedReader(new InputStreamReader(
+                        Channels.newInputStream(channel.position(offset)), StandardCharsets.UTF_8), 64 * 1024)) {
+            StringBuilder catchUp = new StringBuilder();
+            long previousMicros = fromMicros;
+            String line;
+            while ((line = reader.readLine()) != null && session.isOpen()) {
+                // The header, when reading from the start
+                if (!line.startsWith("[")) {
+                    continue;
+                }
+                JsonNode event = jsonMapper.readTree(line);
+                if (!"o".equals(event.path(1).asText())) {
+                    continue;
+                }
+                long micros = (long) (event.path(0).asDouble() * 1_000_000);
+                String data = event.path(2).asText();
+                if (micros < fromMicros) {
+                    catchUp.append(data);
+                    if (catchUp.length() >= MAX_CATCH_UP_CHARS) {
+                        send(session, catchUp);
+                    }
+                    continue;
+                }
+                send(session, catchUp);
+                long delayMillis = Math.min(MAX_IDLE_MILLIS, (long) ((micros - previousMicros) / 1000 / speed));
+                if (delayMillis > 0) {
+                    TimeUnit.MILLISECONDS.sleep(delayMillis);
+                }
+                previousMicros = micros;
+                session.sendMessage(new TextMessage(data));
+            }
+            send(session, catchUp);
+        }
+    }
+
+    private static void send(WebSocketSession session, StringBuilder pending) throws IOException {
+        if (!pending.isEmpty() && session.isOpen()) {
+            session.sendMessage(new TextMessage(pending.toString()));
+        }
+        pending.setLength(0);
+    }
+
+    private static double parse(String value, double fallback) {
+        try {
+            return value == null ? fallback : Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+}
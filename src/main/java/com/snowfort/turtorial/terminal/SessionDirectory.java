@@ -0,0 +1,25 @@
+package com.snowfort.turtorial.terminal;
+
+/**
+ * Which node owns each resumable terminal session. A node that receives a connection for a session
+ * owned elsewhere relays it to the owner, so a learner keeps their shell whichever node the load
+ * balancer picks. Nodes are identified by the WebSocket base URL other nodes reach them at.
+ */
+public interface SessionDirectory {
+
+    /** This node. */
+    String node();
+
+    /** Records this node as the session's owner unless it already has one. @return the owner */
+    String claim(String sessionId);
+
+    /**
+     * Moves the session to this node from {@code from}, e.g. when that node no longer answers.
+     *
+     * @return {@code false} if the session has meanwhile moved to another node
+     */
+    boolean transfer(String sessionId, String from);
+
+    /** Forgets the session if this node owns it. */
+    void release(String sessionId);
+}
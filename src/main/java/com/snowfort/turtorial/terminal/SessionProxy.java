@@ -0,0 +1,173 @@
+package com.snowfort.turtorial.terminal;
+
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Relays a browser's terminal connection to the node that owns its shell. Frames go through
+ * unchanged in both directions, so the browser cannot tell which node serves it.
+ * <p>
+ * Connecting to the owner and sending to it never block the browser connection's thread: frames
+ * are chained onto the pending connection, and each is sent once the one before it has been.
+ */
+final class SessionProxy implements WebSocket.Listener {
+
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(SessionProxy.class);
+
+    /**
+     * Carries {@code turtorial.cluster.secret} on relayed connections, which the owner then serves
+     * itself even if the directory disagrees. Browsers cannot set headers on a WebSocket handshake.
+     */
+    static final String CLUSTER_SECRET_HEADER = "X-Turtorial-Cluster-Secret";
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    /** Frames the browser may get ahead of the owner by, e.g. while the relay is still opening. */
+    private static final int MAX_QUEUED_FRAMES = 256;
+    private static final HttpClient CLIENT = HttpClient.newBuilder().connectTimeout(CONNECT_TIMEOUT).build();
+
+    private final WebSocketSession browser;
+    private final StringBuilder text = new StringBuilder();
+    private final CompletableFuture<WebSocket> opened = new CompletableFuture<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    /** Completes once the last frame handed to the relay has been sent to the owner. */
+    private CompletableFuture<WebSocket> tail = opened;
+
+    private SessionProxy(WebSocketSession browser) {
+        this.browser = browser;
+    }
+
+    /**
+     * Starts connecting to the owner and returns without waiting for it; see {@link #opened()}.
+     *
+     * @param clusterSecret sent to the owner to mark the connection as relayed, unless {@code null}
+     * @return the relay, or {@code null} if the owner's URL is not usable
+     */
+    static SessionProxy connect(String ownerUrl, String sessionId, String clusterSecret, WebSocketSession browser) {
+        SessionProxy proxy = new SessionProxy(browser);
+        try {
+            URI uri = URI.create(ownerUrl + "/term?session=" + URLEncoder.encode(sessionId, StandardCharsets.UTF_8));
+            WebSocket.Builder builder = CLIENT.newWebSocketBuilder().connectTimeout(CONNECT_TIMEOUT);
+            if (clusterSecret != null) {
+                builder.header(CLUSTER_SECRET_HEADER, clusterSecret);
+            }
+            builder.buildAsync(uri, proxy).whenComplete((owner, e) -> {
+                if (e != null) {
+                    proxy.opened.completeExceptionally(e);
+                } else {
+                    proxy.opened.complete(owner);
+                }
+            });
+            return proxy;
+        } catch (IllegalArgumentException e) {
+            log.warn("Cannot relay session {} to {}: {}", sessionId, ownerUrl, e.getMessage());
+            return null;
+        }
+    }
+
+    /** Completes once the owner accepts the relay, or exceptionally if it cannot be reached in time. */
+    CompletableFuture<WebSocket> opened() {
+        return opened;
+    }
+
+    /** Called from the browser connection's thread; the frame is sent once the relay is open. */
+    void sendText(String data) throws IOException {
+        send(owner -> owner.sendText(data, true));
+    }
+
+    void sendBinary(ByteBuffer data) throws IOException {
+        // Copied, as the container may reuse the buffer once the handler returns
+        ByteBuffer copy = ByteBuffer.allocate(data.remaining()).put(data).flip();
+        send(owner -> owner.sendBinary(copy, true));
+    }
+
+    synchronized void close() {
+        tail = tail.thenCompose(owner -> owner.sendClose(WebSocket.NORMAL_CLOSURE, ""));
+    }
+
+    private synchronized void send(Function<WebSocket, CompletableFuture<WebSocket>> frame) throws IOException {
+        if (queued.incrementAndGet() > MAX_QUEUED_FRAMES) {
+            queued.decrementAndGet();
+            throw new IOException("The owning node is not keeping up with the relay");
+        }
+        tail = tail.thenCompose(frame).whenComplete((owner, e) -> {
+            queued.decrementAndGet();
+            if (e != null && !opened.isCompletedExceptionally()) {
+                // The relay was open, so the owner is gone; without a relay the handler takes over
+                log.warn("Relay of {} failed: {}", browser.getId(), e.getMessage());
+                closeBrowser(CloseStatus.GOING_AWAY);
+            }
+        });
+    }
+
+    @Override
+    public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+        text.append(data);
+        if (last) {
+            relay(new TextMessage(text.toString()));
+            text.setLength(0);
+        }
+        webSocket.request(1);
+        return null;
+    }
+
+    @Override
+    public CompletionStage<?> onBinary(WebSocket webSocket, ByteBuffer data, boolean last) {
+        // The terminal decodes output across frames, so partial frames can be relayed as they are
+        byte[] bytes = new byte[data.remaining()];
+        data.get(bytes);
+        relay(new BinaryMessage(bytes));
+        webSocket.request(1);
+        return null;
+    }
+
+    @Override
+    public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+        // These codes only describe how a connection ended, and cannot be sent in a close frame
+        if (statusCode == CloseStatus.NO_STATUS_CODE.getCode() || statusCode == CloseStatus.NO_CLOSE_FRAME.getCode()
+                || statusCode == CloseStatus.TLS_HANDSHAKE_FAILURE.getCode()) {
+            closeBrowser(CloseStatus.GOING_AWAY);
+        } else {
+            // Passed on as it is, e.g. so the browser learns that the owner refused its session token
+            closeBrowser(new CloseStatus(statusCode, reason.isEmpty() ? null : reason));
+        }
+        return null;
+    }
+
+    @Override
+    public void onError(WebSocket webSocket, Throwable error) {
+        log.warn("Relay of {} failed: {}", browser.getId(), error.getMessage());
+        closeBrowser(CloseStatus.GOING_AWAY);
+    }
+
+    private void relay(WebSocketMessage<?> message) {
+        try {
+            browser.sendMessage(message);
+        } catch (IOException e) {
+            // The browser connection is closing, and closes the relay once it has
+            log.debug("Could not relay to {}: {}", browser.getId(), e.getMessage());
+        }
+    }
+
+    private void closeBrowser(CloseStatus status) {
+        try {
+            browser.close(status);
+        } catch (IOException e) {
+            log.debug("Could not close {}: {}", browser.getId(), e.getMessage());
+        }
+    }
+}
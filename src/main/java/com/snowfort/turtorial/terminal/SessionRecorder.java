@@ -0,0 +1,355 @@
+package com.snowfort.turtorial.terminal;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Records terminal sessions as asciicast v2 files when {@code turtorial.recording.directory} is set.
+ * <p>
+ * The PTY and WebSocket threads only timestamp each chunk and append it to the session's lock-free
+ * queue. A single writer thread drains all queues every {@code drain-interval-ms}, encodes the events
+ * and writes them through a large buffer. Files are rotated at {@code max-file-bytes}, and once the
+ * directory holds more than {@code max-bytes} of recordings the oldest finished ones are deleted;
+ * if that is not enough, new events are dropped until space frees up.
+ * <p>
+ * Next to each file, a sparse {@link RecordingIndex} maps event times to byte offsets, so playback
+ * can start anywhere in a long recording with one positioned read.
+ */
+@Component
+public class SessionRecorder {
+
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(SessionRecorder.class);
+
+    static final String EXTENSION = ".cast";
+    private static final int WRITE_BUFFER_BYTES = 64 * 1024;
+    private static final int MAX_PENDING_EVENTS = 16 * 1024;
+    private static final long INDEX_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final long INDEX_INTERVAL_BYTES = 256 * 1024;
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")
+            .withZone(ZoneOffset.UTC);
+
+    private final Path directory;
+    private final long maxBytes;
+    private final long maxFileBytes;
+    private final long drainIntervalNanos;
+    private final Map<String, SessionRecording> active = new ConcurrentHashMap<>();
+    private final AtomicLong dropped = new AtomicLong();
+    private Thread writer;
+    private volatile boolean running;
+    private long diskBytes;
+    private boolean budgetExhausted;
+
+    public SessionRecorder(@Value("${turtorial.recording.directory:}") String directory,
+            @Value("${turtorial.recording.max-bytes:1073741824}") long maxBytes,
+            @Value("${turtorial.recording.max-file-bytes:67108864}") long maxFileBytes,
+            @Value("${turtorial.recording.drain-interval-ms:250}") long drainIntervalMillis) {
+        this.directory = directory == null || directory.isBlank() ? null : Path.of(directory);
+        this.maxBytes = maxBytes;
+        this.maxFileBytes = maxFileBytes;
+        this.drainIntervalNanos = TimeUnit.MILLISECONDS.toNanos(drainIntervalMillis);
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (directory == null) {
+            return;
+        }
+        Files.createDirectories(directory);
+        try (Stream<Path> files = recordings()) {
+            diskBytes = files.mapToLong(SessionRecorder::size).sum();
+        }
+        running = true;
+        writer = Thread.ofPlatform().name("terminal-recorder").daemon().start(this::writeLoop);
+        log.info("Recording terminal sessions to {} ({} MB in use)", directory, diskBytes / (1024 * 1024));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (writer != null) {
+            running = false;
+            LockSupport.unpark(writer);
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    /** @return the new recording, or {@code null} if recording is disabled */
+    public SessionRecording start(String sessionId, int width, int height) {
+        if (!running) {
+            return null;
+        }
+        String base = FILE_TIMESTAMP.format(Instant.now()) + "-" + sessionId.replaceAll("[^A-Za-z0-9-]", "");
+        // A resumable session id can start several shells within a second; rotated parts use "-<n>"
+        for (int attempt = 1; ; attempt++) {
+            String name = attempt == 1 ? base : base + "-r" + attempt;
+            if (Files.exists(directory.resolve(name + EXTENSION))) {
+                continue;
+            }
+            SessionRecording recording = new SessionRecording(name, width, height);
+            if (active.putIfAbsent(name, recording) == null) {
+                return recording;
+            }
+        }
+    }
+
+    /** @return the recording file with this name, or {@code null} if it does not exist */
+    public Path find(String name) {
+        if (directory == null || name == null || !name.matches("[A-Za-z0-9-]+")) {
+            return null;
+        }
+        Path file = directory.resolve(name + EXTENSION);
+        return Files.isRegularFile(file) ? file : null;
+    }
+
+    long droppedEvents() {
+        return dropped.get();
+    }
+
+    private void writeLoop() {
+        while (running) {
+            LockSupport.parkNanos(drainIntervalNanos);
+            drainAll();
+        }
+        drainAll();
+        for (SessionRecording recording : active.values()) {
+            recording.finish();
+        }
+        active.clear();
+    }
+
+    private void drainAll() {
+        for (SessionRecording recording : active.values()) {
+            // Read the flag first, so events queued before close() are still drained below
+            boolean closed = recording.closed;
+            try {
+                recording.drain();
+            } catch (IOException e) {
+                log.warn("Stopping recording {}: {}", recording.name, e.getMessage());
+                closed = true;
+            }
+            if (closed) {
+                recording.finish();
+                active.remove(recording.name);
+            }
+        }
+    }
+
+    /** Deletes the oldest finished recordings until the directory fits the budget again. */
+    private boolean makeRoom(long bytes) {
+        if (diskBytes + bytes <= maxBytes) {
+            return true;
+        }
+        // Nothing to delete until another recording finishes, so skip rescanning the directory per event
+        if (budgetExhausted) {
+            return false;
+        }
+        List<Path> candidates;
+        try (Stream<Path> files = recordings()) {
+            candidates = files.filter(file -> active.values().stream().noneMatch(r -> file.equals(r.file)))
+                    .sorted(Comparator.comparingLong(SessionRecorder::lastModified))
+                    .toList();
+        }
+        for (Path file : candidates) {
+            long size = size(file);
+            try {
+                Files.deleteIfExists(file);
+                Files.deleteIfExists(RecordingIndex.indexFile(file));
+                diskBytes -= size;
+                log.info("Deleted recording {} to stay within the {} MB budget", file.getFileName(),
+                        maxBytes / (1024 * 1024));
+            } catch (IOException e) {
+                log.warn("Could not delete recording {}: {}", file, e.getMessage());
+            }
+            if (diskBytes + bytes <= maxBytes) {
+                return true;
+            }
+        }
+        budgetExhausted = true;
+        return false;
+    }
+
+    private Stream<Path> recordings() {
+        try {
+            return Files.list(directory).filter(file -> file.getFileName().toString().endsWith(EXTENSION));
+        } catch (IOException e) {
+            log.warn("Could not list recordings in {}: {}", directory, e.getMessage());
+            return Stream.empty();
+        }
+    }
+
+    private static long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /** One session's recording. The record methods are safe to call from any thread. */
+    public final class SessionRecording {
+
+        private final String name;
+        private final int width;
+        private final int height;
+        private final Queue<Event> events = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final long startNanos = System.nanoTime();
+        private final long startEpochSecond = Instant.now().getEpochSecond();
+        private final StringBuilder line = new StringBuilder();
+        private volatile boolean closed;
+        private Path file;
+        private OutputStream out;
+        private DataOutputStream index;
+        private long fileBytes;
+        private long indexedNanos;
+        private long indexedOffset;
+        private long fileStartNanos;
+        private int part;
+
+        private SessionRecording(String name, int width, int height) {
+            this.name = name;
+            this.width = width;
+            this.height = height;
+        }
+
+        public void output(String data) {
+            record('o', data);
+        }
+
+        public void input(String data) {
+            record('i', data);
+        }
+
+        /** Stops recording; the writer finishes the file with whatever was queued before. */
+        public void close() {
+            closed = true;
+        }
+
+        private void record(char type, String data) {
+            if (closed) {
+                return;
+            }
+            // A stalled writer must not hold on to unbounded memory
+            if (pending.incrementAndGet() > MAX_PENDING_EVENTS) {
+                pending.decrementAndGet();
+                dropped.incrementAndGet();
+                return;
+            }
+            events.add(new Event(System.nanoTime(), type, data));
+        }
+
+        private void drain() throws IOException {
+            Event event;
+            while ((event = events.poll()) != null) {
+                pending.decrementAndGet();
+                if (out == null) {
+                    open(event.nanos());
+                }
+                line.setLength(0);
+                appendSeconds(line, event.nanos() - fileStartNanos);
+                line.append(", \"").append(event.type()).append("\", \"");
+                JsonStringEncoder.getInstance().quoteAsString(event.data(), line);
+                line.append("\"]\n");
+                byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+                if (!makeRoom(bytes.length)) {
+                    dropped.incrementAndGet();
+                    continue;
+                }
+                if (indexedOffset < 0 || event.nanos() - indexedNanos >= INDEX_INTERVAL_NANOS
+                        || fileBytes - indexedOffset >= INDEX_INTERVAL_BYTES) {
+                    index.writeLong((event.nanos() - fileStartNanos) / 1000);
+                    index.writeLong(fileBytes);
+                    indexedNanos = event.nanos();
+                    indexedOffset = fileBytes;
+                }
+                out.write(bytes);
+                fileBytes += bytes.length;
+                diskBytes += bytes.length;
+                if (fileBytes >= maxFileBytes) {
+                    finish();
+                }
+            }
+        }
+
+        private void open(long firstEventNanos) throws IOException {
+            part++;
+            file = directory.resolve(part == 1 ? name + EXTENSION : name + "-" + part + EXTENSION);
+            out = new BufferedOutputStream(Files.newOutputStream(file, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.WRITE), WRITE_BUFFER_BYTES);
+            index = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(
+                    RecordingIndex.indexFile(file), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE)));
+            indexedOffset = -1;
+            // Each part starts its own clock, so every file plays back on its own
+            fileStartNanos = part == 1 ? startNanos : firstEventNanos;
+            long timestamp = part == 1 ? startEpochSecond : Instant.now().getEpochSecond();
+            byte[] header = ("{\"version\": 2, \"width\": " + width + ", \"height\": " + height + ", \"timestamp\": "
+                    + timestamp + ", \"env\": {\"TERM\": \"xterm\", \"SHELL\": \"/bin/bash\"}}\n")
+                    .getBytes(StandardCharsets.UTF_8);
+            out.write(header);
+            fileBytes = header.length;
+            diskBytes += header.length;
+        }
+
+        /** Closes the current file; the next event, if any, starts a new part. */
+        private void finish() {
+            if (out == null) {
+                return;
+            }
+            // The recording is flushed first, so the index never points past the end of the file
+            try {
+                out.close();
+                index.close();
+            } catch (IOException e) {
+                log.warn("Could not close recording {}: {}", file, e.getMessage());
+            }
+            out = null;
+            index = null;
+            file = null;
+            budgetExhausted = false;
+        }
+    }
+
+    private static void appendSeconds(StringBuilder out, long nanos) {
+        long micros = Math.max(0, nanos) / 1000;
+        String fraction = Long.toString(micros % 1_000_000);
+        out.append('[').append(micros / 1_000_000).append('.');
+        out.append("000000", fraction.length(), 6).append(fraction);
+    }
+
+    private record Event(long nanos, char type, String data) {
+    }
+}
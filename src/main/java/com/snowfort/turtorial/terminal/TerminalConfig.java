@@ -10,14 +10,23 @@ import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry
 public class TerminalConfig implements WebSocketConfigurer {
 
     private final TerminalSocketHandler terminalSocketHandler;
+    private final RecordingPlaybackHandler recordingPlaybackHandler;
+    private final BroadcastViewerHandler broadcastViewerHandler;
 
-    public TerminalConfig(TerminalSocketHandler terminalSocketHandler) {
+    public TerminalConfig(TerminalSocketHandler terminalSocketHandler,
+            RecordingPlaybackHandler recordingPlaybackHandler, BroadcastViewerHandler broadcastViewerHandler) {
         this.terminalSocketHandler = terminalSocketHandler;
+        this.recordingPlaybackHandler = recordingPlaybackHandler;
+        this.broadcastViewerHandler = broadcastViewerHandler;
     }
 
     @Override
     public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
         registry.addHandler(terminalSocketHandler, "/term")
                 .setAllowedOrigins("*");
+        registry.addHandler(recordingPlaybackHandler, "/playback")
+                .setAllowedOrigins("*");
+        registry.addHandler(broadcastViewerHandler, "/watch")
+                .setAllowedOrigins("*");
     }
 }
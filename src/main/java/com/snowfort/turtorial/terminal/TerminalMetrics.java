@@ -0,0 +1,91 @@
+package com.snowfort.turtorial.terminal;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Terminal latency as Micrometer histograms, exposed through {@code /actuator/metrics} and
+ * {@code /actuator/prometheus}:
+ * <ul>
+ * <li>{@code turtorial.terminal.round.trip}: browser to server and back, measured by the client with
+ * ping/pong control messages and reported in its next ping;</li>
+ * <li>{@code turtorial.terminal.echo}: from receiving input to the PTY's next output, measured on
+ * the server;</li>
+ * <li>{@code turtorial.terminal.sessions}: open terminal sessions.</li>
+ * </ul>
+ */
+@Component
+public class TerminalMetrics {
+
+    static final int MAX_CONTROL_BYTES = 256;
+    private static final long MAX_ROUND_TRIP_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final Timer roundTrip;
+    private final Timer echo;
+    private final AtomicInteger sessions = new AtomicInteger();
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+
+    public TerminalMetrics(MeterRegistry registry) {
+        this.roundTrip = Timer.builder("turtorial.terminal.round.trip")
+                .description("Round trip between the browser terminal and the server")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(registry);
+        this.echo = Timer.builder("turtorial.terminal.echo")
+                .description("Time from terminal input to the next PTY output")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(registry);
+        Gauge.builder("turtorial.terminal.sessions", sessions, AtomicInteger::get)
+                .description("Open terminal sessions")
+                .register(registry);
+    }
+
+    void sessionOpened() {
+        sessions.incrementAndGet();
+    }
+
+    void sessionClosed() {
+        sessions.decrementAndGet();
+    }
+
+    void recordEcho(long nanos) {
+        echo.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Handles a control message from the client: {@code {"type":"ping","id":7,"rtt":23}}, where
+     * {@code rtt} is the round trip in milliseconds of the previous ping, if any.
+     *
+     * @return the reply to send, or {@code null} for anything that is not a well-formed ping
+     */
+    String control(byte[] payload) {
+        if (payload.length > MAX_CONTROL_BYTES) {
+            return null;
+        }
+        try {
+            JsonNode message = jsonMapper.readTree(payload);
+            if (message == null || !"ping".equals(message.path("type").asText()) || !message.path("id").isIntegralNumber()) {
+                return null;
+            }
+            JsonNode rtt = message.path("rtt");
+            if (rtt.isNumber() && rtt.asDouble() >= 0 && rtt.asDouble() <= MAX_ROUND_TRIP_MILLIS) {
+                roundTrip.record((long) (rtt.asDouble() * 1_000_000), TimeUnit.NANOSECONDS);
+            }
+            return "{\"type\":\"pong\",\"id\":" + message.path("id").asLong() + "}";
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.snowfort.turtorial.terminal;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.snowfort.turtorial.TerminalSession")
+@Label("Terminal Session")
+@Description("A terminal session, from starting its shell to its end, across reconnections")
+@Category({ "Turtorial", "Terminal" })
+@StackTrace(false)
+class TerminalSessionEvent extends Event {
+
+    @Label("Session Id")
+    String sessionId;
+
+    @Label("Bytes Sent")
+    @DataAmount
+    long bytesOut;
+
+    @Label("Bytes Received")
+    @DataAmount
+    long bytesIn;
+
+    @Label("Close Code")
+    int closeCode;
+}
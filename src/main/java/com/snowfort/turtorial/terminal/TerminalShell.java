@@ -0,0 +1,207 @@
+package com.snowfort.turtorial.terminal;
+
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A shell and the connection currently attached to it, if any.
+ * <p>
+ * A resumable shell outlives its connection: it keeps its recent output in a ring and replays it to
+ * the next connection that attaches, which rebuilds the screen. Other shells end with their
+ * connection. Only a connection that presents the shell's {@link #token} may resume it; the session
+ * id alone travels in URLs and ends up in logs.
+ * <p>
+ * The monitor only guards the shell's state; messages are sent after releasing it, so a slow
+ * connection never holds up the reader thread's bookkeeping or another connection attaching. A
+ * connection receives live output only once its replay has caught up with the ring, which keeps
+ * replayed and live output in order.
+ */
+final class TerminalShell {
+
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(TerminalShell.class);
+
+    private static final int REPLAY_CHUNK_BYTES = 32 * 1024;
+    private static final SecureRandom TOKENS = new SecureRandom();
+
+    final String id;
+    /** Issued to the connection that started a resumable shell, and {@code null} for other shells. */
+    final String token;
+    final Process process;
+    final ExecutorService reader;
+    final SessionRecorder.SessionRecording recording;
+    final TerminalSessionEvent event = new TerminalSessionEvent();
+    final AtomicLong bytesOut = new AtomicLong();
+    final AtomicLong bytesIn = new AtomicLong();
+    /** {@link System#nanoTime()} of the oldest input still waiting for output, or 0. */
+    final AtomicLong pendingInput = new AtomicLong();
+    /** Turns output into text for the recording; only used by the reader thread. */
+    final Utf8StreamDecoder outputText = new Utf8StreamDecoder();
+    /** Set once the shell is registered under its id, and cleared by the first call to end it. */
+    final AtomicBoolean running = new AtomicBoolean();
+    /** Set when a new shell takes over the id after this one ended, and so keeps its directory entry. */
+    volatile boolean replaced;
+    /** Opened once the shell is registered, so a shell that loses a spawn race never takes the channel. */
+    volatile Broadcast broadcast;
+    private final Broadcast history;
+    private WebSocketSession connection;
+    /** Whether output goes straight to the connection, i.e. its replay has caught up. */
+    private boolean live;
+    private long attachments;
+    private int closeCode = CloseStatus.NORMAL.getCode();
+    private boolean ended;
+
+    TerminalShell(String id, Process process, ExecutorService reader, SessionRecorder.SessionRecording recording,
+            int historyBytes) {
+        this.id = id;
+        this.process = process;
+        this.reader = reader;
+        this.recording = recording;
+        this.history = historyBytes > 0 ? new Broadcast(id, historyBytes) : null;
+        this.token = history != null ? newToken() : null;
+    }
+
+    boolean resumable() {
+        return history != null;
+    }
+
+    /** Whether {@code presented} is this resumable shell's token. */
+    boolean owns(String presented) {
+        return token != null && presented != null && MessageDigest.isEqual(
+                token.getBytes(StandardCharsets.UTF_8), presented.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Called from the reader thread for each chunk of PTY output. */
+    void output(byte[] buffer, int length) {
+        WebSocketSession target;
+        synchronized (this) {
+            if (history != null) {
+                history.publish(buffer, length);
+            }
+            target = live ? connection : null;
+        }
+        // Copied, as the decorator may queue the message while another send is in progress
+        send(target, Arrays.copyOf(buffer, length));
+    }
+
+    /**
+     * Attaches a connection in place of the current one, which is closed, and replays the retained
+     * output to it.
+     *
+     * @return {@code false} if the shell has ended
+     */
+    boolean attach(WebSocketSession sender) {
+        WebSocketSession replaced;
+        synchronized (this) {
+            if (ended) {
+                return false;
+            }
+            replaced = connection;
+            connection = sender;
+            live = history == null;
+            attachments++;
+        }
+        if (replaced != null) {
+            try {
+                replaced.close(CloseStatus.NORMAL.withReason("Session opened elsewhere"));
+            } catch (IOException e) {
+                log.debug("Could not close replaced connection of shell {}: {}", id, e.getMessage());
+            }
+        }
+        long cursor = history == null ? 0 : history.oldest();
+        while (history != null) {
+            Broadcast.Chunk chunk;
+            synchronized (this) {
+                if (connection != sender) {
+                    // Detached, replaced or ended while replaying
+                    break;
+                }
+                chunk = readHistory(cursor);
+                if (chunk == null) {
+                    // Caught up; output published from now on is sent by the reader thread
+                    live = true;
+                    break;
+                }
+            }
+            send(sender, chunk.data());
+            cursor = chunk.end();
+        }
+        return true;
+    }
+
+    /**
+     * Detaches the connection, unless another one has replaced it.
+     *
+     * @return the attachment to pass to {@link #expire}, or -1 if the connection was not attached
+     */
+    synchronized long detach(String connectionId, int closeCode) {
+        if (connection == null || !connection.getId().equals(connectionId)) {
+            return -1;
+        }
+        connection = null;
+        live = false;
+        this.closeCode = closeCode;
+        return attachments;
+    }
+
+    /** Ends the shell if no connection has attached since {@code attachment} was detached. */
+    synchronized boolean expire(long attachment) {
+        if (ended || connection != null || attachments != attachment) {
+            return false;
+        }
+        ended = true;
+        return true;
+    }
+
+    /** Ends the shell, e.g. when it has exited. @return the connection that was attached, if any */
+    synchronized WebSocketSession end() {
+        ended = true;
+        WebSocketSession attached = connection;
+        connection = null;
+        live = false;
+        return attached;
+    }
+
+    synchronized int closeCode() {
+        return closeCode;
+    }
+
+    private Broadcast.Chunk readHistory(long cursor) {
+        try {
+            // Never waits, as the timeout is zero
+            return history.read(cursor, REPLAY_CHUNK_BYTES, 0, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private void send(WebSocketSession target, byte[] data) {
+        if (target == null) {
+            return;
+        }
+        try {
+            target.sendMessage(new BinaryMessage(data));
+        } catch (IOException e) {
+            // The connection is going away, and detaches once it has closed
+            log.debug("Could not send output of shell {}: {}", id, e.getMessage());
+        }
+    }
+
+    private static String newToken() {
+        byte[] bytes = new byte[16];
+        TOKENS.nextBytes(bytes);
+        return HexFormat.of().formatHex(bytes);
+    }
+}
@@ -1,37 +1,251 @@
 package com.snowfort.turtorial.terminal;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pty4j.PtyProcess;
 import com.pty4j.PtyProcessBuilder;
 import com.pty4j.WinSize;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
-import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.socket.handler.AbstractWebSocketHandler;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Runs a shell per terminal session. Text frames from the client are keystrokes and binary frames
+ * are JSON control messages (see {@link TerminalMetrics#control}); PTY output goes out as binary
+ * frames and control replies as text frames.
+ * <p>
+ * A client that passes {@code session=<id>} can resume its shell: the shell keeps running for
+ * {@code turtorial.terminal.detach-timeout-ms} after the connection drops, and the next connection
+ * with the same id and the shell's token gets the recent output replayed. The token is issued in a
+ * {@code {"type":"session","token":"..."}} text frame when the shell starts, and presented in a
+ * {@code {"type":"resume","token":"..."}} control message as the first frame of a later connection,
+ * so it stays out of URLs and access logs. The {@link SessionDirectory} records which node
+ * owns each such session, and a connection that reaches another node is relayed to the owner. Nodes
+ * recognise each other's relayed connections by {@code turtorial.cluster.secret}.
+ */
 @Component
-public class TerminalSocketHandler extends TextWebSocketHandler {
+public class TerminalSocketHandler extends AbstractWebSocketHandler {
 
     private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(TerminalSocketHandler.class);
 
-    private final Map<String, PtyProcess> sessions = new ConcurrentHashMap<>();
-    private final Map<String, ExecutorService> sessionThreads = new ConcurrentHashMap<>();
+    private static final int SEND_TIME_LIMIT_MS = 30_000;
+    private static final int SEND_BUFFER_LIMIT = 4 * 1024 * 1024;
+    private static final String SESSION_ID_PATTERN = "[A-Za-z0-9-]{1,64}";
+    private static final long RESUME_TIMEOUT_MS = 10_000;
+
+    /** Shells by session id, which is the connection id for shells that cannot be resumed. */
+    private final Map<String, TerminalShell> shells = new ConcurrentHashMap<>();
+    /** Shells by the id of the connection attached to them. */
+    private final Map<String, TerminalShell> attached = new ConcurrentHashMap<>();
+    private final Map<String, SessionProxy> proxies = new ConcurrentHashMap<>();
+    private final Map<String, WebSocketSession> senders = new ConcurrentHashMap<>();
+    /** Connections to an existing shell that have yet to present its token, by connection id. */
+    private final Map<String, PendingResume> pending = new ConcurrentHashMap<>();
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+    private final ScheduledExecutorService expiries = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("terminal-expiry").daemon().factory());
+    private final SessionRecorder recorder;
+    private final BroadcastHub broadcastHub;
+    private final TerminalMetrics metrics;
+    private final SessionDirectory directory;
+    private final long detachTimeoutMillis;
+    private final int historyBytes;
+    private final String clusterSecret;
+
+    public TerminalSocketHandler(SessionRecorder recorder, BroadcastHub broadcastHub, TerminalMetrics metrics,
+            SessionDirectory directory,
+            @Value("${turtorial.terminal.detach-timeout-ms:60000}") long detachTimeoutMillis,
+            @Value("${turtorial.terminal.history-bytes:65536}") int historyBytes,
+            @Value("${turtorial.cluster.secret:}") String clusterSecret) {
+        this.recorder = recorder;
+        this.broadcastHub = broadcastHub;
+        this.metrics = metrics;
+        this.directory = directory;
+        this.detachTimeoutMillis = detachTimeoutMillis;
+        this.historyBytes = historyBytes;
+        this.clusterSecret = clusterSecret == null || clusterSecret.isBlank() ? null : clusterSecret;
+        if (this.clusterSecret == null && !(directory instanceof InMemorySessionDirectory)) {
+            log.warn("turtorial.cluster.secret is not set, so a connection relayed here is treated like a browser's "
+                    + "and may be relayed again");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        expiries.shutdownNow();
+        for (TerminalShell shell : List.copyOf(shells.values())) {
+            WebSocketSession connection = shell.end();
+            end(shell, CloseStatus.GOING_AWAY.getCode());
+            close(connection, CloseStatus.GOING_AWAY);
+        }
+    }
 
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
         log.info("WebSocket connection established: " + session.getId());
-        long start = System.nanoTime();
+        // Control replies are sent from the WebSocket thread while the PTY thread streams output
+        WebSocketSession sender = new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT_MS,
+                SEND_BUFFER_LIMIT);
+        senders.put(session.getId(), sender);
+
+        Map<String, String> params = UriComponentsBuilder.fromUri(session.getUri()).build().getQueryParams()
+                .toSingleValueMap();
+        String shellId = params.get("session");
+        boolean resumable = shellId != null && shellId.matches(SESSION_ID_PATTERN) && detachTimeoutMillis > 0;
+        if (!resumable) {
+            shellId = session.getId();
+        } else if (!claim(session, sender, shellId, params)) {
+            return;
+        }
+        open(session, sender, shellId, resumable, params, null);
+    }
 
+    /**
+     * Attaches a connection to its shell, starting the shell if there is none. A connection to an
+     * existing shell must present the shell's token: without one ({@code token} is {@code null}) it
+     * waits for a resume message, and with a token that does not match it is closed.
+     */
+    private void open(WebSocketSession session, WebSocketSession sender, String shellId, boolean resumable,
+            Map<String, String> params, String token) {
+        while (true) {
+            TerminalShell shell = shells.get(shellId);
+            TerminalShell started = null;
+            if (shell == null) {
+                started = spawn(shellId, resumable);
+                if (started == null) {
+                    close(sender, CloseStatus.SERVER_ERROR);
+                    return;
+                }
+                shell = register(started, session, params);
+            }
+            if (shell != started && !shell.owns(token)) {
+                if (token == null) {
+                    awaitResume(session.getId(), new PendingResume(shellId, params), sender);
+                } else {
+                    log.warn("Connection {} presented the wrong token for session {}", session.getId(), shellId);
+                    close(sender, CloseStatus.POLICY_VIOLATION.withReason("Not the owner of this session"));
+                }
+                return;
+            }
+            attached.put(session.getId(), shell);
+            if (shell.attach(sender)) {
+                if (shell != started) {
+                    log.info("Session {} resumed on connection {}", shellId, session.getId());
+                } else if (shell.token != null) {
+                    send(sender, "{\"type\":\"session\",\"token\":\"" + shell.token + "\"}");
+                }
+                return;
+            }
+            // It ended meanwhile; take it out of the map so the next round starts a new shell
+            attached.remove(session.getId());
+            shell.replaced = true;
+            shells.remove(shellId, shell);
+        }
+    }
+
+    /** Gives a connection to an existing shell {@link #RESUME_TIMEOUT_MS} to present the shell's token. */
+    private void awaitResume(String connectionId, PendingResume resume, WebSocketSession sender) {
+        pending.put(connectionId, resume);
+        expiries.schedule(() -> {
+            if (pending.remove(connectionId, resume)) {
+                close(sender, CloseStatus.POLICY_VIOLATION.withReason("No session token"));
+            }
+        }, RESUME_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /** The token of a resume message, or an empty string, which no shell owns, for any other message. */
+    private String resumeToken(byte[] payload) {
+        if (payload.length > TerminalMetrics.MAX_CONTROL_BYTES) {
+            return "";
+        }
+        try {
+            JsonNode message = jsonMapper.readTree(payload);
+            if (message != null && "resume".equals(message.path("type").asText())) {
+                return message.path("token").asText();
+            }
+        } catch (IOException e) {
+            log.debug("Expected a resume message: {}", e.getMessage());
+        }
+        return "";
+    }
+
+    /**
+     * Makes sure this node owns a resumable session, or relays the connection to the node that does.
+     *
+     * @return {@code false} if the connection is relayed
+     */
+    private boolean claim(WebSocketSession session, WebSocketSession sender, String shellId,
+            Map<String, String> params) {
+        String owner = directory.claim(shellId);
+        if (owner.equals(directory.node())) {
+            return true;
+        }
+        if (!relayed(session)) {
+            SessionProxy proxy = SessionProxy.connect(owner, shellId, clusterSecret, sender);
+            if (proxy != null) {
+                proxies.put(session.getId(), proxy);
+                log.info("Relaying session {} to {}", shellId, owner);
+                // Frames from the browser queue up in the relay meanwhile
+                proxy.opened().whenComplete((relay, e) -> {
+                    if (e != null && proxies.remove(session.getId(), proxy)) {
+                        log.warn("Could not reach {}, the owner of session {}: {}", owner, shellId, e.getMessage());
+                        takeOver(shellId, owner);
+                        openLate(session, sender, shellId, params);
+                    }
+                });
+                return false;
+            }
+        }
+        // Relayed here by a node that still saw this one as the owner, or the owner's URL is unusable
+        takeOver(shellId, owner);
+        return true;
+    }
+
+    private void takeOver(String shellId, String owner) {
+        if (!directory.transfer(shellId, owner)) {
+            log.warn("Session {} moved while taking it over from {}", shellId, owner);
+        }
+    }
+
+    /** Opens the shell of a connection whose relay failed, which may have closed in the meantime. */
+    private void openLate(WebSocketSession session, WebSocketSession sender, String shellId,
+            Map<String, String> params) {
+        open(session, sender, shellId, true, params, null);
+        if (!senders.containsKey(session.getId())) {
+            detach(session.getId(), CloseStatus.GOING_AWAY.getCode());
+            pending.remove(session.getId());
+        }
+    }
+
+    /** Whether another node relays this connection, which only nodes that know the cluster secret can claim. */
+    private boolean relayed(WebSocketSession session) {
+        String presented = session.getHandshakeHeaders().getFirst(SessionProxy.CLUSTER_SECRET_HEADER);
+        return clusterSecret != null && presented != null && MessageDigest.isEqual(
+                clusterSecret.getBytes(StandardCharsets.UTF_8), presented.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private TerminalShell spawn(String shellId, boolean resumable) {
+        long start = System.nanoTime();
         String[] cmd = { "/bin/bash", "-l" };
         Map<String, String> env = new HashMap<>(System.getenv());
         env.put("TERM", "xterm");
@@ -40,90 +254,285 @@ public class TerminalSocketHandler extends TextWebSocketHandler {
         String ptyLibPath = System.getProperty("user.home") + "/.pty4j";
         System.setProperty("pty4j.tmpdir", ptyLibPath);
 
+        PtySpawnEvent spawn = new PtySpawnEvent();
+        PtyProcess process;
         try {
-            log.info("Starting PTY process for session: " + session.getId());
-            PtyProcess process = new PtyProcessBuilder(cmd)
+            log.info("Starting PTY process for session: " + shellId);
+            spawn.begin();
+            process = new PtyProcessBuilder(cmd)
                     .setEnvironment(env)
                     .start();
+            spawn.success = true;
+        } catch (Exception e) {
+            log.error("Failed to start PTY process within " + ((System.nanoTime() - start) / 1_000_000) + " ms", e);
+            return null;
+        } finally {
+            commit(spawn, shellId, cmd);
+        }
 
-            long ptyStartDuration = (System.nanoTime() - start) / 1_000_000;
-            log.info("PTY process started in {} ms for session: {}", ptyStartDuration, session.getId());
-
-            sessions.put(session.getId(), process);
+        long ptyStartDuration = (System.nanoTime() - start) / 1_000_000;
+        log.info("PTY process started in {} ms for session: {}", ptyStartDuration, shellId);
 
-            // Initial window size with retry logic to handle potential race condition
-            int retries = 3;
-            for (int i = 0; i < retries; i++) {
-                try {
-                    process.setWinSize(new WinSize(80, 24));
-                    if (i > 0) {
-                        log.info("Successfully set window size on attempt " + (i + 1));
-                    }
-                    break;
-                } catch (Exception e) {
-                    if (i == retries - 1) {
-                        log.warn("Failed to set window size after " + retries
-                                + " attempts. Terminal may have incorrect dimensions. Error: " + e.getMessage());
-                    } else {
-                        try {
-                            Thread.sleep(50);
-                        } catch (InterruptedException ie) {
-                            Thread.currentThread().interrupt();
-                            break;
-                        }
+        // Initial window size with retry logic to handle potential race condition
+        int retries = 3;
+        for (int i = 0; i < retries; i++) {
+            try {
+                process.setWinSize(new WinSize(80, 24));
+                if (i > 0) {
+                    log.info("Successfully set window size on attempt " + (i + 1));
+                }
+                break;
+            } catch (Exception e) {
+                if (i == retries - 1) {
+                    log.warn("Failed to set window size after " + retries
+                            + " attempts. Terminal may have incorrect dimensions. Error: " + e.getMessage());
+                } else {
+                    try {
+                        Thread.sleep(50);
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        break;
                     }
                 }
             }
+        }
 
-            ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
-            sessionThreads.put(session.getId(), executor);
-
-            executor.submit(() -> {
-                InputStream is = process.getInputStream();
-                byte[] buffer = new byte[1024];
-                int read;
-                try {
-                    while (process.isAlive() && (read = is.read(buffer)) != -1) {
-                        if (session.isOpen()) {
-                            // optimize logging: don't log every chunk unless debugging
-                            // log.debug("Sent " + read + " bytes to " + session.getId());
-                            session.sendMessage(new TextMessage(new String(buffer, 0, read, StandardCharsets.UTF_8)));
-                        }
-                    }
-                } catch (IOException e) {
-                    log.error("Error reading from PTY for session " + session.getId(), e);
-                } finally {
-                    log.info("PTY output stream closed for session " + session.getId());
+        return new TerminalShell(shellId, process, Executors.newVirtualThreadPerTaskExecutor(),
+                recorder.start(shellId, 80, 24), resumable ? historyBytes : 0);
+    }
+
+    /**
+     * Registers a new shell under its id and starts pumping its output.
+     *
+     * @return the shell, or the one another connection for the same session registered first
+     */
+    TerminalShell register(TerminalShell shell, WebSocketSession session, Map<String, String> params) {
+        TerminalShell existing = shells.putIfAbsent(shell.id, shell);
+        if (existing != null) {
+            // Lost the race; ending it leaves the winner's broadcast and directory entry alone
+            end(shell, CloseStatus.NORMAL.getCode());
+            return existing;
+        }
+        shell.running.set(true);
+        shell.broadcast = openBroadcast(session, params);
+        shell.event.begin();
+        metrics.sessionOpened();
+        shell.reader.submit(() -> pump(shell));
+        return shell;
+    }
+
+    private void pump(TerminalShell shell) {
+        Process process = shell.process;
+        InputStream is = process.getInputStream();
+        byte[] buffer = new byte[1024];
+        int read;
+        try {
+            while (process.isAlive() && (read = is.read(buffer)) != -1) {
+                long inputNanos = shell.pendingInput.getAndSet(0);
+                if (inputNanos != 0) {
+                    metrics.recordEcho(System.nanoTime() - inputNanos);
                 }
-            });
-        } catch (Exception e) {
-            log.error("Failed to start PTY process within " + ((System.nanoTime() - start) / 1_000_000) + " ms", e);
-            session.close(CloseStatus.SERVER_ERROR);
+                OutputFlushEvent flush = new OutputFlushEvent();
+                flush.begin();
+                shell.output(buffer, read);
+                flush.end();
+                if (flush.shouldCommit()) {
+                    flush.sessionId = shell.id;
+                    flush.bytes = read;
+                    flush.commit();
+                }
+                shell.bytesOut.addAndGet(read);
+                if (shell.recording != null) {
+                    shell.recording.output(shell.outputText.decode(buffer, read));
+                }
+                Broadcast broadcast = shell.broadcast;
+                if (broadcast != null) {
+                    broadcast.publish(buffer, read);
+                }
+            }
+        } catch (IOException e) {
+            log.error("Error reading from PTY for session " + shell.id, e);
+        } finally {
+            log.info("PTY output stream closed for session " + shell.id);
+            if (shell.recording != null) {
+                String rest = shell.outputText.finish();
+                if (!rest.isEmpty()) {
+                    shell.recording.output(rest);
+                }
+            }
+            // The shell has exited, so its connection has nothing left to show
+            WebSocketSession connection = shell.end();
+            end(shell, CloseStatus.NORMAL.getCode());
+            close(connection, CloseStatus.NORMAL);
         }
     }
 
     @Override
     protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
-        PtyProcess process = sessions.get(session.getId());
-        if (process != null && process.isAlive()) {
-            OutputStream os = process.getOutputStream();
-            os.write(message.getPayload().getBytes(StandardCharsets.UTF_8));
+        long received = System.nanoTime();
+        SessionProxy proxy = proxies.get(session.getId());
+        if (proxy != null) {
+            proxy.sendText(message.getPayload());
+            return;
+        }
+        TerminalShell shell = attached.get(session.getId());
+        if (shell != null && shell.process.isAlive()) {
+            OutputStream os = shell.process.getOutputStream();
+            byte[] input = message.getPayload().getBytes(StandardCharsets.UTF_8);
+            os.write(input);
             os.flush();
+            if (shell.recording != null) {
+                shell.recording.input(message.getPayload());
+            }
+            shell.bytesIn.addAndGet(input.length);
+            // Echo latency runs from the oldest input the PTY has not answered yet
+            shell.pendingInput.compareAndSet(0, received);
         } else {
             log.warn("Received message but PTY is dead for session: " + session.getId());
         }
     }
 
+    @Override
+    protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) throws Exception {
+        SessionProxy proxy = proxies.get(session.getId());
+        if (proxy != null) {
+            proxy.sendBinary(message.getPayload());
+            return;
+        }
+        WebSocketSession sender = senders.get(session.getId());
+        if (sender == null) {
+            return;
+        }
+        byte[] payload = new byte[Math.min(message.getPayloadLength(), TerminalMetrics.MAX_CONTROL_BYTES + 1)];
+        message.getPayload().get(payload);
+        PendingResume resume = pending.remove(session.getId());
+        if (resume != null) {
+            open(session, sender, resume.shellId(), true, resume.params(), resumeToken(payload));
+            return;
+        }
+        String reply = metrics.control(payload);
+        if (reply != null) {
+            sender.sendMessage(new TextMessage(reply));
+        }
+    }
+
     @Override
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception {
         log.info("WebSocket connection closed: " + session.getId());
-        PtyProcess process = sessions.remove(session.getId());
-        if (process != null && process.isAlive()) {
-            process.destroy();
+        senders.remove(session.getId());
+        pending.remove(session.getId());
+        SessionProxy proxy = proxies.remove(session.getId());
+        if (proxy != null) {
+            proxy.close();
+        }
+        detach(session.getId(), status.getCode());
+    }
+
+    /** Detaches a closed connection from its shell, which then ends or waits to be resumed. */
+    private void detach(String connectionId, int closeCode) {
+        TerminalShell shell = attached.remove(connectionId);
+        if (shell == null) {
+            return;
+        }
+        long attachment = shell.detach(connectionId, closeCode);
+        if (attachment < 0) {
+            // Replaced by a newer connection, or the shell has ended
+            return;
         }
-        ExecutorService executor = sessionThreads.remove(session.getId());
-        if (executor != null) {
-            executor.shutdownNow();
+        if (!shell.resumable()) {
+            shell.end();
+            end(shell, closeCode);
+            return;
         }
+        log.info("Session {} detached, keeping its shell for {} ms", shell.id, detachTimeoutMillis);
+        expiries.schedule(() -> {
+            if (shell.expire(attachment)) {
+                log.info("Session {} was not resumed in time", shell.id);
+                end(shell, shell.closeCode());
+            }
+        }, detachTimeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops an ended shell and releases what it holds. Only the first call for a registered shell
+     * closes its broadcast, releases its directory entry and commits its event.
+     */
+    private void end(TerminalShell shell, int closeCode) {
+        shells.remove(shell.id, shell);
+        // Decided before the process goes, as its reader thread ends the shell again once it has
+        boolean first = shell.running.compareAndSet(true, false);
+        if (shell.process.isAlive()) {
+            shell.process.destroy();
+        }
+        shell.reader.shutdownNow();
+        if (shell.recording != null) {
+            shell.recording.close();
+        }
+        if (!first) {
+            return;
+        }
+        Broadcast broadcast = shell.broadcast;
+        if (broadcast != null) {
+            broadcastHub.close(broadcast);
+            log.info("Broadcast {} ended", broadcast.channel());
+        }
+        if (shell.resumable() && !shell.replaced) {
+            directory.release(shell.id);
+        }
+        metrics.sessionClosed();
+        TerminalSessionEvent event = shell.event;
+        event.end();
+        if (event.shouldCommit()) {
+            event.sessionId = shell.id;
+            event.bytesOut = shell.bytesOut.get();
+            event.bytesIn = shell.bytesIn.get();
+            event.closeCode = closeCode;
+            event.commit();
+        }
+    }
+
+    private Broadcast openBroadcast(WebSocketSession session, Map<String, String> params) {
+        String channel = params.get("broadcast");
+        if (channel == null) {
+            return null;
+        }
+        Broadcast broadcast = broadcastHub.open(channel, params.get("token"));
+        if (broadcast == null) {
+            log.warn("Session {} could not broadcast on channel {}", session.getId(), channel);
+            return null;
+        }
+        log.info("Session {} is broadcasting on channel {}", session.getId(), channel);
+        return broadcast;
+    }
+
+    private static void send(WebSocketSession connection, String text) {
+        try {
+            connection.sendMessage(new TextMessage(text));
+        } catch (IOException e) {
+            log.debug("Could not send to connection {}: {}", connection.getId(), e.getMessage());
+        }
+    }
+
+    private static void close(WebSocketSession connection, CloseStatus status) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close(status);
+        } catch (IOException e) {
+            log.debug("Could not close connection {}: {}", connection.getId(), e.getMessage());
+        }
+    }
+
+    private static void commit(PtySpawnEvent spawn, String shellId, String[] cmd) {
+        spawn.end();
+        if (spawn.shouldCommit()) {
+            spawn.sessionId = shellId;
+            spawn.command = String.join(" ", cmd);
+            spawn.commit();
+        }
+    }
+
+    private record PendingResume(String shellId, Map<String, String> params) {
     }
 }
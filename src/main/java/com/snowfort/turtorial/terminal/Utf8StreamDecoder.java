@@ -0,0 +1,47 @@
+package com.snowfort.turtorial.terminal;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Decodes a UTF-8 byte stream that arrives in arbitrary chunks. A character split across two
+ * chunks is carried over and decoded with the next one, rather than becoming U+FFFD on both sides.
+ * Not thread-safe; each stream has its own decoder.
+ */
+final class Utf8StreamDecoder {
+
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    /** The start of a character the last chunk ended in; UTF-8 sequences are at most 4 bytes. */
+    private final byte[] carry = new byte[3];
+    private int carried;
+
+    String decode(byte[] bytes, int length) {
+        return decode(bytes, length, false);
+    }
+
+    /** @return whatever was carried over, as replacement characters, when the stream has ended */
+    String finish() {
+        String rest = decode(new byte[0], 0, true);
+        decoder.reset();
+        return rest;
+    }
+
+    private String decode(byte[] bytes, int length, boolean endOfInput) {
+        ByteBuffer in = carried == 0 ? ByteBuffer.wrap(bytes, 0, length)
+                : ByteBuffer.allocate(carried + length).put(carry, 0, carried).put(bytes, 0, length).flip();
+        // Every char takes at least one byte, and a replaced sequence becomes a single char
+        CharBuffer out = CharBuffer.allocate(in.remaining());
+        decoder.decode(in, out, endOfInput);
+        if (endOfInput) {
+            decoder.flush(out);
+        }
+        carried = in.remaining();
+        in.get(carry, 0, carried);
+        return out.flip().toString();
+    }
+}
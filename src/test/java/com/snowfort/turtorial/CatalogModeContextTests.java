@@ -0,0 +1,26 @@
+package com.snowfort.turtorial;
+
+import com.snowfort.turtorial.repository.BuildTimeLessonRepository;
+import com.snowfort.turtorial.repository.LessonRepository;
+import com.snowfort.turtorial.service.LessonParser;
+import com.snowfort.turtorial.service.StepParseCache;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+
+@SpringBootTest(properties = "turtorial.lessons.build-time-catalog=true")
+class CatalogModeContextTests {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Test
+    void parserIsNotCreated() {
+        Assertions.assertInstanceOf(BuildTimeLessonRepository.class, context.getBean(LessonRepository.class));
+        Assertions.assertEquals(0, context.getBeanNamesForType(LessonParser.class).length);
+        Assertions.assertEquals(0, context.getBeanNamesForType(StepParseCache.class).length);
+    }
+
+}
@@ -0,0 +1,121 @@
+package com.snowfort.turtorial.controller;
+
+import com.snowfort.turtorial.repository.ResourceLessonRepository;
+import com.snowfort.turtorial.service.LessonAssetService;
+import com.snowfort.turtorial.service.LessonParser;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class LessonAssetControllerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private LessonAssetController controller;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        Path lessonDir = Files.createDirectories(tempDir.resolve("lessons/lesson-1"));
+        Files.writeString(lessonDir.resolve("01-step.md"), "---\ntitle: First Step\n---\n# Content");
+        Files.writeString(lessonDir.resolve("sample.txt"), "0123456789");
+
+        LessonParser parser = new LessonParser(true);
+        parser.init();
+        ResourceLessonRepository repo = new ResourceLessonRepository(parser,
+                tempDir.resolve("lessons").toUri().toString(), false, true);
+        repo.init();
+        controller = new LessonAssetController(new LessonAssetService(repo));
+    }
+
+    private MockHttpServletResponse get(MockHttpServletRequest request, String path) throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.getAsset("lesson-1", path, request, response);
+        return response;
+    }
+
+    @Test
+    public void testFullBody() throws IOException {
+        MockHttpServletResponse response = get(new MockHttpServletRequest("GET", "/"), "/sample.txt");
+
+        Assertions.assertEquals(200, response.getStatus());
+        Assertions.assertEquals("0123456789", response.getContentAsString(StandardCharsets.UTF_8));
+        Assertions.assertEquals(10, response.getContentLengthLong());
+        Assertions.assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+        Assertions.assertNotNull(response.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    public void testSingleRange() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+        MockHttpServletResponse response = get(request, "/sample.txt");
+
+        Assertions.assertEquals(206, response.getStatus());
+        Assertions.assertEquals("bytes 2-5/10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        Assertions.assertEquals("2345", response.getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testUnsatisfiableRange() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.RANGE, "bytes=20-30");
+        MockHttpServletResponse response = get(request, "/sample.txt");
+
+        Assertions.assertEquals(416, response.getStatus());
+        Assertions.assertEquals("bytes */10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    public void testStaleIfRangeReturnsFullBody() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"stale\"");
+        MockHttpServletResponse response = get(request, "/sample.txt");
+
+        Assertions.assertEquals(200, response.getStatus());
+        Assertions.assertEquals("0123456789", response.getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testNotModified() throws IOException {
+        String etag = get(new MockHttpServletRequest("GET", "/"), "/sample.txt").getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        MockHttpServletResponse response = get(request, "/sample.txt");
+
+        Assertions.assertEquals(304, response.getStatus());
+        Assertions.assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    public void testSendfileHandsOffFile() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.setAttribute(LessonAssetController.SENDFILE_SUPPORT, Boolean.TRUE);
+        request.addHeader(HttpHeaders.RANGE, "bytes=-3");
+        MockHttpServletResponse response = get(request, "/sample.txt");
+
+        Assertions.assertEquals(206, response.getStatus());
+        Assertions.assertEquals(7L, request.getAttribute(LessonAssetController.SENDFILE_START));
+        Assertions.assertEquals(10L, request.getAttribute(LessonAssetController.SENDFILE_END));
+        Assertions.assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    public void testTraversalIsNotFound() throws IOException {
+        Files.writeString(tempDir.resolve("lessons/secret.txt"), "secret");
+        MockHttpServletResponse response = get(new MockHttpServletRequest("GET", "/"), "/../secret.txt");
+
+        Assertions.assertEquals(404, response.getStatus());
+    }
+}
@@ -0,0 +1,94 @@
+package com.snowfort.turtorial.repository;
+
+import com.snowfort.turtorial.model.Lesson;
+import com.snowfort.turtorial.model.Step;
+import com.snowfort.turtorial.service.LessonParser;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+public class ArchiveLessonRepositoryTest {
+
+    private ArchiveLessonRepository createRepository(Path archive, boolean devMode) {
+        LessonParser parser = new LessonParser(true);
+        parser.init();
+        ArchiveLessonRepository repo = new ArchiveLessonRepository(parser, archive.toString(), devMode, true);
+        repo.init();
+        return repo;
+    }
+
+    private void addEntry(ZipOutputStream zip, String name, String content, boolean stored) throws IOException {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        ZipEntry entry = new ZipEntry(name);
+        if (stored) {
+            CRC32 crc = new CRC32();
+            crc.update(bytes);
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(bytes.length);
+            entry.setCompressedSize(bytes.length);
+            entry.setCrc(crc.getValue());
+        }
+        zip.putNextEntry(entry);
+        zip.write(bytes);
+        zip.closeEntry();
+    }
+
+    @Test
+    public void testLoadLessonsFromArchive(@TempDir Path tempDir) throws IOException {
+        Path archive = tempDir.resolve("lessons.zip");
+        try (OutputStream out = Files.newOutputStream(archive); ZipOutputStream zip = new ZipOutputStream(out)) {
+            zip.putNextEntry(new ZipEntry("lessons/"));
+            zip.closeEntry();
+            addEntry(zip, "lessons/packed/lesson.yml", "title: Packed Lesson\ndescription: From a zip", true);
+            addEntry(zip, "lessons/packed/01-stored.md", "---\ntitle: Stored\norder: 2\n---\n# Stored", true);
+            addEntry(zip, "lessons/packed/02-deflated.md",
+                    "---\ntitle: Deflated\norder: 1\n---\n" + "# Deflated\n".repeat(1000), false);
+            addEntry(zip, "lessons/packed/diagram.png", "not a step", false);
+        }
+
+        List<Lesson> lessons = createRepository(archive, false).findAll();
+
+        Assertions.assertEquals(1, lessons.size());
+        Lesson lesson = lessons.get(0);
+        Assertions.assertEquals("packed", lesson.getId());
+        Assertions.assertEquals("Packed Lesson", lesson.getTitle());
+        Assertions.assertEquals("From a zip", lesson.getDescription());
+
+        List<Step> steps = lesson.getSteps();
+        Assertions.assertEquals(2, steps.size());
+        Assertions.assertEquals("Deflated", steps.get(0).getTitle());
+        Assertions.assertEquals("# Deflated\n".repeat(1000), steps.get(0).getContent());
+        Assertions.assertEquals("Stored", steps.get(1).getTitle());
+        Assertions.assertEquals("# Stored", steps.get(1).getContent());
+    }
+
+    @Test
+    public void testDraftStepsSkippedInArchive(@TempDir Path tempDir) throws IOException {
+        Path archive = tempDir.resolve("lessons.jar");
+        try (OutputStream out = Files.newOutputStream(archive); ZipOutputStream zip = new ZipOutputStream(out)) {
+            addEntry(zip, "intro/01-visible.md", "# Visible", false);
+            addEntry(zip, "intro/02-draft.md", "---\ntitle: Draft\ndraft: true\n---\n# Draft", false);
+        }
+
+        Assertions.assertEquals(1, createRepository(archive, false).findById("intro").getSteps().size());
+        Assertions.assertEquals(2, createRepository(archive, true).findById("intro").getSteps().size());
+    }
+
+    @Test
+    public void testNotAnArchive(@TempDir Path tempDir) throws IOException {
+        Path archive = tempDir.resolve("lessons.zip");
+        Files.writeString(archive, "definitely not a zip file");
+
+        Assertions.assertThrows(RuntimeException.class, () -> createRepository(archive, false));
+    }
+}
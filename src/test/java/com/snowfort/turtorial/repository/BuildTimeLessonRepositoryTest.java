@@ -0,0 +1,50 @@
+package com.snowfort.turtorial.repository;
+
+import com.snowfort.turtorial.model.Lesson;
+import com.snowfort.turtorial.model.Step;
+import com.snowfort.turtorial.service.LessonParser;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+
+import java.util.List;
+
+public class BuildTimeLessonRepositoryTest {
+
+    private final BuildTimeLessonRepository repository = new BuildTimeLessonRepository();
+
+    @Test
+    public void testMatchesCatalogLoadedAtRuntime() {
+        LessonParser parser = new LessonParser(true);
+        parser.init();
+        ResourceLessonRepository runtime = new ResourceLessonRepository(parser, "classpath:/lessons", false, true);
+        runtime.init();
+
+        Assertions.assertFalse(repository.findAll().isEmpty());
+        Assertions.assertEquals(ids(runtime.findAll()), ids(repository.findAll()));
+        for (Lesson lesson : runtime.findAll()) {
+            Lesson built = repository.findById(lesson.getId());
+            Assertions.assertEquals(lesson.getSteps().stream().map(Step::getId).toList(),
+                    built.getSteps().stream().map(Step::getId).toList());
+            Assertions.assertEquals(lesson.getSteps().stream().map(Step::getHtml).toList(),
+                    built.getSteps().stream().map(Step::getHtml).toList());
+        }
+        Assertions.assertNull(repository.findById("missing"));
+    }
+
+    @Test
+    public void testResolvesAssetsOnTheClasspath() {
+        Resource asset = repository.findAsset("introduction", "images/diagram.png");
+        Assertions.assertInstanceOf(ClassPathResource.class, asset);
+        Assertions.assertEquals("lessons/introduction/images/diagram.png", ((ClassPathResource) asset).getPath());
+
+        Assertions.assertNull(repository.findAsset("introduction", "lesson.yml"));
+        Assertions.assertNull(repository.findAsset("introduction", "../introduction/01-introduction.mdx"));
+        Assertions.assertNull(repository.findAsset("missing", "images/diagram.png"));
+    }
+
+    private static List<String> ids(List<Lesson> lessons) {
+        return lessons.stream().map(Lesson::getId).toList();
+    }
+}
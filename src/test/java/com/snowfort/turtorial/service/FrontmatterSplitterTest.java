@@ -0,0 +1,122 @@
+package com.snowfort.turtorial.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class FrontmatterSplitterTest {
+
+    // The pattern LessonParser used before the splitter; results must stay identical
+    private static final Pattern FRONTMATTER_PATTERN = Pattern.compile(
+            "^---\\s*\\R(.*?)\\R---\\s*(?:\\R(.*))?$",
+            Pattern.DOTALL | Pattern.MULTILINE);
+
+    private static final List<String> SAMPLES = List.of(
+            "---\ntitle: A\n---\nbody",
+            "---\r\ntitle: A\r\n---\r\nbody\r\nmore",
+            "---\rtitle: A\r---\rbody",
+            "\uFEFF---\ntitle: A\n---\nbody",
+            "# No frontmatter",
+            "",
+            "---",
+            "---\ntitle: A\n---",
+            "---\ntitle: A\n---\n",
+            "---\n---\nbody",
+            "---\r\n---\r\nbody",
+            "---\n\n---\nbody",
+            "---  \ntitle: A\n---   \n\n\n  body\n",
+            "----\ntitle: A\n---\nbody",
+            "---\ntitle: A\n--- x\nb: 1\n---\nbody",
+            "---\ntitle: A\n---\t\r\n\r\nbody",
+            "---\ntitle: A\n---\n  \n",
+            "---\r\n\r\ntitle: A\r\n---\r\n\r\n# H\r\n",
+            "---\r\n---\r\nx: 1\n---\n",
+            "---\ntitle: Ünïcødé\n---\n# Grüße");
+
+    @Test
+    public void testMatchesFrontmatterPattern() throws IOException {
+        for (String sample : SAMPLES) {
+            String expectedFrontmatter = "";
+            String expectedContent = sample;
+            Matcher matcher = FRONTMATTER_PATTERN.matcher(sample);
+            if (matcher.find()) {
+                expectedFrontmatter = matcher.group(1);
+                expectedContent = matcher.group(2) == null ? "" : matcher.group(2);
+            }
+
+            FrontmatterSplitter splitter = FrontmatterSplitter.of(sample.getBytes(StandardCharsets.UTF_8));
+            splitter.readFully();
+
+            Assertions.assertEquals(expectedFrontmatter, splitter.frontmatter(), "frontmatter of " + sample);
+            Assertions.assertEquals(expectedContent, splitter.content(), "content of " + sample);
+        }
+    }
+
+    @Test
+    public void testChannelReadMatchesInMemorySplit() throws IOException {
+        for (String sample : SAMPLES) {
+            byte[] bytes = sample.getBytes(StandardCharsets.UTF_8);
+            FrontmatterSplitter expected = FrontmatterSplitter.of(bytes);
+            expected.readFully();
+
+            FrontmatterSplitter splitter = new FrontmatterSplitter(Channels.newChannel(new TrickleInputStream(bytes)));
+            splitter.readFrontmatter();
+            splitter.readFully();
+
+            Assertions.assertEquals(expected.frontmatter(), splitter.frontmatter(), "frontmatter of " + sample);
+            Assertions.assertEquals(expected.content(), splitter.content(), "content of " + sample);
+        }
+    }
+
+    @Test
+    public void testMetadataOnlyReadStopsAfterFrontmatter() throws IOException {
+        String body = "This is a paragraph of text to simulate content.\n".repeat(10_000);
+        byte[] bytes = ("---\ntitle: Large Step\n---\n" + body).getBytes(StandardCharsets.UTF_8);
+        TrickleInputStream input = new TrickleInputStream(bytes);
+
+        FrontmatterSplitter splitter = new FrontmatterSplitter(Channels.newChannel(input));
+
+        Assertions.assertTrue(splitter.readFrontmatter());
+        Assertions.assertEquals("title: Large Step", splitter.frontmatter());
+        Assertions.assertTrue(input.position < bytes.length / 10, "read " + input.position + " bytes");
+
+        splitter.readFully();
+        Assertions.assertEquals(body, splitter.content());
+    }
+
+    /** Hands out at most 64 bytes per read to exercise incremental scanning. */
+    private static class TrickleInputStream extends InputStream {
+        private final ByteArrayInputStream delegate;
+        private int position;
+
+        TrickleInputStream(byte[] bytes) {
+            this.delegate = new ByteArrayInputStream(bytes);
+        }
+
+        @Override
+        public int read() {
+            int b = delegate.read();
+            if (b >= 0) {
+                position++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            int read = delegate.read(b, off, Math.min(len, 64));
+            if (read > 0) {
+                position += read;
+            }
+            return read;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.snowfort.turtorial.service;
+
+import com.snowfort.turtorial.model.Lesson;
+import com.snowfort.turtorial.model.LessonStats;
+import com.snowfort.turtorial.model.LessonStats.StepStats;
+import com.snowfort.turtorial.model.Step;
+import com.snowfort.turtorial.repository.LessonRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class LessonAnalyticsTest {
+
+    private static LessonRepository catalog(String... stepIds) {
+        List<Step> steps = new ArrayList<>();
+        for (String stepId : stepIds) {
+            steps.add(Step.builder(stepId).title(stepId).build());
+        }
+        Lesson lesson = Lesson.builder("lesson-1").title("Lesson").steps(steps).build();
+        return new LessonRepository() {
+            @Override
+            public List<Lesson> findAll() {
+                return List.of(lesson);
+            }
+
+            @Override
+            public Lesson findById(String id) {
+                return lesson.getId().equals(id) ? lesson : null;
+            }
+        };
+    }
+
+    @Test
+    public void testConcurrentRecording() throws InterruptedException {
+        LessonAnalytics analytics = new LessonAnalytics(catalog(), "", 60);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    analytics.recordVerify("lesson-1", "01-step", i % 2 == 0, 3_000_000);
+                    analytics.recordQuizAnswer("lesson-1", "01-step", 0, "ls", true);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        StepStats step = analytics.stats("lesson-1").steps().get(0);
+        Assertions.assertEquals(80_000, step.verifyAttempts());
+        Assertions.assertEquals(40_000, step.verifySuccesses());
+        Assertions.assertEquals(80_000, step.verifyMillis().count());
+        Assertions.assertEquals(4, step.verifyMillis().p50());
+        Assertions.assertEquals(80_000, step.quizzes().get(0).correct());
+        Assertions.assertEquals(Map.of("ls", 80_000L), step.quizzes().get(0).options());
+    }
+
+    @Test
+    public void testHistogramPercentiles() {
+        LessonAnalytics analytics = new LessonAnalytics(catalog(), "", 60);
+        for (int i = 0; i < 9; i++) {
+            analytics.recordTimeOnStep("lesson-1", "01-step", 1500);
+        }
+        analytics.recordTimeOnStep("lesson-1", "01-step", 90_000);
+        analytics.recordTimeOnStep("lesson-1", "01-step", -5);
+
+        LessonStats.Histogram histogram = analytics.stats("lesson-1").steps().get(0).timeOnStepMillis();
+        Assertions.assertEquals(11, histogram.count());
+        Assertions.assertEquals(9 * 1500 + 90_000, histogram.sum());
+        Assertions.assertEquals(2048, histogram.p50());
+        Assertions.assertEquals(2048, histogram.p90());
+        Assertions.assertEquals(1, histogram.buckets()[0]);
+    }
+
+    @Test
+    public void testSnapshotIsRestored(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("analytics.jsonl");
+        LessonRepository catalog = catalog("01-step", "02-quiz");
+        LessonAnalytics first = new LessonAnalytics(catalog, file.toString(), 60);
+        first.recordVerify("lesson-1", "01-step", true, 5_000_000);
+        first.snapshot();
+        first.recordQuizAnswer("lesson-1", "02-quiz", 1, "cd", false);
+        first.snapshot();
+        first.snapshot();
+
+        // Each snapshot replaces the previous one rather than growing the file
+        Assertions.assertEquals(1, Files.readAllLines(file).size());
+        try (var entries = Files.list(tempDir)) {
+            Assertions.assertEquals(1, entries.count());
+        }
+
+        LessonAnalytics second = new LessonAnalytics(catalog, file.toString(), 60);
+        second.init();
+        try {
+            LessonStats stats = second.stats("lesson-1");
+            Assertions.assertEquals(2, stats.steps().size());
+            Assertions.assertEquals(1, stats.steps().get(0).verifySuccesses());
+            Assertions.assertEquals(Map.of("cd", 1L), stats.steps().get(1).quizzes().get(0).options());
+        } finally {
+            second.shutdown();
+        }
+    }
+
+    @Test
+    public void testRestoreSkipsStepsNoLongerInCatalog(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("analytics.jsonl");
+        LessonAnalytics first = new LessonAnalytics(catalog("01-step", "02-removed"), file.toString(), 60);
+        first.recordVerify("lesson-1", "01-step", true, 5_000_000);
+        first.recordVerify("lesson-1", "02-removed", true, 5_000_000);
+        first.recordVerify("lesson-gone", "01-step", true, 5_000_000);
+        first.snapshot();
+
+        LessonAnalytics second = new LessonAnalytics(catalog("01-step"), file.toString(), 60);
+        second.init();
+        try {
+            List<StepStats> steps = second.stats("lesson-1").steps();
+            Assertions.assertEquals(1, steps.size());
+            Assertions.assertEquals("01-step", steps.get(0).stepId());
+            Assertions.assertTrue(second.stats("lesson-gone").steps().isEmpty());
+        } finally {
+            second.shutdown();
+        }
+    }
+}
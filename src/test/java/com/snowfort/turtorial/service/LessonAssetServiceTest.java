@@ -0,0 +1,72 @@
+package com.snowfort.turtorial.service;
+
+import com.snowfort.turtorial.model.LessonAsset;
+import com.snowfort.turtorial.repository.ResourceLessonRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+public class LessonAssetServiceTest {
+
+    private LessonAssetService createService(Path tempDir) throws IOException {
+        Path lessonDir = Files.createDirectories(tempDir.resolve("lessons/lesson-1"));
+        Files.writeString(lessonDir.resolve("01-step.md"), "---\ntitle: First Step\n---\n![Diagram](img/diagram.png)");
+        Files.createDirectories(lessonDir.resolve("img"));
+        Files.write(lessonDir.resolve("img/diagram.png"), new byte[] { 1, 2, 3, 4 });
+        Files.writeString(tempDir.resolve("lessons/secret.txt"), "outside the lesson");
+
+        LessonParser parser = new LessonParser(true);
+        parser.init();
+        ResourceLessonRepository repo = new ResourceLessonRepository(parser,
+                tempDir.resolve("lessons").toUri().toString(), false, true);
+        repo.init();
+        return new LessonAssetService(repo);
+    }
+
+    @Test
+    public void testFindsAssetNextToStep(@TempDir Path tempDir) throws IOException {
+        LessonAssetService service = createService(tempDir);
+
+        LessonAsset asset = service.find("lesson-1", "img/diagram.png");
+
+        Assertions.assertNotNull(asset);
+        Assertions.assertEquals(4, asset.length());
+        Assertions.assertEquals(MediaType.IMAGE_PNG, asset.mediaType());
+        Assertions.assertNotNull(asset.file());
+        Assertions.assertSame(asset, service.find("lesson-1", "img/diagram.png"));
+    }
+
+    @Test
+    public void testRejectsPathsOutsideTheLesson(@TempDir Path tempDir) throws IOException {
+        LessonAssetService service = createService(tempDir);
+
+        Assertions.assertNull(service.find("lesson-1", "../secret.txt"));
+        Assertions.assertNull(service.find("lesson-1", "img/../../secret.txt"));
+        Assertions.assertNull(service.find("lesson-1", "/etc/passwd"));
+        Assertions.assertNull(service.find("lesson-1", "01-step.md"));
+        Assertions.assertNull(service.find("lesson-1", "img/missing.png"));
+        Assertions.assertNull(service.find("unknown", "img/diagram.png"));
+        Assertions.assertEquals(0, service.cachedEntries());
+    }
+
+    @Test
+    public void testChangedFileIsRedescribed(@TempDir Path tempDir) throws IOException {
+        LessonAssetService service = createService(tempDir);
+        LessonAsset before = service.find("lesson-1", "img/diagram.png");
+
+        Path file = tempDir.resolve("lessons/lesson-1/img/diagram.png");
+        Files.write(file, new byte[] { 1, 2, 3, 4, 5, 6 });
+        Files.setLastModifiedTime(file, FileTime.fromMillis(before.lastModified() + 5000));
+        LessonAsset after = service.find("lesson-1", "img/diagram.png");
+
+        Assertions.assertEquals(6, after.length());
+        Assertions.assertNotEquals(before.etag(), after.etag());
+        Assertions.assertEquals(1, service.cachedEntries());
+    }
+}
@@ -0,0 +1,82 @@
+package com.snowfort.turtorial.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class LessonMarkdownRendererTest {
+
+    private final LessonMarkdownRenderer renderer = new LessonMarkdownRenderer();
+
+    @Test
+    public void testCodeBlockKeepsLanguageClass() {
+        String html = renderer.render("```bash\necho 'hi' > out.txt\n```");
+
+        Assertions.assertTrue(html.contains("<pre><code class=\"language-bash\">echo 'hi' &gt; out.txt\n</code></pre>"), html);
+    }
+
+    @Test
+    public void testDirectiveAdmonition() {
+        String html = renderer.render(":::warning Mind the gap\nDo **not** run this.\n:::\n\nAfter");
+
+        Assertions.assertTrue(html.contains("<div class=\"admonition-wrapper\" data-admonition-type=\"warning\" "
+                + "data-admonition-title=\"Mind the gap\">"), html);
+        Assertions.assertTrue(html.contains("<p>Do <strong>not</strong> run this.</p>"), html);
+        Assertions.assertTrue(html.indexOf("</div>") < html.indexOf("<p>After</p>"), html);
+    }
+
+    @Test
+    public void testDirectiveTitleAttributeAndNesting() {
+        String html = renderer.render("::::note{title=\"Outer\"}\n:::tip\nInner\n:::\nStill outer\n::::");
+
+        Assertions.assertTrue(html.contains("data-admonition-type=\"note\" data-admonition-title=\"Outer\""), html);
+        Assertions.assertTrue(html.contains("data-admonition-type=\"tip\">"), html);
+        Assertions.assertTrue(html.indexOf("<p>Inner</p>") < html.indexOf("<p>Still outer</p>"), html);
+        Assertions.assertEquals(html.lastIndexOf("</div>"), html.indexOf("</div>", html.indexOf("Still outer")), html);
+    }
+
+    @Test
+    public void testGithubAlertBecomesAdmonition() {
+        String html = renderer.render("> [!TIP]\n> Use tab completion.");
+
+        Assertions.assertTrue(html.contains("data-admonition-type=\"tip\""), html);
+        Assertions.assertTrue(html.contains("<p>Use tab completion.</p>"), html);
+        Assertions.assertFalse(html.contains("[!TIP]"), html);
+        Assertions.assertFalse(html.contains("<blockquote>"), html);
+    }
+
+    @Test
+    public void testPlainBlockquoteIsKept() {
+        String html = renderer.render("> Just a quote");
+
+        Assertions.assertTrue(html.contains("<blockquote>"), html);
+    }
+
+    @Test
+    public void testRawHtmlAndUnsafeLinksAreSanitized() {
+        String html = renderer.render("<script>alert(1)</script>\n\n[click](javascript:alert(1)) <img src=x onerror=alert(1)>");
+
+        Assertions.assertFalse(html.contains("<script>"), html);
+        Assertions.assertFalse(html.contains("<img"), html);
+        Assertions.assertFalse(html.contains("href=\"javascript:"), html);
+    }
+
+    @Test
+    public void testGfmExtensions() {
+        String html = renderer.render("| a | b |\n|---|---|\n| 1 | 2 |\n\n~~old~~ https://example.com\n\n- [x] done");
+
+        Assertions.assertTrue(html.contains("<table>"), html);
+        Assertions.assertTrue(html.contains("<del>old</del>"), html);
+        Assertions.assertTrue(html.contains("<a href=\"https://example.com\">"), html);
+        Assertions.assertTrue(html.contains("type=\"checkbox\""), html);
+    }
+
+    @Test
+    public void testFingerprintNamesCommonmarkAndExtensions() {
+        String fingerprint = renderer.fingerprint();
+
+        Assertions.assertTrue(fingerprint.startsWith(LessonMarkdownRenderer.RENDERER_VERSION + ";commonmark-"), fingerprint);
+        Assertions.assertTrue(fingerprint.contains("TablesExtension"), fingerprint);
+        Assertions.assertTrue(fingerprint.contains("AutolinkExtension"), fingerprint);
+        Assertions.assertEquals(fingerprint, new LessonMarkdownRenderer().fingerprint());
+    }
+}
@@ -0,0 +1,108 @@
+package com.snowfort.turtorial.service;
+
+import com.snowfort.turtorial.model.Step;
+import com.snowfort.turtorial.repository.ResourceLessonRepository;
+import com.snowfort.turtorial.service.LessonResponseCache.CachedResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+public class LessonResponseCacheTest {
+
+    private ResourceLessonRepository createRepository(Path tempDir) {
+        LessonParser parser = new LessonParser(true);
+        parser.init();
+        ResourceLessonRepository repo = new ResourceLessonRepository(parser,
+                tempDir.resolve("lessons").toUri().toString(), false, true);
+        repo.init();
+        return repo;
+    }
+
+    private Path writeLesson(Path tempDir, String body) throws IOException {
+        Path lessonDir = Files.createDirectories(tempDir.resolve("lessons/lesson-1"));
+        Files.writeString(lessonDir.resolve("01-step.md"),
+                "---\ntitle: First Step\nsection: Basics\n---\n" + body);
+        return lessonDir;
+    }
+
+    @Test
+    public void testListIsSummaryOnly(@TempDir Path tempDir) throws IOException {
+        writeLesson(tempDir, "# A long step body");
+        LessonResponseCache cache = new LessonResponseCache(createRepository(tempDir), new JsonMapper());
+        cache.init();
+
+        String json = new String(cache.lessonList().body(), StandardCharsets.UTF_8);
+        Assertions.assertTrue(json.contains("\"stepCount\":1"), json);
+        Assertions.assertFalse(json.contains("A long step body"), json);
+
+        String lesson = new String(cache.lesson("lesson-1").body(), StandardCharsets.UTF_8);
+        Assertions.assertTrue(lesson.contains("A long step body"), lesson);
+        Assertions.assertNull(cache.lesson("missing"));
+    }
+
+    @Test
+    public void testGzipVariantMatchesBody(@TempDir Path tempDir) throws IOException {
+        writeLesson(tempDir, "Repeat this line.\n".repeat(200));
+        LessonResponseCache cache = new LessonResponseCache(createRepository(tempDir), new JsonMapper());
+
+        CachedResponse response = cache.lesson("lesson-1");
+        Assertions.assertNotNull(response.gzipBody());
+        Assertions.assertTrue(response.gzipBody().length < response.body().length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.gzipBody()))) {
+            Assertions.assertArrayEquals(response.body(), in.readAllBytes());
+        }
+    }
+
+    @Test
+    public void testEtagMatching(@TempDir Path tempDir) throws IOException {
+        writeLesson(tempDir, "# Content");
+        CachedResponse response = new LessonResponseCache(createRepository(tempDir), new JsonMapper()).lessonList();
+        String etag = response.etag();
+
+        Assertions.assertTrue(etag.startsWith("\"") && etag.endsWith("\""));
+        Assertions.assertNotEquals(etag, response.gzipEtag());
+        Assertions.assertTrue(response.matches(etag));
+        Assertions.assertTrue(response.matches(response.gzipEtag()));
+        Assertions.assertTrue(response.matches("\"other\", W/" + etag));
+        Assertions.assertTrue(response.matches("*"));
+        Assertions.assertFalse(response.matches("\"other\""));
+        Assertions.assertFalse(response.matches(null));
+    }
+
+    @Test
+    public void testReloadInvalidates(@TempDir Path tempDir) throws IOException {
+        writeLesson(tempDir, "# Before");
+        ResourceLessonRepository repo = createRepository(tempDir);
+        LessonResponseCache cache = new LessonResponseCache(repo, new JsonMapper());
+
+        CachedResponse before = cache.lesson("lesson-1");
+        Assertions.assertSame(before, cache.lesson("lesson-1"));
+
+        writeLesson(tempDir, "# After");
+        repo.loadLessons();
+
+        CachedResponse after = cache.lesson("lesson-1");
+        Assertions.assertNotEquals(before.etag(), after.etag());
+        Assertions.assertTrue(new String(after.body(), StandardCharsets.UTF_8).contains("After"));
+    }
+
+    @Test
+    public void testStepsCarryOneRepresentation(@TempDir Path tempDir) throws IOException {
+        writeLesson(tempDir, "# Rendered");
+        String lesson = new String(new LessonResponseCache(createRepository(tempDir), new JsonMapper())
+                .lesson("lesson-1").body(), StandardCharsets.UTF_8);
+        Assertions.assertTrue(lesson.contains("\"html\""), lesson);
+        Assertions.assertFalse(lesson.contains("\"content\""), lesson);
+
+        String unrendered = new JsonMapper().writeValueAsString(Step.builder("01").content("# Raw").build());
+        Assertions.assertTrue(unrendered.contains("\"content\":\"# Raw\""), unrendered);
+    }
+}
@@ -0,0 +1,122 @@
+package com.snowfort.turtorial.service;
+
+import com.snowfort.turtorial.model.Lesson;
+import com.snowfort.turtorial.model.QuizQuestion;
+import com.snowfort.turtorial.model.QuizType;
+import com.snowfort.turtorial.model.SearchResults;
+import com.snowfort.turtorial.model.Step;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class LessonSearchIndexTest {
+
+    private Step step(String id, String title, String section, String content) {
+        return Step.builder(id).title(title).section(section).content(content).build();
+    }
+
+    private Lesson lesson(String id, String title, Step... steps) {
+        return Lesson.builder(id).title(title).steps(List.of(steps)).build();
+    }
+
+    private List<Lesson> catalog() {
+        QuizQuestion quiz = QuizQuestion.builder()
+                .question("Which command lists files?")
+                .type(QuizType.CHOICE)
+                .options(List.of("cd", "ls"))
+                .build();
+        Step quizStep = Step.builder("03-quiz")
+                .title("Check yourself")
+                .content("Answer the question below.")
+                .quizzes(List.of(quiz))
+                .build();
+
+        return List.of(
+                lesson("git", "Git Basics",
+                        step("01-init", "Initialize a repository", "Setup", "Run `git init` to create a repository."),
+                        step("02-commit", "Commit changes", "Workflow",
+                                "Stage files with git add and record them with git commit. <b>Commit</b> often.")),
+                lesson("shell", "Shell Basics",
+                        step("01-ls", "Listing files", "Navigation", "Use ls to list files in a directory."),
+                        quizStep));
+    }
+
+    @Test
+    public void testTitleMatchRanksFirst() {
+        SearchResults results = LessonSearchIndex.build(catalog()).search("commit", 0, 10);
+
+        Assertions.assertEquals(1, results.total());
+        Assertions.assertEquals("git", results.results().get(0).lessonId());
+        Assertions.assertEquals("02-commit", results.results().get(0).stepId());
+    }
+
+    @Test
+    public void testAllTermsMustMatch() {
+        LessonSearchIndex index = LessonSearchIndex.build(catalog());
+
+        Assertions.assertEquals(3, index.search("files", 0, 10).total());
+        Assertions.assertEquals(1, index.search("list files directory", 0, 10).total());
+        Assertions.assertEquals(0, index.search("files kubernetes", 0, 10).total());
+    }
+
+    @Test
+    public void testLastTermMatchesPrefix() {
+        SearchResults results = LessonSearchIndex.build(catalog()).search("git repo", 0, 10);
+
+        Assertions.assertEquals(1, results.total());
+        Assertions.assertEquals("01-init", results.results().get(0).stepId());
+    }
+
+    @Test
+    public void testQuizTextIsIndexed() {
+        SearchResults results = LessonSearchIndex.build(catalog()).search("which command", 0, 10);
+
+        Assertions.assertEquals(1, results.total());
+        Assertions.assertEquals("03-quiz", results.results().get(0).stepId());
+    }
+
+    @Test
+    public void testSnippetIsEscapedAndHighlighted() {
+        SearchResults results = LessonSearchIndex.build(catalog()).search("commit", 0, 10);
+        String snippet = results.results().get(0).snippet();
+
+        Assertions.assertTrue(snippet.contains("&lt;b&gt;<mark>Commit</mark>&lt;/b&gt;"), snippet);
+        Assertions.assertTrue(snippet.contains("git <mark>commit</mark>"), snippet);
+    }
+
+    @Test
+    public void testPagination() {
+        List<Lesson> lessons = new ArrayList<>();
+        for (int l = 0; l < 5; l++) {
+            Step[] steps = new Step[10];
+            for (int s = 0; s < steps.length; s++) {
+                steps[s] = step("step-" + s, "Step " + s, null, "Deploy the service number " + s);
+            }
+            lessons.add(lesson("lesson-" + l, "Lesson " + l, steps));
+        }
+        LessonSearchIndex index = LessonSearchIndex.build(lessons);
+
+        SearchResults first = index.search("deploy", 0, 20);
+        SearchResults last = index.search("deploy", 2, 20);
+
+        Assertions.assertEquals(50, first.total());
+        Assertions.assertEquals(20, first.results().size());
+        Assertions.assertEquals(10, last.results().size());
+        Assertions.assertTrue(index.search("deploy", 3, 20).results().isEmpty());
+    }
+
+    @Test
+    public void testPageFarPastTheEnd() {
+        SearchResults results = LessonSearchIndex.build(catalog()).search("files", Integer.MAX_VALUE, 10);
+
+        Assertions.assertEquals(3, results.total());
+        Assertions.assertTrue(results.results().isEmpty());
+    }
+
+    @Test
+    public void testDocumentCount() {
+        Assertions.assertEquals(4, LessonSearchIndex.build(catalog()).documentCount());
+    }
+}
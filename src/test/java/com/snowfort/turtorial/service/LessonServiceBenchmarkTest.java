@@ -1,5 +1,9 @@
 package com.snowfort.turtorial.service;
 
+import com.snowfort.turtorial.model.Lesson;
+import com.snowfort.turtorial.model.Step;
+import com.snowfort.turtorial.repository.ResourceLessonRepository;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
@@ -7,9 +11,14 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.FileInputStream;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -43,6 +52,7 @@ public class LessonServiceBenchmarkTest {
         for (int i = 0; i < 100; i++) {
             oldImplementation(testFile);
             newImplementation(testFile);
+            splitterImplementation(testFile);
         }
 
         // Measure Old
@@ -64,6 +74,62 @@ public class LessonServiceBenchmarkTest {
         System.out.println(String.format("New Implementation: %.4f ms/op (Total: %d ms)", avgNew, durationNew / 1_000_000));
 
         System.out.println(String.format("Improvement: %.2fx faster", (double) durationOld / durationNew));
+
+        // Measure Splitter
+        long startSplitter = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            splitterImplementation(testFile);
+        }
+        long durationSplitter = System.nanoTime() - startSplitter;
+        double avgSplitter = durationSplitter / (double) ITERATIONS / 1_000_000.0;
+        System.out.println(String.format("Splitter Implementation: %.4f ms/op (Total: %d ms)", avgSplitter, durationSplitter / 1_000_000));
+
+        System.out.println(String.format("Splitter vs regex: %.2fx faster", (double) durationNew / durationSplitter));
+    }
+
+    @Test
+    public void testCatalogSharesRepeatedStrings(@TempDir Path tempDir) throws IOException {
+        int lessonCount = 20;
+        int stepsPerLesson = 20;
+        for (int l = 0; l < lessonCount; l++) {
+            Path lessonDir = Files.createDirectories(tempDir.resolve("lessons/lesson-" + l));
+            for (int s = 0; s < stepsPerLesson; s++) {
+                Files.writeString(lessonDir.resolve(String.format("%03d-step.md", s)), "---\n" +
+                        "title: Step " + s + "\n" +
+                        "order: " + s + "\n" +
+                        "section: Section " + (s % 5) + "\n" +
+                        "testCommand: test -f /tmp/step-" + (s % 10) + "\n" +
+                        "quizzes:\n" +
+                        "  - question: 'Which command lists files?'\n" +
+                        "    type: CHOICE\n" +
+                        "    options: ['cd', 'ls', 'pwd']\n" +
+                        "    correctAnswer: 'ls'\n" +
+                        "---\n" +
+                        "# Step " + s + "\n\nRun the command below.\n");
+            }
+        }
+
+        LessonParser parser = new LessonParser(true);
+        parser.init();
+        ResourceLessonRepository repo = new ResourceLessonRepository(parser,
+                tempDir.resolve("lessons").toUri().toString(), false, true);
+        repo.init();
+
+        // Every repeated section, command and quiz string must be a single shared instance
+        Set<String> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+        int steps = 0;
+        for (Lesson lesson : repo.findAll()) {
+            for (Step step : lesson.getSteps()) {
+                steps++;
+                distinct.add(step.getSection());
+                distinct.add(step.getTestCommand());
+                distinct.add(step.getQuizzes().get(0).getCorrectAnswer());
+                distinct.addAll(step.getQuizzes().get(0).getOptions());
+            }
+        }
+
+        Assertions.assertEquals(lessonCount * stepsPerLesson, steps);
+        Assertions.assertEquals(5 + 10 + 3, distinct.size());
     }
 
     private void oldImplementation(Path file) throws IOException {
@@ -130,4 +196,14 @@ public class LessonServiceBenchmarkTest {
         String fm = frontMatter;
         String c = content;
     }
+
+    private void splitterImplementation(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file)) {
+            FrontmatterSplitter splitter = new FrontmatterSplitter(channel);
+            splitter.readFully();
+
+            String fm = splitter.frontmatter();
+            String c = splitter.content();
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package com.snowfort.turtorial.service;
 
 import com.snowfort.turtorial.model.Lesson;
+import com.snowfort.turtorial.model.LessonSummary;
 import com.snowfort.turtorial.model.QuizQuestion;
 import com.snowfort.turtorial.model.QuizType;
 import com.snowfort.turtorial.model.Step;
@@ -79,6 +80,32 @@ public class LessonServiceTest {
         Assertions.assertEquals(1, lesson.getSteps().size());
     }
 
+    @Test
+    public void testLessonSummaries(@TempDir Path tempDir) throws IOException {
+        Path lessonDir = tempDir.resolve("lessons/lesson-summary");
+        Files.createDirectories(lessonDir);
+
+        Files.writeString(lessonDir.resolve("lesson.yml"), "title: Summary\ndescription: Short");
+        Files.writeString(lessonDir.resolve("01.md"), "---\ntitle: Step 1\nsection: Basics\n---\n# Content 1");
+        Files.writeString(lessonDir.resolve("02.md"), "---\ntitle: Step 2\nsection: Basics\n---\n# Content 2");
+        Files.writeString(lessonDir.resolve("03.md"), "---\ntitle: Step 3\nsection: Advanced\n---\n# Content 3");
+
+        LessonService service = createService(tempDir, false, true);
+
+        Assertions.assertEquals(1, service.findAll().size());
+
+        LessonSummary summary = LessonSummary.of(service.findAll().get(0));
+        Assertions.assertEquals("lesson-summary", summary.id());
+        Assertions.assertEquals("Summary", summary.title());
+        Assertions.assertEquals("Short", summary.description());
+        Assertions.assertEquals(3, summary.stepCount());
+        Assertions.assertEquals(List.of("Basics", "Advanced"), summary.sections());
+
+        Assertions.assertEquals("# Content 2", service.findStep("lesson-summary", "02").getContent());
+        Assertions.assertNull(service.findStep("lesson-summary", "04"));
+        Assertions.assertNull(service.findStep("missing", "01"));
+    }
+
     @Test
     public void testStepOrdering(@TempDir Path tempDir) throws IOException {
         Path lessonDir = tempDir.resolve("lessons/lesson-ordering");
@@ -329,4 +356,37 @@ public class LessonServiceTest {
         Assertions.assertNotNull(quizzes);
         Assertions.assertEquals(2, quizzes.size());
     }
+
+    private static void writeStepWithBadRegex(Path tempDir) throws IOException {
+        Path lessonDir = Files.createDirectories(tempDir.resolve("lessons/lesson-quiz"));
+        Files.writeString(lessonDir.resolve("step1.md"), "---\n" +
+                "title: Step Quiz\n" +
+                "quizzes:\n" +
+                "  - question: 'Type hello'\n" +
+                "    type: TEXT\n" +
+                "    validationRegex: '^(hello$'\n" +
+                "  - question: 'Type bye'\n" +
+                "    type: TEXT\n" +
+                "    validationRegex: '^bye$'\n" +
+                "---\n" +
+                "# Content");
+    }
+
+    @Test
+    public void testInvalidQuizRegexFailsTheLoad(@TempDir Path tempDir) throws IOException {
+        writeStepWithBadRegex(tempDir);
+
+        Assertions.assertThrows(RuntimeException.class, () -> createService(tempDir, true, true));
+    }
+
+    @Test
+    public void testInvalidQuizRegexOnlyDropsItsQuestion(@TempDir Path tempDir) throws IOException {
+        writeStepWithBadRegex(tempDir);
+
+        LessonService service = createService(tempDir, true, false);
+
+        List<QuizQuestion> quizzes = service.findAll().get(0).getSteps().get(0).getQuizzes();
+        Assertions.assertEquals(1, quizzes.size());
+        Assertions.assertEquals("Type bye", quizzes.get(0).getQuestion());
+    }
 }
@@ -0,0 +1,158 @@
+package com.snowfort.turtorial.service;
+
+import com.snowfort.turtorial.model.LessonProgress;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ProgressStoreTest {
+
+    private ProgressStore open(Path file) {
+        ProgressStore store = new ProgressStore(file.toString(), 10, 100);
+        store.init();
+        return store;
+    }
+
+    @Test
+    public void testProgressSurvivesRestart(@TempDir Path tempDir) throws Exception {
+        Path file = tempDir.resolve("data/progress.log");
+        ProgressStore store = open(file);
+        store.save("learner-1", "lesson-1", new LessonProgress(List.of("01-intro"), "02-next"));
+        store.save("learner-1", "lesson-1", new LessonProgress(List.of("01-intro", "02-next"), "03-last"));
+        store.save("learner-2", "lesson-1", new LessonProgress(List.of(), "01-intro"));
+
+        // Reads never wait for the writer
+        Assertions.assertEquals("03-last", store.find("learner-1", "lesson-1").currentStep());
+        store.shutdown();
+
+        Assertions.assertEquals(0, store.pendingWrites());
+        Assertions.assertEquals(3, Files.readAllLines(file).size());
+
+        ProgressStore reopened = open(file);
+        try {
+            Assertions.assertEquals(new LessonProgress(List.of("01-intro", "02-next"), "03-last"),
+                    reopened.find("learner-1", "lesson-1"));
+            Assertions.assertEquals("01-intro", reopened.find("learner-2", "lesson-1").currentStep());
+            Assertions.assertEquals(LessonProgress.EMPTY, reopened.find("learner-3", "lesson-1"));
+        } finally {
+            reopened.shutdown();
+        }
+    }
+
+    @Test
+    public void testCompactionKeepsLatestRecords(@TempDir Path tempDir) throws Exception {
+        Path file = tempDir.resolve("progress.log");
+        ProgressStore store = open(file);
+        for (int i = 0; i < 50; i++) {
+            store.save("learner-1", "lesson-1", new LessonProgress(List.of(), "step-" + i));
+        }
+        store.save("learner-2", "lesson-1", new LessonProgress(List.of("step-0"), "step-1"));
+        store.shutdown();
+        Assertions.assertEquals(51, Files.readAllLines(file).size());
+
+        store.compact();
+
+        Assertions.assertEquals(2, Files.readAllLines(file).size());
+        ProgressStore reopened = open(file);
+        try {
+            Assertions.assertEquals("step-49", reopened.find("learner-1", "lesson-1").currentStep());
+            Assertions.assertEquals(List.of("step-0"), reopened.find("learner-2", "lesson-1").completedSteps());
+        } finally {
+            reopened.shutdown();
+        }
+    }
+
+    @Test
+    public void testConcurrentSavesLogLatestValue(@TempDir Path tempDir) throws Exception {
+        Path file = tempDir.resolve("progress.log");
+        ProgressStore store = open(file);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 500; i++) {
+                    store.save("learner-1", "lesson-1", new LessonProgress(List.of(), "step-" + thread + "-" + i));
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        LessonProgress latest = store.find("learner-1", "lesson-1");
+        store.shutdown();
+
+        ProgressStore reopened = open(file);
+        try {
+            Assertions.assertEquals(latest, reopened.find("learner-1", "lesson-1"));
+        } finally {
+            reopened.shutdown();
+        }
+    }
+
+    @Test
+    public void testTornLastRecordIsSkipped(@TempDir Path tempDir) throws Exception {
+        Path file = tempDir.resolve("progress.log");
+        Files.writeString(file, "{\"learner\":\"learner-1\",\"lesson\":\"lesson-1\",\"completed\":[],\"current\":\"a\"}\n"
+                + "{\"learner\":\"learner-1\",\"lesson\":\"les");
+
+        ProgressStore store = open(file);
+        Assertions.assertEquals("a", store.find("learner-1", "lesson-1").currentStep());
+        store.save("learner-1", "lesson-1", new LessonProgress(List.of(), "b"));
+        store.shutdown();
+
+        ProgressStore reopened = open(file);
+        try {
+            Assertions.assertEquals("b", reopened.find("learner-1", "lesson-1").currentStep());
+        } finally {
+            reopened.shutdown();
+        }
+    }
+
+    @Test
+    public void testMemoryOnlyWithoutFile() throws IOException {
+        ProgressStore store = new ProgressStore("", 10, 100);
+        store.init();
+        store.save("learner-1", "lesson-1", new LessonProgress(null, "01-intro"));
+
+        Assertions.assertEquals(List.of(), store.find("learner-1", "lesson-1").completedSteps());
+        Assertions.assertEquals(0, store.pendingWrites());
+    }
+
+    @Test
+    public void testNewLearnersAreRefusedOnceFull() throws IOException {
+        ProgressStore store = new ProgressStore("", 10, 2);
+        store.init();
+
+        Assertions.assertTrue(store.save("learner-1", "lesson-1", new LessonProgress(List.of(), "01-intro")));
+        Assertions.assertTrue(store.save("learner-2", "lesson-1", new LessonProgress(List.of(), "01-intro")));
+        Assertions.assertFalse(store.save("learner-3", "lesson-1", new LessonProgress(List.of(), "01-intro")));
+
+        // Learners already in the store keep saving
+        Assertions.assertTrue(store.save("learner-1", "lesson-2", new LessonProgress(List.of(), "01-intro")));
+        Assertions.assertEquals(LessonProgress.EMPTY, store.find("learner-3", "lesson-1"));
+    }
+
+    @Test
+    public void testRestoredLearnersCountTowardsTheLimit(@TempDir Path tempDir) throws Exception {
+        Path file = tempDir.resolve("progress.log");
+        ProgressStore store = open(file);
+        store.save("learner-1", "lesson-1", new LessonProgress(List.of(), "01-intro"));
+        store.save("learner-2", "lesson-1", new LessonProgress(List.of(), "01-intro"));
+        store.shutdown();
+
+        ProgressStore reopened = new ProgressStore(file.toString(), 10, 2);
+        reopened.init();
+        try {
+            Assertions.assertFalse(reopened.save("learner-3", "lesson-1", new LessonProgress(List.of(), "01-intro")));
+            Assertions.assertTrue(reopened.save("learner-2", "lesson-1", new LessonProgress(List.of(), "02-next")));
+        } finally {
+            reopened.shutdown();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.snowfort.turtorial.service;
+
+import com.snowfort.turtorial.model.QuizQuestion;
+import com.snowfort.turtorial.model.QuizResult;
+import com.snowfort.turtorial.model.QuizType;
+import com.snowfort.turtorial.repository.ResourceLessonRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+public class QuizGradingServiceTest {
+
+    private static final String QUIZ_STEP = """
+            ---
+            title: Quiz
+            quizzes:
+              - question: Which command lists files?
+                type: CHOICE
+                options: [ls, cd, mkdir]
+                correctAnswer: ls
+              - question: Type hello
+                type: TEXT
+                validationRegex: "^hello$"
+            ---
+            # Quiz
+            """;
+
+    private ResourceLessonRepository createRepository(Path tempDir) throws IOException {
+        Path lessonDir = Files.createDirectories(tempDir.resolve("lessons/lesson-1"));
+        Files.writeString(lessonDir.resolve("01-quiz.md"), QUIZ_STEP);
+
+        LessonParser parser = new LessonParser(true);
+        parser.init();
+        ResourceLessonRepository repo = new ResourceLessonRepository(parser,
+                tempDir.resolve("lessons").toUri().toString(), false, true);
+        repo.init();
+        return repo;
+    }
+
+    private QuizGradingService createService(ResourceLessonRepository repo, long timeoutMillis) {
+        return new QuizGradingService(new LessonService(repo, new ShellCommandExecutor(), false),
+                new LessonAnalytics(repo, "", 60), timeoutMillis);
+    }
+
+    @Test
+    public void testGradesAllQuizzesOfStep(@TempDir Path tempDir) throws IOException {
+        QuizGradingService service = createService(createRepository(tempDir), 100);
+
+        Assertions.assertEquals(List.of(new QuizResult(0, true), new QuizResult(1, true)),
+                service.grade("lesson-1", "01-quiz", List.of("ls", "hello")));
+        Assertions.assertEquals(List.of(new QuizResult(0, false), new QuizResult(1, false)),
+                service.grade("lesson-1", "01-quiz", List.of("cd", "hello there")));
+    }
+
+    @Test
+    public void testSkipsUnansweredQuizzes(@TempDir Path tempDir) throws IOException {
+        QuizGradingService service = createService(createRepository(tempDir), 100);
+
+        List<QuizResult> results = service.grade("lesson-1", "01-quiz", Arrays.asList(null, "hello", "extra"));
+
+        Assertions.assertEquals(List.of(new QuizResult(1, true)), results);
+        Assertions.assertNull(service.grade("lesson-1", "missing", List.of("ls")));
+    }
+
+    @Test
+    public void testCatastrophicPatternTimesOut(@TempDir Path tempDir) throws IOException {
+        QuizGradingService service = createService(createRepository(tempDir), 50);
+        QuizQuestion quiz = QuizQuestion.builder()
+                .question("Evil")
+                .type(QuizType.TEXT)
+                .validationRegex("^(a+)+$")
+                .build();
+
+        long start = System.nanoTime();
+        boolean correct = service.isCorrect(quiz, "a".repeat(40) + "!");
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        Assertions.assertFalse(correct);
+        Assertions.assertTrue(elapsedMillis < 2000, "took " + elapsedMillis + "ms");
+        Assertions.assertTrue(service.isCorrect(quiz, "aaaa"));
+    }
+
+    @Test
+    public void testAnswersAreNotSentToClients(@TempDir Path tempDir) throws IOException {
+        LessonResponseCache cache = new LessonResponseCache(createRepository(tempDir), new JsonMapper());
+        cache.init();
+
+        String json = new String(cache.lesson("lesson-1").body(), StandardCharsets.UTF_8);
+
+        Assertions.assertTrue(json.contains("Which command lists files?"), json);
+        Assertions.assertFalse(json.contains("correctAnswer"), json);
+        Assertions.assertFalse(json.contains("^hello$"), json);
+    }
+}
@@ -0,0 +1,39 @@
+package com.snowfort.turtorial.service;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+public class ShellCommandExecutorTest {
+
+    @Test
+    public void testRecordsCommandExecutionEvents(@TempDir Path tempDir) throws IOException {
+        ShellCommandExecutor executor = new ShellCommandExecutor();
+        Path dump = tempDir.resolve("commands.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable("com.snowfort.turtorial.CommandExecution");
+            recording.start();
+            Assertions.assertTrue(executor.execute("true"));
+            Assertions.assertFalse(executor.execute("exit 3"));
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump).stream()
+                .filter(event -> event.getEventType().getName().equals("com.snowfort.turtorial.CommandExecution"))
+                .toList();
+        Assertions.assertEquals(2, events.size());
+        Assertions.assertEquals("true", events.get(0).getString("command"));
+        Assertions.assertEquals(0, events.get(0).getInt("exitCode"));
+        Assertions.assertEquals("exit 3", events.get(1).getString("command"));
+        Assertions.assertEquals(3, events.get(1).getInt("exitCode"));
+    }
+}
@@ -0,0 +1,158 @@
+package com.snowfort.turtorial.service;
+
+import com.snowfort.turtorial.model.Step;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class StepParseCacheTest {
+
+    private LessonParser createParser(Path cacheDir) {
+        LessonParser parser = new LessonParser(true, new StepParseCache(cacheDir.toString()));
+        parser.init();
+        return parser;
+    }
+
+    private List<Path> cacheEntries(Path cacheDir) throws IOException {
+        try (Stream<Path> paths = Files.walk(cacheDir)) {
+            return paths.filter(p -> p.toString().endsWith(".json")).toList();
+        }
+    }
+
+    @Test
+    public void testColdParseWritesEntry(@TempDir Path tempDir) throws IOException {
+        Path cacheDir = tempDir.resolve("cache");
+        Path stepFile = tempDir.resolve("01-step.md");
+        Files.writeString(stepFile, "---\ntitle: Cached Step\nsection: Basics\n---\n# Content");
+
+        Step step = createParser(cacheDir).parseStep(new FileSystemResource(stepFile), "01-step.md", false);
+
+        Assertions.assertEquals("Cached Step", step.getTitle());
+        Assertions.assertEquals("# Content", step.getContent());
+        Assertions.assertEquals(1, cacheEntries(cacheDir).size());
+    }
+
+    @Test
+    public void testWarmParseUsesEntry(@TempDir Path tempDir) throws IOException {
+        Path cacheDir = tempDir.resolve("cache");
+        Path stepFile = tempDir.resolve("01-step.md");
+        Files.writeString(stepFile, "---\ntitle: Cached Step\n---\n# Content");
+
+        createParser(cacheDir).parseStep(new FileSystemResource(stepFile), "01-step.md", false);
+
+        // Tamper with the entry so a cache hit is observable
+        Path entry = cacheEntries(cacheDir).get(0);
+        Files.writeString(entry, "{\"frontmatter\":{\"title\":\"From Cache\"},\"contentStart\":2}");
+
+        Step step = createParser(cacheDir).parseStep(new FileSystemResource(stepFile), "01-step.md", false);
+        Assertions.assertEquals("From Cache", step.getTitle());
+        Assertions.assertEquals("-\ntitle: Cached Step\n---\n# Content", step.getContent());
+    }
+
+    @Test
+    public void testChangedFileMissesCache(@TempDir Path tempDir) throws IOException {
+        Path cacheDir = tempDir.resolve("cache");
+        Path stepFile = tempDir.resolve("01-step.md");
+        Files.writeString(stepFile, "---\ntitle: Before\n---\n# Content");
+        createParser(cacheDir).parseStep(new FileSystemResource(stepFile), "01-step.md", false);
+
+        Files.writeString(stepFile, "---\ntitle: After\n---\n# Content");
+        Step step = createParser(cacheDir).parseStep(new FileSystemResource(stepFile), "01-step.md", false);
+
+        Assertions.assertEquals("After", step.getTitle());
+        Assertions.assertEquals(2, cacheEntries(cacheDir).size());
+    }
+
+    @Test
+    public void testSchemaChangePrunesOldGeneration(@TempDir Path tempDir) throws IOException {
+        Path cacheDir = tempDir.resolve("cache");
+        Path stepFile = tempDir.resolve("01-step.md");
+        Files.writeString(stepFile, "---\ntitle: Step\n---\n# Content");
+
+        StepParseCache oldSchema = new StepParseCache(cacheDir.toString());
+        oldSchema.init("{\"type\":\"object\"}".getBytes(StandardCharsets.UTF_8), new LessonMarkdownRenderer().fingerprint());
+        byte[] bytes = Files.readAllBytes(stepFile);
+        oldSchema.store(oldSchema.key(bytes, bytes.length), new StepParseCache.Entry(null, 0, null));
+        Path oldGeneration = cacheEntries(cacheDir).get(0).getParent();
+
+        Step step = createParser(cacheDir).parseStep(new FileSystemResource(stepFile), "01-step.md", false);
+
+        Assertions.assertEquals("Step", step.getTitle());
+        Assertions.assertFalse(Files.exists(oldGeneration));
+        Assertions.assertEquals(1, cacheEntries(cacheDir).size());
+    }
+
+    @Test
+    public void testPruningKeepsUnrelatedDirectories(@TempDir Path tempDir) throws IOException {
+        Path cacheDir = tempDir.resolve("cache");
+        Path unrelated = Files.createDirectories(cacheDir.resolve("backups"));
+        Files.writeString(unrelated.resolve("notes.json"), "{}");
+        Path lookalike = Files.createDirectories(cacheDir.resolve("v1-not-a-generation"));
+        Path stale = Files.createDirectories(cacheDir.resolve("v1-0123456789abcdef"));
+
+        new StepParseCache(cacheDir.toString()).init(new byte[0], "");
+
+        Assertions.assertTrue(Files.exists(unrelated.resolve("notes.json")));
+        Assertions.assertTrue(Files.exists(lookalike));
+        Assertions.assertFalse(Files.exists(stale));
+    }
+
+    @Test
+    public void testRendererChangePrunesOldGeneration(@TempDir Path tempDir) throws IOException {
+        Path cacheDir = tempDir.resolve("cache");
+        Path stepFile = tempDir.resolve("01-step.md");
+        Files.writeString(stepFile, "---\ntitle: Step\n---\n# Content");
+        byte[] schemaBytes;
+        try (var is = getClass().getResourceAsStream("/schemas/lesson-frontmatter.schema.json")) {
+            schemaBytes = is.readAllBytes();
+        }
+
+        StepParseCache oldRenderer = new StepParseCache(cacheDir.toString());
+        oldRenderer.init(schemaBytes, "0;commonmark-0.0.0;");
+        byte[] bytes = Files.readAllBytes(stepFile);
+        oldRenderer.store(oldRenderer.key(bytes, bytes.length), new StepParseCache.Entry(null, 0, "<p>stale</p>"));
+        Path oldGeneration = cacheEntries(cacheDir).get(0).getParent();
+
+        Step step = createParser(cacheDir).parseStep(new FileSystemResource(stepFile), "01-step.md", false);
+
+        Assertions.assertEquals("Step", step.getTitle());
+        Assertions.assertFalse(Files.exists(oldGeneration));
+        Assertions.assertEquals(1, cacheEntries(cacheDir).size());
+    }
+
+    @Test
+    public void testPruningKeepsUnrelatedDirectories(@TempDir Path tempDir) throws IOException {
+        Path cacheDir = tempDir.resolve("cache");
+        Path unrelated = Files.createDirectories(cacheDir.resolve("backups"));
+        Files.writeString(unrelated.resolve("notes.json"), "{}");
+        Path lookalike = Files.createDirectories(cacheDir.resolve("v1-not-a-generation"));
+        Path stale = Files.createDirectories(cacheDir.resolve("v1-0123456789abcdef"));
+
+        new StepParseCache(cacheDir.toString()).init(new byte[0], "");
+
+        Assertions.assertTrue(Files.exists(unrelated.resolve("notes.json")));
+        Assertions.assertTrue(Files.exists(lookalike));
+        Assertions.assertFalse(Files.exists(stale));
+    }
+
+    @Test
+    public void testInvalidFrontmatterIsNotCached(@TempDir Path tempDir) throws IOException {
+        Path cacheDir = tempDir.resolve("cache");
+        Path stepFile = tempDir.resolve("01-step.md");
+        Files.writeString(stepFile, "---\ntitle: Invalid\norder: \"not-a-number\"\n---\n# Content");
+
+        LessonParser parser = new LessonParser(false, new StepParseCache(cacheDir.toString()));
+        parser.init();
+        parser.parseStep(new FileSystemResource(stepFile), "01-step.md", false);
+
+        Assertions.assertTrue(cacheEntries(cacheDir).isEmpty());
+    }
+}
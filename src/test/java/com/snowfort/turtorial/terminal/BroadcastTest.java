@@ -0,0 +1,96 @@
+package com.snowfort.turtorial.terminal;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class BroadcastTest {
+
+    private static void publish(Broadcast broadcast, String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        broadcast.publish(bytes, bytes.length);
+    }
+
+    private static String text(Broadcast.Chunk chunk) {
+        return new String(chunk.data(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testViewersReadIndependently() throws Exception {
+        Broadcast broadcast = new Broadcast("workshop", 16);
+        publish(broadcast, "hello ");
+        publish(broadcast, "world");
+
+        Broadcast.Chunk first = broadcast.read(0, 4, 0, TimeUnit.SECONDS);
+        Assertions.assertEquals("hell", text(first));
+        Broadcast.Chunk rest = broadcast.read(first.end(), 64, 0, TimeUnit.SECONDS);
+        Assertions.assertEquals("o world", text(rest));
+        Assertions.assertNull(broadcast.read(rest.end(), 64, 0, TimeUnit.SECONDS));
+
+        // Another viewer is unaffected by the first one's cursor
+        Assertions.assertEquals("hello world", text(broadcast.read(0, 64, 0, TimeUnit.SECONDS)));
+    }
+
+    @Test
+    public void testSlowViewerSkipsAhead() throws Exception {
+        Broadcast broadcast = new Broadcast("workshop", 8);
+        publish(broadcast, "0123456789");
+        publish(broadcast, "abcdef");
+
+        Assertions.assertEquals(8, broadcast.oldest());
+        Broadcast.Chunk chunk = broadcast.read(2, 64, 0, TimeUnit.SECONDS);
+        Assertions.assertEquals(8, chunk.from());
+        Assertions.assertEquals("89abcdef", text(chunk));
+        Assertions.assertEquals(16, chunk.end());
+    }
+
+    @Test
+    public void testWaitingViewerWakesOnPublishAndClose() throws Exception {
+        Broadcast broadcast = new Broadcast("workshop", 64);
+        CompletableFuture<Broadcast.Chunk> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return broadcast.read(0, 64, 10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        Thread.sleep(50);
+        publish(broadcast, "ls\r\n");
+        Assertions.assertEquals("ls\r\n", text(waiting.get(5, TimeUnit.SECONDS)));
+
+        CompletableFuture<Broadcast.Chunk> ended = CompletableFuture.supplyAsync(() -> {
+            try {
+                return broadcast.read(4, 64, 10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        Thread.sleep(50);
+        broadcast.close();
+        Assertions.assertNull(ended.get(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(broadcast.isClosed());
+    }
+
+    @Test
+    public void testHubRequiresTokenAndFreeChannel() {
+        BroadcastHub disabled = new BroadcastHub("", 1024);
+        Assertions.assertNull(disabled.open("workshop", ""));
+
+        BroadcastHub hub = new BroadcastHub("secret", 1024);
+        Assertions.assertNull(hub.open("workshop", "wrong"));
+        Assertions.assertNull(hub.open("../workshop", "secret"));
+
+        Broadcast broadcast = hub.open("workshop", "secret");
+        Assertions.assertNotNull(broadcast);
+        Assertions.assertSame(broadcast, hub.find("workshop"));
+        Assertions.assertNull(hub.open("workshop", "secret"));
+
+        hub.close(broadcast);
+        Assertions.assertTrue(broadcast.isClosed());
+        Assertions.assertNull(hub.find("workshop"));
+        Assertions.assertNotNull(hub.open("workshop", "secret"));
+    }
+}
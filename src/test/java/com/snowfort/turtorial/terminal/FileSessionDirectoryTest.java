@@ -0,0 +1,60 @@
+package com.snowfort.turtorial.terminal;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class FileSessionDirectoryTest {
+
+    private static final String FIRST = "ws://localhost:8081";
+    private static final String SECOND = "ws://localhost:8082";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testFirstClaimWins() throws Exception {
+        SessionDirectory first = new FileSessionDirectory(directory.toString(), FIRST);
+        SessionDirectory second = new FileSessionDirectory(directory.toString(), SECOND);
+
+        Assertions.assertEquals(FIRST, first.claim("abc"));
+        Assertions.assertEquals(FIRST, second.claim("abc"));
+        Assertions.assertEquals(SECOND, second.claim("def"));
+    }
+
+    @Test
+    public void testReleaseOnlyByOwner() throws Exception {
+        SessionDirectory first = new FileSessionDirectory(directory.toString(), FIRST);
+        SessionDirectory second = new FileSessionDirectory(directory.toString(), SECOND);
+        first.claim("abc");
+
+        second.release("abc");
+        Assertions.assertEquals(FIRST, second.claim("abc"));
+
+        first.release("abc");
+        Assertions.assertFalse(Files.exists(directory.resolve("abc" + FileSessionDirectory.EXTENSION)));
+        Assertions.assertEquals(SECOND, second.claim("abc"));
+    }
+
+    @Test
+    public void testTransferFromUnresponsiveOwner() throws Exception {
+        SessionDirectory first = new FileSessionDirectory(directory.toString(), FIRST);
+        SessionDirectory second = new FileSessionDirectory(directory.toString(), SECOND);
+        SessionDirectory third = new FileSessionDirectory(directory.toString(), "ws://localhost:8083");
+        first.claim("abc");
+
+        Assertions.assertTrue(second.transfer("abc", FIRST));
+        // A node that also saw the first owner fails, as the session has moved on
+        Assertions.assertFalse(third.transfer("abc", FIRST));
+        Assertions.assertEquals(SECOND, first.claim("abc"));
+    }
+
+    @Test
+    public void testNodeUrlIsRequired() {
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> new FileSessionDirectory(directory.toString(), ""));
+    }
+}
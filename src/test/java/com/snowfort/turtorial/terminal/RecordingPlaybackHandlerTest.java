@@ -0,0 +1,66 @@
+package com.snowfort.turtorial.terminal;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class RecordingPlaybackHandlerTest {
+
+    private static final String RECORDING = """
+            {"version": 2, "width": 80, "height": 24, "timestamp": 0}
+            [0.100000, "o", "a"]
+            [0.200000, "i", "x"]
+            [0.500000, "o", "b"]
+            [1.000000, "o", "c"]
+            [10.000000, "o", "d"]
+            [10.100000, "i", "y"]
+            """;
+
+    private final RecordingPlaybackHandler handler = new RecordingPlaybackHandler(
+            new SessionRecorder("", 0, 0, 10));
+
+    @Test
+    public void testCatchesUpThenKeepsScaledAndCappedTiming(@TempDir Path tempDir) throws Exception {
+        Path file = Files.writeString(tempDir.resolve("recording" + SessionRecorder.EXTENSION), RECORDING);
+        StubWebSocketSession session = new StubWebSocketSession("viewer-1");
+
+        handler.play(session, file, 2, 600_000);
+
+        // Output before "from" arrives as one message, and input events are never sent
+        Assertions.assertEquals(List.of("ab", "c", "d"), session.payloads());
+        List<StubWebSocketSession.Sent> sent = session.sent;
+        // 0.6s to 1.0s at double speed
+        long toC = TimeUnit.NANOSECONDS.toMillis(sent.get(1).nanos() - sent.get(0).nanos());
+        Assertions.assertTrue(toC >= 190 && toC < 1000, "waited " + toC + " ms");
+        // 9s at double speed is 4.5s, shortened to the idle cap
+        long toD = TimeUnit.NANOSECONDS.toMillis(sent.get(2).nanos() - sent.get(1).nanos());
+        Assertions.assertTrue(toD >= RecordingPlaybackHandler.MAX_IDLE_MILLIS - 10
+                && toD < RecordingPlaybackHandler.MAX_IDLE_MILLIS + 1000, "waited " + toD + " ms");
+    }
+
+    @Test
+    public void testFromPastTheEndSendsOnlyCatchUp(@TempDir Path tempDir) throws Exception {
+        Path file = Files.writeString(tempDir.resolve("recording" + SessionRecorder.EXTENSION), RECORDING);
+        StubWebSocketSession session = new StubWebSocketSession("viewer-1");
+
+        handler.play(session, file, 1, 60_000_000);
+
+        Assertions.assertEquals(List.of("abcd"), session.payloads());
+    }
+
+    @Test
+    public void testStopsWhenViewerCloses(@TempDir Path tempDir) throws Exception {
+        Path file = Files.writeString(tempDir.resolve("recording" + SessionRecorder.EXTENSION), RECORDING);
+        StubWebSocketSession session = new StubWebSocketSession("viewer-1");
+        session.close();
+
+        handler.play(session, file, 1, 0);
+
+        Assertions.assertTrue(session.sent.isEmpty());
+    }
+}
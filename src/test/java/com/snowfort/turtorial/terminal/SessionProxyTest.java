@@ -0,0 +1,35 @@
+package com.snowfort.turtorial.terminal;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class SessionProxyTest {
+
+    @Test
+    public void testFramesQueueWhileTheOwnerIsUnreachable() throws Exception {
+        StubWebSocketSession browser = new StubWebSocketSession("connection-1");
+
+        // Nothing listens on port 1, so the relay never opens
+        SessionProxy proxy = SessionProxy.connect("ws://127.0.0.1:1", "session-1", null, browser);
+        Assertions.assertNotNull(proxy);
+        proxy.sendBinary(ByteBuffer.wrap("{\"type\":\"resume\",\"token\":\"t\"}".getBytes(StandardCharsets.UTF_8)));
+        proxy.sendText("ls\r");
+        proxy.close();
+
+        Assertions.assertThrows(ExecutionException.class, () -> proxy.opened().get(10, TimeUnit.SECONDS));
+        // What happens to the browser is up to the handler, which takes the session over
+        Assertions.assertNull(browser.closeStatus());
+        Assertions.assertTrue(browser.payloads().isEmpty());
+    }
+
+    @Test
+    public void testUnusableOwnerUrl() {
+        Assertions.assertNull(SessionProxy.connect("not a url", "session-1", null,
+                new StubWebSocketSession("connection-1")));
+    }
+}
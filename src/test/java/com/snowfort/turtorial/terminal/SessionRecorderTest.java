@@ -0,0 +1,158 @@
+package com.snowfort.turtorial.terminal;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public class SessionRecorderTest {
+
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+
+    private SessionRecorder open(Path directory, long maxBytes, long maxFileBytes) throws IOException {
+        SessionRecorder recorder = new SessionRecorder(directory.toString(), maxBytes, maxFileBytes, 10);
+        recorder.init();
+        return recorder;
+    }
+
+    private List<Path> recordings(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(SessionRecorder.EXTENSION)).sorted().toList();
+        }
+    }
+
+    @Test
+    public void testWritesAsciicast(@TempDir Path tempDir) throws Exception {
+        SessionRecorder recorder = open(tempDir, 1 << 20, 1 << 20);
+        SessionRecorder.SessionRecording recording = recorder.start("session-1", 80, 24);
+        recording.output("$ ");
+        recording.input("ls\r");
+        recording.output("ls\r\n\"quoted\"\u001b[0m\r\n");
+        recording.close();
+        recorder.shutdown();
+
+        List<Path> files = recordings(tempDir);
+        Assertions.assertEquals(1, files.size());
+        Assertions.assertTrue(files.get(0).getFileName().toString().endsWith("-session-1.cast"));
+
+        List<String> lines = Files.readAllLines(files.get(0));
+        Assertions.assertEquals(4, lines.size());
+        JsonNode header = jsonMapper.readTree(lines.get(0));
+        Assertions.assertEquals(2, header.get("version").asInt());
+        Assertions.assertEquals(80, header.get("width").asInt());
+        Assertions.assertEquals(24, header.get("height").asInt());
+
+        JsonNode input = jsonMapper.readTree(lines.get(2));
+        Assertions.assertEquals("i", input.get(1).asText());
+        Assertions.assertEquals("ls\r", input.get(2).asText());
+        JsonNode output = jsonMapper.readTree(lines.get(3));
+        Assertions.assertEquals("o", output.get(1).asText());
+        Assertions.assertEquals("ls\r\n\"quoted\"\u001b[0m\r\n", output.get(2).asText());
+        Assertions.assertTrue(output.get(0).asDouble() >= input.get(0).asDouble());
+        Assertions.assertTrue(input.get(0).asDouble() >= jsonMapper.readTree(lines.get(1)).get(0).asDouble());
+    }
+
+    @Test
+    public void testSameSessionIdGetsSeparateFiles(@TempDir Path tempDir) throws Exception {
+        SessionRecorder recorder = open(tempDir, 1 << 20, 1 << 20);
+        SessionRecorder.SessionRecording first = recorder.start("session-1", 80, 24);
+        SessionRecorder.SessionRecording second = recorder.start("session-1", 80, 24);
+        first.output("first");
+        second.output("second");
+        first.close();
+        second.close();
+        recorder.shutdown();
+
+        List<Path> files = recordings(tempDir);
+        Assertions.assertEquals(2, files.size());
+        Set<String> outputs = new HashSet<>();
+        for (Path file : files) {
+            outputs.add(jsonMapper.readTree(Files.readAllLines(file).get(1)).get(2).asText());
+        }
+        Assertions.assertEquals(Set.of("first", "second"), outputs);
+        Assertions.assertEquals(0, recorder.droppedEvents());
+    }
+
+    @Test
+    public void testRotatesLargeRecordings(@TempDir Path tempDir) throws Exception {
+        SessionRecorder recorder = open(tempDir, 1 << 20, 1024);
+        SessionRecorder.SessionRecording recording = recorder.start("session-1", 80, 24);
+        for (int i = 0; i < 100; i++) {
+            recording.output("line " + i + " " + "x".repeat(40) + "\r\n");
+        }
+        recording.close();
+        recorder.shutdown();
+
+        List<Path> files = recordings(tempDir);
+        Assertions.assertTrue(files.size() > 1, "Expected several parts but got " + files);
+        int events = 0;
+        for (Path file : files) {
+            List<String> lines = Files.readAllLines(file);
+            Assertions.assertEquals(2, jsonMapper.readTree(lines.get(0)).get("version").asInt());
+            events += lines.size() - 1;
+        }
+        Assertions.assertEquals(100, events);
+    }
+
+    @Test
+    public void testDeletesOldestRecordingsOverBudget(@TempDir Path tempDir) throws Exception {
+        Path oldest = Files.writeString(tempDir.resolve("20240101-000000-old.cast"), "x".repeat(3000));
+        Path older = Files.writeString(tempDir.resolve("20240102-000000-older.cast"), "x".repeat(3000));
+        Path unrelated = Files.writeString(tempDir.resolve("notes.txt"), "x".repeat(3000));
+        Files.setLastModifiedTime(oldest, FileTime.fromMillis(1_000));
+        Files.setLastModifiedTime(older, FileTime.fromMillis(2_000));
+
+        SessionRecorder recorder = open(tempDir, 7000, 1 << 20);
+        SessionRecorder.SessionRecording recording = recorder.start("session-1", 80, 24);
+        recording.output("y".repeat(1500));
+        recording.close();
+        recorder.shutdown();
+
+        Assertions.assertFalse(Files.exists(oldest));
+        Assertions.assertTrue(Files.exists(older));
+        Assertions.assertTrue(Files.exists(unrelated));
+        Assertions.assertEquals(2, recordings(tempDir).size());
+        Assertions.assertEquals(0, recorder.droppedEvents());
+    }
+
+    @Test
+    public void testIndexPointsAtEventLines(@TempDir Path tempDir) throws Exception {
+        SessionRecorder recorder = open(tempDir, 1 << 30, 1 << 30);
+        SessionRecorder.SessionRecording recording = recorder.start("session-1", 80, 24);
+        for (int i = 0; i < 20; i++) {
+            recording.output(i + " " + "x".repeat(64 * 1024));
+        }
+        recording.close();
+        recorder.shutdown();
+
+        Path file = recordings(tempDir).get(0);
+        Assertions.assertTrue(Files.exists(RecordingIndex.indexFile(file)));
+        RecordingIndex index = RecordingIndex.load(file);
+        Assertions.assertTrue(index.size() >= 4, "Expected an entry per 256 KB but got " + index.size());
+
+        byte[] content = Files.readAllBytes(file);
+        long last = index.offsetBefore(Long.MAX_VALUE);
+        Assertions.assertTrue(last > 0);
+        Assertions.assertEquals('[', content[(int) last]);
+        Assertions.assertEquals('\n', content[(int) last - 1]);
+        Assertions.assertEquals(0, index.offsetBefore(-1));
+    }
+
+    @Test
+    public void testDisabledWithoutDirectory() throws Exception {
+        SessionRecorder recorder = new SessionRecorder("", 1 << 20, 1 << 20, 10);
+        recorder.init();
+        Assertions.assertNull(recorder.start("session-1", 80, 24));
+        recorder.shutdown();
+    }
+}
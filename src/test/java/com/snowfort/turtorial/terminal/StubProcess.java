@@ -0,0 +1,62 @@
+package com.snowfort.turtorial.terminal;
+
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.CountDownLatch;
+
+/** A process whose output stays open, without producing anything, until it is destroyed. */
+final class StubProcess extends Process {
+
+    private final CountDownLatch destroyed = new CountDownLatch(1);
+    private final InputStream output = new InputStream() {
+        @Override
+        public int read() throws InterruptedIOException {
+            try {
+                destroyed.await();
+            } catch (InterruptedException e) {
+                throw new InterruptedIOException();
+            }
+            return -1;
+        }
+    };
+
+    @Override
+    public OutputStream getOutputStream() {
+        return OutputStream.nullOutputStream();
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return output;
+    }
+
+    @Override
+    public InputStream getErrorStream() {
+        return InputStream.nullInputStream();
+    }
+
+    @Override
+    public int waitFor() throws InterruptedException {
+        destroyed.await();
+        return 0;
+    }
+
+    @Override
+    public int exitValue() {
+        if (isAlive()) {
+            throw new IllegalThreadStateException("Still running");
+        }
+        return 0;
+    }
+
+    @Override
+    public void destroy() {
+        destroyed.countDown();
+    }
+
+    @Override
+    public boolean isAlive() {
+        return destroyed.getCount() > 0;
+    }
+}
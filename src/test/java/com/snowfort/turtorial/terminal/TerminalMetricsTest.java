@@ -0,0 +1,52 @@
+package com.snowfort.turtorial.terminal;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+public class TerminalMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final TerminalMetrics metrics = new TerminalMetrics(registry);
+
+    private String control(String json) {
+        return metrics.control(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testPingIsAnsweredAndReportedRoundTripRecorded() {
+        Assertions.assertEquals("{\"type\":\"pong\",\"id\":1}", control("{\"type\":\"ping\",\"id\":1,\"rtt\":null}"));
+        Assertions.assertEquals("{\"type\":\"pong\",\"id\":2}", control("{\"type\":\"ping\",\"id\":2,\"rtt\":40}"));
+
+        Timer roundTrip = registry.get("turtorial.terminal.round.trip").timer();
+        Assertions.assertEquals(1, roundTrip.count());
+        Assertions.assertEquals(40, roundTrip.totalTime(TimeUnit.MILLISECONDS), 0.001);
+    }
+
+    @Test
+    public void testMalformedControlMessagesAreIgnored() {
+        Assertions.assertNull(control("not json"));
+        Assertions.assertNull(control("{\"type\":\"pong\",\"id\":1}"));
+        Assertions.assertNull(control("{\"type\":\"ping\"}"));
+        Assertions.assertNull(control("{\"type\":\"ping\",\"id\":1,\"pad\":\"" + "x".repeat(300) + "\"}"));
+        // Implausible round trips are answered but not recorded
+        Assertions.assertNotNull(control("{\"type\":\"ping\",\"id\":3,\"rtt\":-5}"));
+        Assertions.assertNotNull(control("{\"type\":\"ping\",\"id\":4,\"rtt\":3600000}"));
+        Assertions.assertEquals(0, registry.get("turtorial.terminal.round.trip").timer().count());
+    }
+
+    @Test
+    public void testEchoAndSessions() {
+        metrics.sessionOpened();
+        metrics.sessionOpened();
+        metrics.sessionClosed();
+        metrics.recordEcho(TimeUnit.MILLISECONDS.toNanos(3));
+
+        Assertions.assertEquals(1, registry.get("turtorial.terminal.sessions").gauge().value());
+        Assertions.assertEquals(1, registry.get("turtorial.terminal.echo").timer().count());
+    }
+}
@@ -0,0 +1,128 @@
+package com.snowfort.turtorial.terminal;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.CloseStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class TerminalShellTest {
+
+    private final ExecutorService reader = Executors.newVirtualThreadPerTaskExecutor();
+
+    @AfterEach
+    public void tearDown() {
+        reader.shutdownNow();
+    }
+
+    private TerminalShell shell(int historyBytes) {
+        return new TerminalShell("session-1", new StubProcess(), reader, null, historyBytes);
+    }
+
+    private static void output(TerminalShell shell, String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        shell.output(bytes, bytes.length);
+    }
+
+    private static String received(StubWebSocketSession connection) {
+        return String.join("", connection.payloads());
+    }
+
+    @Test
+    public void testResumeReplaysHistory() {
+        TerminalShell shell = shell(1024);
+        output(shell, "$ ls\r\n");
+        StubWebSocketSession first = new StubWebSocketSession("connection-1");
+
+        Assertions.assertTrue(shell.attach(first));
+        output(shell, "file.txt\r\n");
+        Assertions.assertEquals("$ ls\r\nfile.txt\r\n", received(first));
+
+        Assertions.assertTrue(shell.detach("connection-1", CloseStatus.GOING_AWAY.getCode()) >= 0);
+        // Output while detached is kept for the next connection
+        output(shell, "$ ");
+        StubWebSocketSession second = new StubWebSocketSession("connection-2");
+        Assertions.assertTrue(shell.attach(second));
+        output(shell, "pwd");
+
+        Assertions.assertEquals("$ ls\r\nfile.txt\r\n$ pwd", received(second));
+        Assertions.assertEquals("$ ls\r\nfile.txt\r\n", received(first));
+    }
+
+    @Test
+    public void testReplayKeepsOnlyTheEndOfLongHistory() {
+        TerminalShell shell = shell(8);
+        output(shell, "0123456789");
+        StubWebSocketSession connection = new StubWebSocketSession("connection-1");
+
+        shell.attach(connection);
+
+        Assertions.assertEquals("23456789", received(connection));
+    }
+
+    @Test
+    public void testSecondAttachClosesFirst() {
+        TerminalShell shell = shell(1024);
+        StubWebSocketSession first = new StubWebSocketSession("connection-1");
+        StubWebSocketSession second = new StubWebSocketSession("connection-2");
+        shell.attach(first);
+
+        shell.attach(second);
+        output(shell, "x");
+
+        Assertions.assertEquals(CloseStatus.NORMAL.getCode(), first.closeStatus().getCode());
+        Assertions.assertEquals("Session opened elsewhere", first.closeStatus().getReason());
+        Assertions.assertEquals("", received(first));
+        Assertions.assertEquals("x", received(second));
+        // The replaced connection closing afterwards must not detach its successor
+        Assertions.assertEquals(-1, shell.detach("connection-1", CloseStatus.NORMAL.getCode()));
+        Assertions.assertNull(second.closeStatus());
+    }
+
+    @Test
+    public void testExpireAfterReattachFails() {
+        TerminalShell shell = shell(1024);
+        shell.attach(new StubWebSocketSession("connection-1"));
+        long first = shell.detach("connection-1", CloseStatus.GOING_AWAY.getCode());
+
+        shell.attach(new StubWebSocketSession("connection-2"));
+        Assertions.assertFalse(shell.expire(first));
+
+        long second = shell.detach("connection-2", CloseStatus.GOING_AWAY.getCode());
+        Assertions.assertFalse(shell.expire(first));
+        Assertions.assertTrue(shell.expire(second));
+        Assertions.assertEquals(CloseStatus.GOING_AWAY.getCode(), shell.closeCode());
+        Assertions.assertFalse(shell.attach(new StubWebSocketSession("connection-3")));
+    }
+
+    @Test
+    public void testShellWithoutHistoryOnlySendsLiveOutput() {
+        TerminalShell shell = shell(0);
+        output(shell, "before");
+        StubWebSocketSession connection = new StubWebSocketSession("connection-1");
+
+        shell.attach(connection);
+        output(shell, "after");
+
+        Assertions.assertFalse(shell.resumable());
+        Assertions.assertEquals(List.of("after"), connection.payloads());
+        Assertions.assertSame(connection, shell.end());
+        Assertions.assertFalse(shell.attach(new StubWebSocketSession("connection-2")));
+    }
+
+    @Test
+    public void testOnlyItsTokenOwnsAResumableShell() {
+        TerminalShell shell = shell(1024);
+
+        Assertions.assertTrue(shell.owns(shell.token));
+        Assertions.assertFalse(shell.owns(null));
+        Assertions.assertFalse(shell.owns(""));
+        Assertions.assertNotEquals(shell.token, shell(1024).token);
+        Assertions.assertNull(shell(0).token);
+        Assertions.assertFalse(shell(0).owns(null));
+    }
+}
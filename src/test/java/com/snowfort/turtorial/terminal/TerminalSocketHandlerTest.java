@@ -0,0 +1,99 @@
+package com.snowfort.turtorial.terminal;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+
+public class TerminalSocketHandlerTest {
+
+    private static final Map<String, String> BROADCAST = Map.of("broadcast", "demo", "token", "secret-token");
+
+    private final List<String> released = new CopyOnWriteArrayList<>();
+    private final SessionDirectory directory = new InMemorySessionDirectory("ws://node-1") {
+        @Override
+        public void release(String sessionId) {
+            released.add(sessionId);
+            super.release(sessionId);
+        }
+    };
+    private final BroadcastHub broadcastHub = new BroadcastHub("secret-token", 1024);
+    private final TerminalSocketHandler handler = new TerminalSocketHandler(new SessionRecorder("", 0, 0, 10),
+            broadcastHub, new TerminalMetrics(new SimpleMeterRegistry()), directory, 60_000, 1024, "");
+
+    @AfterEach
+    public void tearDown() {
+        handler.shutdown();
+    }
+
+    private static TerminalShell shell(StubProcess process) {
+        return new TerminalShell("session-1", process, Executors.newVirtualThreadPerTaskExecutor(), null, 1024);
+    }
+
+    private static BinaryMessage resume(String token) {
+        String message = "{\"type\":\"resume\",\"token\":\"" + token + "\"}";
+        return new BinaryMessage(message.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testResumeNeedsTheShellToken() throws Exception {
+        TerminalShell shell = shell(new StubProcess());
+        directory.claim("session-1");
+        handler.register(shell, new StubWebSocketSession("connection-1"), Map.of());
+        byte[] output = "$ ".getBytes(StandardCharsets.UTF_8);
+        shell.output(output, output.length);
+        URI uri = URI.create("ws://localhost/term?session=session-1");
+
+        StubWebSocketSession stranger = new StubWebSocketSession("connection-2", uri);
+        handler.afterConnectionEstablished(stranger);
+        // Waits for the token rather than taking the shell over
+        Assertions.assertNull(stranger.closeStatus());
+        handler.handleMessage(stranger, resume("0123456789abcdef0123456789abcdef"));
+        Assertions.assertEquals(CloseStatus.POLICY_VIOLATION.getCode(), stranger.closeStatus().getCode());
+        Assertions.assertTrue(stranger.payloads().isEmpty());
+
+        StubWebSocketSession owner = new StubWebSocketSession("connection-3", uri);
+        handler.afterConnectionEstablished(owner);
+        handler.handleMessage(owner, resume(shell.token));
+        Assertions.assertNull(owner.closeStatus());
+        Assertions.assertEquals(List.of("$ "), owner.payloads());
+    }
+
+    @Test
+    public void testSpawnRaceLoserLeavesWinnerAlone() {
+        StubProcess winnerProcess = new StubProcess();
+        StubProcess loserProcess = new StubProcess();
+        TerminalShell winner = shell(winnerProcess);
+        directory.claim("session-1");
+
+        Assertions.assertSame(winner, handler.register(winner, new StubWebSocketSession("connection-1"), BROADCAST));
+        Broadcast onAir = broadcastHub.find("demo");
+        Assertions.assertNotNull(onAir);
+        Assertions.assertSame(onAir, winner.broadcast);
+
+        TerminalShell loser = shell(loserProcess);
+        Assertions.assertSame(winner, handler.register(loser, new StubWebSocketSession("connection-2"), BROADCAST));
+
+        Assertions.assertFalse(loserProcess.isAlive());
+        Assertions.assertNull(loser.broadcast);
+        Assertions.assertTrue(winnerProcess.isAlive());
+        Assertions.assertSame(onAir, broadcastHub.find("demo"));
+        Assertions.assertFalse(onAir.isClosed());
+        Assertions.assertTrue(released.isEmpty());
+
+        // Ending the winner does release both
+        handler.shutdown();
+        Assertions.assertFalse(winnerProcess.isAlive());
+        Assertions.assertNull(broadcastHub.find("demo"));
+        Assertions.assertEquals(List.of("session-1"), released);
+    }
+}
@@ -0,0 +1,46 @@
+package com.snowfort.turtorial.terminal;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public class Utf8StreamDecoderTest {
+
+    @Test
+    public void testCharactersSplitAcrossChunks() {
+        byte[] bytes = "a€b😀c".getBytes(StandardCharsets.UTF_8);
+        // Every split point, including those inside the 3-byte euro sign and the 4-byte emoji
+        for (int split = 0; split <= bytes.length; split++) {
+            Utf8StreamDecoder decoder = new Utf8StreamDecoder();
+            String text = decoder.decode(Arrays.copyOfRange(bytes, 0, split), split)
+                    + decoder.decode(Arrays.copyOfRange(bytes, split, bytes.length), bytes.length - split);
+            Assertions.assertEquals("a€b😀c", text, "split at " + split);
+            Assertions.assertEquals("", decoder.finish());
+        }
+    }
+
+    @Test
+    public void testOneByteAtATime() {
+        byte[] bytes = "😀😀".getBytes(StandardCharsets.UTF_8);
+        Utf8StreamDecoder decoder = new Utf8StreamDecoder();
+        StringBuilder text = new StringBuilder();
+        for (byte b : bytes) {
+            text.append(decoder.decode(new byte[] { b }, 1));
+        }
+
+        Assertions.assertEquals("😀😀", text.toString());
+    }
+
+    @Test
+    public void testInvalidAndTruncatedInputIsReplaced() {
+        Utf8StreamDecoder decoder = new Utf8StreamDecoder();
+        byte[] euro = "€".getBytes(StandardCharsets.UTF_8);
+
+        Assertions.assertEquals("a�b", decoder.decode(new byte[] { 'a', (byte) 0xFF, 'b' }, 3));
+        Assertions.assertEquals("", decoder.decode(euro, 2));
+        Assertions.assertEquals("�", decoder.finish());
+        Assertions.assertEquals("ok", decoder.decode("ok".getBytes(StandardCharsets.UTF_8), 2));
+    }
+}